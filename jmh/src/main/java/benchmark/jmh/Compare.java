@@ -0,0 +1,141 @@
+package benchmark.jmh;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with -rf csv and fails on regressions, to gate changes against a baseline:
+ *   java -cp jmh/target/benchmarks.jar:algs4.jar benchmark.jmh.Compare baseline.csv results.csv
+ * A benchmark regressed if its score got worse by more than -Dbench.tolerance (default 0.10): lower throughput in
+ * thrpt mode, more time per op in the other modes. With -prof gc, its gc.alloc.rate.norm (bytes allocated per op)
+ * regressed if it grew by more than the tolerance plus 16 bytes, so a benchmark that allocated nothing may not start to.
+ * Benchmarks in only one of the files are ignored. Exits with status 1 if there is a regression.
+ */
+public class Compare {
+
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("bench.tolerance", "0.10"));
+    private static final double ALLOCATION_SLACK = 16;     // bytes per op
+    private static final String ALLOCATION = ":gc.alloc.rate.norm";
+
+    private Compare() {}
+
+    private static class Score {
+        private final String mode;
+        private final double score;
+        private final String unit;
+
+        Score(String mode, double score, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+    }
+
+    // the primary scores and the allocation rates of a csv file, by benchmark name, threads and parameters
+    private static Map<String, Score> read(String filename) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(filename), StandardCharsets.UTF_8);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("could not read " + filename, e);
+        }
+        if (lines.isEmpty()) throw new IllegalArgumentException(filename + " is empty");
+        List<String> header = fields(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int threads = header.indexOf("Threads");
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+        if (benchmark < 0 || mode < 0 || threads < 0 || score < 0 || unit < 0) {
+            throw new IllegalArgumentException(filename + " is not a JMH csv result file");
+        }
+
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (int i = 1; i < lines.size(); i++) {
+            if (lines.get(i).isEmpty()) continue;
+            List<String> row = fields(lines.get(i));
+            String name = row.get(benchmark);
+            if (name.indexOf(':') >= 0 && !name.endsWith(ALLOCATION)) continue;
+            StringBuilder key = new StringBuilder(name).append(" t=").append(row.get(threads));
+            for (int j = unit + 1; j < header.size(); j++) {
+                if (j < row.size() && !row.get(j).isEmpty()) {
+                    key.append(' ').append(header.get(j).replace("Param: ", "")).append('=').append(row.get(j));
+                }
+            }
+            scores.put(key.toString(), new Score(row.get(mode), Double.parseDouble(row.get(score)), row.get(unit)));
+        }
+        return scores;
+    }
+
+    // the fields of a csv line, without their quotes
+    private static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                }
+                else {
+                    quoted = !quoted;
+                }
+            }
+            else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("usage: java benchmark.jmh.Compare baseline.csv results.csv");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = read(args[0]);
+        Map<String, Score> results = read(args[1]);
+
+        int compared = 0, regressions = 0;
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null || !before.unit.equals(after.unit)) continue;
+            compared++;
+            boolean regression;
+            if (entry.getKey().contains(ALLOCATION)) {
+                regression = after.score > before.score * (1 + TOLERANCE) + ALLOCATION_SLACK;
+            }
+            else if (after.mode.equals("thrpt")) {
+                regression = after.score < before.score * (1 - TOLERANCE);
+            }
+            else {
+                regression = after.score > before.score * (1 + TOLERANCE);
+            }
+            if (regression) {
+                regressions++;
+                System.out.printf("REGRESSION %s: %.3f -> %.3f %s (%+.1f%%)%n", entry.getKey(),
+                        before.score, after.score, after.unit, 100 * (after.score / before.score - 1));
+            }
+        }
+        if (regressions > 0) {
+            System.exit(1);
+        }
+        System.out.println("No regressions in " + compared + " scores against " + args[0]);
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark.jmh;
+
+import hashtable.ConcurrentHashST;
+import hashtable.HashST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrentHashST against HashST behind one global lock, all threads hitting one table of n keys.
+ * Each op picks a random key of the input: a get with probability readPercent%, otherwise a put or a delete
+ * (half each, so the table stays around its initial size).
+ * Set the number of threads with -t, e.g. -t 1, -t 8, -t 64 (the score is the total throughput of all threads).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentHashSTBenchmarks {
+
+    @Param({"10000", "1000000"})
+    public int n;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "SKEWED"})
+    public Inputs.Distribution distribution;
+
+    @Param({"95", "50"})
+    public int readPercent;
+
+    private Integer[] keys;
+    private ConcurrentHashST<Integer, Integer> concurrent;
+    private HashST<Integer, Integer> locked;
+
+    @Setup
+    public void setup() {
+        keys = Inputs.boxed(Inputs.ints(n, distribution));
+        concurrent = new ConcurrentHashST<>();
+        locked = new HashST<>();
+        for (Integer key : keys) {
+            concurrent.put(key, key);
+            locked.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public int concurrentHashST() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(n)];
+        int dice = random.nextInt(200);
+        if (dice < 2 * readPercent) {
+            Integer value = concurrent.get(key);
+            return value == null ? 0 : value;
+        }
+        if ((dice & 1) == 0) concurrent.put(key, key);
+        else                 concurrent.delete(key);
+        return 1;
+    }
+
+    @Benchmark
+    public int synchronizedHashST() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(n)];
+        int dice = random.nextInt(200);
+        synchronized (locked) {
+            if (dice < 2 * readPercent) {
+                Integer value = locked.get(key);
+                return value == null ? 0 : value;
+            }
+            if ((dice & 1) == 0) locked.put(key, key);
+            else                 locked.delete(key);
+            return 1;
+        }
+    }
+}
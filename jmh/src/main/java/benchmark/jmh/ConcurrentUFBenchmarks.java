@@ -0,0 +1,53 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ConcurrentUF;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrentUF.connected() on random pairs of sites, from all threads at once, after the unions of UFBenchmarks.
+ * Set the number of threads with -t, e.g. -t 1, -t 8, -t 64 (the score is the total throughput of all threads).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentUFBenchmarks {
+
+    @Param({"10000", "1000000"})
+    public int n;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "SKEWED"})
+    public Inputs.Distribution distribution;
+
+    private ConcurrentUF uf;
+
+    @Setup
+    public void setup() {
+        int[] pairs = Inputs.ints(2 * n, distribution);
+        uf = new ConcurrentUF(n);
+        for (int i = 0; i < n; i++) {
+            uf.union(pairs[2 * i] % n, pairs[2 * i + 1] % n);
+        }
+    }
+
+    @Benchmark
+    public boolean connected() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return uf.connected(random.nextInt(n), random.nextInt(n));
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark.jmh;
+
+import graphics.DeltaSteppingSP;
+import graphics.DijkstraUndirectedSP;
+import graphics.EdgeWeightedGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The parallel shortest paths on random edge-weighted graphs (weights in [0, 1]) with V vertexes and E = density * V edges:
+ * DijkstraUndirectedSP against DeltaSteppingSP for every thread count and bucket width. One op is one full run from vertex 0.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DeltaSteppingBenchmarks {
+
+    @Param({"1000000"})
+    public int V;
+
+    @Param({"8"})
+    public int density;
+
+    private EdgeWeightedGraph G;
+
+    /**
+     * The settings of DeltaSteppingSP, only its benchmark is run for every combination
+     */
+    @State(Scope.Benchmark)
+    public static class Settings {
+
+        @Param({"1", "2", "4", "8", "16", "32", "64"})
+        public int threads;
+
+        // the bucket width; 0 stands for the default, maxWeight / average degree
+        @Param({"0", "0.01", "0.05", "0.2", "1"})
+        public double delta;
+
+        ForkJoinPool pool;
+
+        @Setup
+        public void setup() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        G = Inputs.edgeWeighted(V, density * V);
+    }
+
+    @Benchmark
+    public double dijkstraUndirectedSP() {
+        return new DijkstraUndirectedSP(G, 0).distTo(V - 1);
+    }
+
+    @Benchmark
+    public int deltaSteppingSP(Settings settings) {
+        double width = settings.delta > 0 ? settings.delta : Double.NaN;
+        return new DeltaSteppingSP(G, 0, width, settings.pool).phases();
+    }
+}
@@ -0,0 +1,161 @@
+package benchmark.jmh;
+
+import graphics.BoruvkaMST;
+import graphics.BreadFirstPaths;
+import graphics.CSRGraphic;
+import graphics.DeepFirstPaths;
+import graphics.DeepFirstSearch;
+import graphics.DepthFirstOrder;
+import graphics.DijkstraUndirectedSP;
+import graphics.DirectGraph;
+import graphics.DirectedCycle;
+import graphics.DirectedDFS;
+import graphics.EdgeWeightedGraph;
+import graphics.FilterKruskalMST;
+import graphics.Graphic;
+import graphics.KruskalMST;
+import graphics.LazyPrimMST;
+import graphics.MultiSourceBFS;
+import graphics.MyCC;
+import graphics.ParallelBreadFirstPaths;
+import graphics.PrimMST;
+import graphics.Topological;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The graph searches and MSTs on random graphs with V vertexes and E = density * V edges.
+ * One op is one full run of the algorithm from vertex 0 (MultiSourceBFS: from 64 sources).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+public class GraphBenchmarks {
+
+    @Param({"10000", "100000"})
+    public int V;
+
+    @Param({"2", "8"})
+    public int density;
+
+    private Graphic G;
+    private CSRGraphic csr;
+    private DirectGraph digraph;
+    private DirectGraph dag;
+    private EdgeWeightedGraph weighted;
+    private int[] sources;
+
+    @Setup
+    public void setup() {
+        int E = density * V;
+        G = Inputs.graphic(V, E);
+        csr = G.freeze();
+        digraph = Inputs.digraph(V, E);
+        dag = Inputs.dag(V, E);
+        weighted = Inputs.edgeWeighted(V, E);
+        sources = new int[64];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = i * (V / sources.length);
+        }
+    }
+
+    @Benchmark
+    public int breadFirstPaths() {
+        return new BreadFirstPaths(G, 0).distTo(V - 1);
+    }
+
+    @Benchmark
+    public int parallelBreadFirstPaths() {
+        return new ParallelBreadFirstPaths(csr, 0, ForkJoinPool.commonPool()).distTo(V - 1);
+    }
+
+    @Benchmark
+    public int multiSourceBFS() {
+        return new MultiSourceBFS(csr, sources).distTo(sources.length - 1, V - 1);
+    }
+
+    @Benchmark
+    public int deepFirstSearch() {
+        return new DeepFirstSearch(G, 0).count();
+    }
+
+    @Benchmark
+    public boolean deepFirstPaths() {
+        return new DeepFirstPaths(G, 0).hasPathTo(V - 1);
+    }
+
+    @Benchmark
+    public int myCC() {
+        return new MyCC(G).count();
+    }
+
+    @Benchmark
+    public int myCCParallel() {
+        return new MyCC(csr, ForkJoinPool.commonPool()).count();
+    }
+
+    @Benchmark
+    public int directedDFS() {
+        return new DirectedDFS(digraph, 0).count();
+    }
+
+    @Benchmark
+    public boolean directedCycle() {
+        return new DirectedCycle(dag).hasCycle();
+    }
+
+    @Benchmark
+    public int depthFirstOrder() {
+        return new DepthFirstOrder(digraph).post(0);
+    }
+
+    @Benchmark
+    public int topological() {
+        return new Topological(dag).rank(0);
+    }
+
+    @Benchmark
+    public double kruskalMST() {
+        return new KruskalMST(weighted).weight();
+    }
+
+    @Benchmark
+    public double filterKruskalMST() {
+        return new FilterKruskalMST(weighted).weight();
+    }
+
+    @Benchmark
+    public double boruvkaMST() {
+        return new BoruvkaMST(weighted).weight();
+    }
+
+    @Benchmark
+    public double lazyPrimMST() {
+        return new LazyPrimMST(weighted).weight();
+    }
+
+    @Benchmark
+    public double primMST() {
+        return new PrimMST(weighted).weight();
+    }
+
+    @Benchmark
+    public double dijkstraUndirectedSP() {
+        return new DijkstraUndirectedSP(weighted, 0).distTo(V - 1);
+    }
+}
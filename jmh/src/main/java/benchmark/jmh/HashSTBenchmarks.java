@@ -0,0 +1,128 @@
+package benchmark.jmh;
+
+import hashtable.HashST;
+import hashtable.LPHashST;
+import hashtable.RobinHoodHashST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generic hash tables HashST, LPHashST and RobinHoodHashST:
+ * put n keys into an empty table, get n keys from a full one,
+ * and delete then re-put every key of a full table (deletion churn). One op handles all n keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashSTBenchmarks {
+
+    @Param({"10000", "1000000"})
+    public int n;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "SKEWED"})
+    public Inputs.Distribution distribution;
+
+    private Integer[] keys;
+    private HashST<Integer, Integer> hashST;
+    private LPHashST<Integer, Integer> lpHashST;
+    private RobinHoodHashST<Integer, Integer> robinHood;
+
+    @Setup
+    public void setup() {
+        keys = Inputs.boxed(Inputs.ints(n, distribution));
+        hashST = new HashST<>();
+        lpHashST = new LPHashST<>();
+        robinHood = new RobinHoodHashST<>();
+        for (Integer key : keys) {
+            hashST.put(key, key);
+            lpHashST.put(key, key);
+            robinHood.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public int hashSTPut() {
+        HashST<Integer, Integer> st = new HashST<>();
+        for (Integer key : keys) {
+            st.put(key, key);
+        }
+        return st.size();
+    }
+
+    @Benchmark
+    public long hashSTGet() {
+        long sum = 0;
+        for (Integer key : keys) {
+            sum += hashST.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int lpHashSTPut() {
+        LPHashST<Integer, Integer> st = new LPHashST<>();
+        for (Integer key : keys) {
+            st.put(key, key);
+        }
+        return st.size();
+    }
+
+    @Benchmark
+    public long lpHashSTGet() {
+        long sum = 0;
+        for (Integer key : keys) {
+            sum += lpHashST.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int lpHashSTDeletePut() {
+        for (Integer key : keys) {
+            lpHashST.delete(key);
+            lpHashST.put(key, key);
+        }
+        return lpHashST.size();
+    }
+
+    @Benchmark
+    public int robinHoodPut() {
+        RobinHoodHashST<Integer, Integer> st = new RobinHoodHashST<>();
+        for (Integer key : keys) {
+            st.put(key, key);
+        }
+        return st.size();
+    }
+
+    @Benchmark
+    public long robinHoodGet() {
+        long sum = 0;
+        for (Integer key : keys) {
+            sum += robinHood.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int robinHoodDeletePut() {
+        for (Integer key : keys) {
+            robinHood.delete(key);
+            robinHood.put(key, key);
+        }
+        return robinHood.size();
+    }
+}
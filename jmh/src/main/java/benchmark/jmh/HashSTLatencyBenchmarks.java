@@ -0,0 +1,82 @@
+package benchmark.jmh;
+
+import hashtable.HashST;
+import hashtable.LPHashST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency of a single put() into HashST and LPHashST growing from empty, with whole-table and incremental resizes.
+ * Every op puts the next key; after n keys the table starts over from empty, so each table goes through all of its resizes
+ * again and again. The sampled percentiles (p0.99, p0.9999, p1.0) show the pause of a resize.
+ * GC pauses land in the tail as well, give the forked JVM a young generation that holds the garbage of a whole table
+ * to see the pauses of the code itself: -jvmArgsAppend "-Xmn1g -XX:+UseSerialGC"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashSTLatencyBenchmarks {
+
+    @Param({"1000000"})
+    public int n;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "SKEWED"})
+    public Inputs.Distribution distribution;
+
+    @Param({"false", "true"})
+    public boolean incremental;
+
+    private Integer[] keys;
+    private HashST<Integer, Integer> hashST;
+    private LPHashST<Integer, Integer> lpHashST;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        keys = Inputs.boxed(Inputs.ints(n, distribution));
+    }
+
+    @Setup(Level.Iteration)
+    public void empty() {
+        hashST = new HashST<>(4, incremental);
+        lpHashST = new LPHashST<>(4, incremental);
+        next = 0;
+    }
+
+    @Benchmark
+    public int hashSTPut() {
+        if (next == n) {
+            hashST = new HashST<>(4, incremental);
+            next = 0;
+        }
+        Integer key = keys[next++];
+        hashST.put(key, key);
+        return hashST.size();
+    }
+
+    @Benchmark
+    public int lpHashSTPut() {
+        if (next == n) {
+            lpHashST = new LPHashST<>(4, incremental);
+            next = 0;
+        }
+        Integer key = keys[next++];
+        lpHashST.put(key, key);
+        return lpHashST.size();
+    }
+}
@@ -0,0 +1,168 @@
+package benchmark.jmh;
+
+import graphics.CSRGraphic;
+import graphics.DirectGraph;
+import graphics.EdgeWeightedDigraph;
+import graphics.EdgeWeightedGraph;
+import graphics.Graphic;
+import util.MattyRandom;
+
+/**
+ * Input generators for the benchmarks.
+ * Every generator reseeds MattyRandom with SEED first, so the same call always returns the same input,
+ * whatever ran before it. Another seed is set with -jvmArgsAppend -Dbench.seed=7.
+ */
+public class Inputs {
+
+    public static final long SEED = Long.getLong("bench.seed", 42);
+
+    private Inputs() {}
+
+    /**
+     * UNIFORM - keys uniformly at random in [0, n)
+     * SEQUENTIAL - the keys 0, 1, ..., n - 1 in order
+     * SKEWED - a few hot keys: key = floor(n * u^4) for u uniform in [0, 1), so small keys repeat often
+     */
+    public enum Distribution { UNIFORM, SEQUENTIAL, SKEWED }
+
+    public static int[] ints(int n, Distribution distribution) {
+        MattyRandom.setSeed(SEED);
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            switch (distribution) {
+                case SEQUENTIAL:
+                    a[i] = i;
+                    break;
+                case SKEWED:
+                    double u = MattyRandom.uniform();
+                    a[i] = (int) (n * u * u * u * u);
+                    break;
+                default:
+                    a[i] = MattyRandom.uniform(n);
+            }
+        }
+        return a;
+    }
+
+    public static Integer[] boxed(int[] a) {
+        Integer[] b = new Integer[a.length];
+        for (int i = 0; i < a.length; i++) {
+            b[i] = a[i];
+        }
+        return b;
+    }
+
+    /**
+     * @param n number of strings
+     * @param distribution the distribution of the integers the strings are spelled from
+     * @return lowercase strings, as base-26 spellings of ints(n, distribution) padded to a common width
+     */
+    public static String[] strings(int n, Distribution distribution) {
+        int[] a = ints(n, distribution);
+        int width = 1;
+        for (long m = 26; m < n; m *= 26) {
+            width++;
+        }
+        String[] s = new String[n];
+        char[] c = new char[width];
+        for (int i = 0; i < n; i++) {
+            int x = a[i];
+            for (int d = width - 1; d >= 0; d--) {
+                c[d] = (char) ('a' + x % 26);
+                x /= 26;
+            }
+            s[i] = new String(c);
+        }
+        return s;
+    }
+
+    public static Graphic graphic(int V, int E) {
+        MattyRandom.setSeed(SEED);
+        Graphic G = new Graphic(V);
+        for (int i = 0; i < E; i++) {
+            G.addEdge(MattyRandom.uniform(V), MattyRandom.uniform(V));
+        }
+        return G;
+    }
+
+    public static DirectGraph digraph(int V, int E) {
+        MattyRandom.setSeed(SEED);
+        DirectGraph G = new DirectGraph(V);
+        for (int i = 0; i < E; i++) {
+            G.addEdge(MattyRandom.uniform(V), MattyRandom.uniform(V));
+        }
+        return G;
+    }
+
+    /**
+     * @return a random direct acyclic graph: every edge goes from a smaller to a larger vertex
+     */
+    public static DirectGraph dag(int V, int E) {
+        MattyRandom.setSeed(SEED);
+        DirectGraph G = new DirectGraph(V);
+        for (int i = 0; i < E; i++) {
+            int v = MattyRandom.uniform(V);
+            int w = MattyRandom.uniform(V);
+            if (v == w) continue;
+            G.addEdge(Math.min(v, w), Math.max(v, w));
+        }
+        return G;
+    }
+
+    /**
+     * @return a random graph shaped like a program's call graph, in CSR form: functions mostly call functions defined
+     * after them (a DAG), some calls go back to a function a few definitions earlier (small groups of mutually recursive
+     * functions), and a few go anywhere, which ties part of the graph into one big strong component
+     */
+    public static CSRGraphic callGraph(int V, int E) {
+        MattyRandom.setSeed(SEED);
+        int[] from = new int[E];
+        int[] to = new int[E];
+        for (int i = 0; i < E; i++) {
+            int v = MattyRandom.uniform(V);
+            double kind = MattyRandom.uniform();
+            int w;
+            if (kind < 0.90) w = v + 1 + MattyRandom.uniform(V - v);       // a later function
+            else if (kind < 0.98) w = v - MattyRandom.uniform(16);          // a recursive call
+            else w = MattyRandom.uniform(V);                                // anywhere
+            from[i] = v;
+            to[i] = Math.max(0, Math.min(V - 1, w));
+        }
+        return new CSRGraphic(V, from, to, true);
+    }
+
+    public static EdgeWeightedGraph edgeWeighted(int V, int E) {
+        MattyRandom.setSeed(SEED);
+        return new EdgeWeightedGraph(V, E);
+    }
+
+    /**
+     * @return a road network shaped like a city grid: the crossings are the vertexes (x, y) = y * side + x of a side x side grid,
+     * with side = floor(sqrt(V)), and every pair of neighboring crossings is joined by a road in both directions
+     * whose length is 1 to 2 times the distance between them, so the Manhattan distance is a consistent A* heuristic
+     */
+    public static EdgeWeightedDigraph roadGrid(int V) {
+        MattyRandom.setSeed(SEED);
+        int side = (int) Math.sqrt(V);
+        int n = side * side;
+        int E = 4 * side * (side - 1);
+        int[] from = new int[E];
+        int[] to = new int[E];
+        double[] weight = new double[E];
+        int e = 0;
+        for (int v = 0; v < n; v++) {
+            int x = v % side, y = v / side;
+            if (x + 1 < side) {
+                double length = 1.0 + MattyRandom.uniform();
+                from[e] = v;     to[e] = v + 1;    weight[e++] = length;
+                from[e] = v + 1; to[e] = v;        weight[e++] = length;
+            }
+            if (y + 1 < side) {
+                double length = 1.0 + MattyRandom.uniform();
+                from[e] = v;        to[e] = v + side; weight[e++] = length;
+                from[e] = v + side; to[e] = v;        weight[e++] = length;
+            }
+        }
+        return new EdgeWeightedDigraph(n, from, to, weight);
+    }
+}
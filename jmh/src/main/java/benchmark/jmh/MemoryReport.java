@@ -0,0 +1,96 @@
+package benchmark.jmh;
+
+import hashtable.HashST;
+import hashtable.IntIntHashST;
+import hashtable.IntObjHashST;
+import hashtable.LPHashST;
+import hashtable.LongLongHashST;
+import hashtable.RobinHoodHashST;
+
+import java.util.function.Supplier;
+
+/**
+ * Reports the heap retained per entry by each hash table, which JMH does not measure:
+ *   java -cp jmh/target/benchmarks.jar:algs4.jar benchmark.jmh.MemoryReport [n]
+ * Every table is built by put() one key at a time from the keys of Inputs.ints(n, distribution), n = 1000000 by default.
+ * The Integer keys and values of the generic tables are shared with the input array here,
+ * so their own 16 bytes each come on top in a real application.
+ * The heap is measured in units of GC regions, which is too coarse for tables of fewer than a million keys.
+ */
+public class MemoryReport {
+
+    private MemoryReport() {}
+
+    // used heap after full GCs, repeated until it stops shrinking
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) break;
+            used = now;
+        }
+        return used;
+    }
+
+    // how much heap the object built by build keeps alive: the used heap after building it minus the used heap before
+    private static long retainedBytes(Supplier<?> build) {
+        long before = usedMemory();
+        Object object = build.get();
+        long after = usedMemory();
+        if (System.identityHashCode(object) == 0) System.out.print("");     // keep object alive up to here
+        return after - before;
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        for (Inputs.Distribution distribution : Inputs.Distribution.values()) {
+            int[] ints = Inputs.ints(size, distribution);
+            Integer[] keys = Inputs.boxed(ints);
+            long[] longs = new long[size];
+            for (int i = 0; i < size; i++) {
+                longs[i] = ints[i];
+            }
+            IntIntHashST distinct = new IntIntHashST();
+            distinct.putAll(ints, ints);
+            int n = distinct.size();
+
+            long hashST = retainedBytes(() -> {
+                HashST<Integer, Integer> st = new HashST<>();
+                for (Integer key : keys) st.put(key, key);
+                return st;
+            });
+            long lpHashST = retainedBytes(() -> {
+                LPHashST<Integer, Integer> st = new LPHashST<>();
+                for (Integer key : keys) st.put(key, key);
+                return st;
+            });
+            long robinHood = retainedBytes(() -> {
+                RobinHoodHashST<Integer, Integer> st = new RobinHoodHashST<>();
+                for (Integer key : keys) st.put(key, key);
+                return st;
+            });
+            long intInt = retainedBytes(() -> {
+                IntIntHashST st = new IntIntHashST();
+                for (int key : ints) st.put(key, key);
+                return st;
+            });
+            long longLong = retainedBytes(() -> {
+                LongLongHashST st = new LongLongHashST();
+                for (long key : longs) st.put(key, key);
+                return st;
+            });
+            long intObj = retainedBytes(() -> {
+                IntObjHashST<Integer> st = new IntObjHashST<>();
+                for (Integer key : keys) st.put(key, key);
+                return st;
+            });
+
+            System.out.printf("n=%d %s, %d distinct keys, bytes per entry: HashST %.1f, LPHashST %.1f, RobinHoodHashST %.1f, " +
+                            "IntIntHashST %.1f, LongLongHashST %.1f, IntObjHashST %.1f%n", size, distribution, n,
+                    (double) hashST / n, (double) lpHashST / n, (double) robinHood / n,
+                    (double) intInt / n, (double) longLong / n, (double) intObj / n);
+        }
+    }
+}
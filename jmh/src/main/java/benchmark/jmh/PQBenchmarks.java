@@ -0,0 +1,103 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.DoubleMaxPQ;
+import util.DoubleMinPQ;
+import util.MaxPQ;
+import util.MinPQ;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MinPQ and MaxPQ as binary and d-ary heaps, next to the double-keyed DoubleMinPQ and DoubleMaxPQ:
+ * one op inserts n keys, then removes them all.
+ * The d-ary heaps pay off once the heap no longer fits in the cache: -p n=10000000,100000000 -jvmArgsAppend -Xmx8g
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PQBenchmarks {
+
+    @Param({"10000", "1000000"})
+    public int n;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "SKEWED"})
+    public Inputs.Distribution distribution;
+
+    @Param({"2", "4", "8"})
+    public int d;
+
+    private int[] ints;
+    private Integer[] keys;
+
+    @Setup
+    public void setup() {
+        ints = Inputs.ints(n, distribution);
+        keys = Inputs.boxed(ints);
+    }
+
+    @Benchmark
+    public long minPQ() {
+        MinPQ<Integer> pq = new MinPQ<>(1, d);
+        for (Integer key : keys) {
+            pq.insert(key);
+        }
+        long sum = 0;
+        while (!pq.isEmpty()) {
+            sum += pq.delMin();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long maxPQ() {
+        MaxPQ<Integer> pq = new MaxPQ<>(1, d);
+        for (Integer key : keys) {
+            pq.insert(key);
+        }
+        long sum = 0;
+        while (!pq.isEmpty()) {
+            sum += pq.delMax();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long doubleMinPQ() {
+        DoubleMinPQ pq = new DoubleMinPQ(1, d);
+        for (int i = 0; i < n; i++) {
+            pq.insert(ints[i], i);
+        }
+        long sum = 0;
+        while (!pq.isEmpty()) {
+            sum += pq.delMin();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long doubleMaxPQ() {
+        DoubleMaxPQ pq = new DoubleMaxPQ(1, d);
+        for (int i = 0; i < n; i++) {
+            pq.insert(ints[i], i);
+        }
+        long sum = 0;
+        while (!pq.isEmpty()) {
+            sum += pq.delMax();
+        }
+        return sum;
+    }
+}
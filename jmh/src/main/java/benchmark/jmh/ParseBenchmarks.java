@@ -0,0 +1,120 @@
+package benchmark.jmh;
+
+import edu.princeton.cs.algs4.In;
+import graphics.DirectGraph;
+import graphics.EdgeWeightedGraph;
+import graphics.GraphReader;
+import graphics.Graphic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.MattyRandom;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading text graph files: the In constructors against GraphReader. One op reads the whole file.
+ * The files are random graphs with V vertexes and E = density * V edges, one edge per line, written to temporary files;
+ * their sizes are printed at setup, to turn the times into MB/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmarks {
+
+    @Param({"100000"})
+    public int V;
+
+    @Param({"8"})
+    public int density;
+
+    private File graph;
+    private File weighted;
+
+    @Setup
+    public void setup() throws IOException {
+        graph = write(V, density * V, false);
+        weighted = write(V, density * V, true);
+        System.out.printf("%n%s: %d bytes, %s: %d bytes%n", graph, graph.length(), weighted, weighted.length());
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.delete();
+        weighted.delete();
+    }
+
+    // a random graph in the text format, with weights like the ones of EdgeWeightedGraph(V, E) if weighted
+    private static File write(int V, int E, boolean weighted) throws IOException {
+        MattyRandom.setSeed(Inputs.SEED);
+        File file = File.createTempFile(weighted ? "weighted" : "graph", ".txt");
+        file.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            out.println(V);
+            out.println(E);
+            for (int i = 0; i < E; i++) {
+                out.print(MattyRandom.uniform(V));
+                out.print(' ');
+                out.print(MattyRandom.uniform(V));
+                if (weighted) {
+                    out.print(' ');
+                    out.print(Math.round(100000 * MattyRandom.uniform()) / 100000.0);
+                }
+                out.println();
+            }
+        }
+        return file;
+    }
+
+    @Benchmark
+    public int graphicIn() {
+        return new Graphic(new In(graph.getPath())).E();
+    }
+
+    @Benchmark
+    public int readGraphic() {
+        return GraphReader.readGraphic(graph.getPath()).E();
+    }
+
+    @Benchmark
+    public int directGraphIn() {
+        return new DirectGraph(new In(graph.getPath())).E();
+    }
+
+    @Benchmark
+    public int readDirectGraph() {
+        return GraphReader.readDirectGraph(graph.getPath()).E();
+    }
+
+    @Benchmark
+    public int readCSRGraphic() {
+        return GraphReader.readCSRGraphic(graph.getPath(), true).E();
+    }
+
+    @Benchmark
+    public int edgeWeightedGraphIn() {
+        return new EdgeWeightedGraph(new In(weighted.getPath())).E();
+    }
+
+    @Benchmark
+    public int readEdgeWeightedGraph() {
+        return GraphReader.readEdgeWeightedGraph(weighted.getPath()).E();
+    }
+}
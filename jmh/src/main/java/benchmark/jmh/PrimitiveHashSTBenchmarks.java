@@ -0,0 +1,129 @@
+package benchmark.jmh;
+
+import hashtable.IntIntHashST;
+import hashtable.IntObjHashST;
+import hashtable.LongLongHashST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The primitive hash tables IntIntHashST, LongLongHashST and IntObjHashST, one key at a time and with the bulk putAll/getAll.
+ * One op handles all n keys; with -prof gc, gc.alloc.rate.norm of the get benchmarks should be 0.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveHashSTBenchmarks {
+
+    @Param({"10000", "1000000"})
+    public int n;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "SKEWED"})
+    public Inputs.Distribution distribution;
+
+    private int[] keys;
+    private long[] longKeys;
+    private Integer[] boxed;
+    private IntIntHashST intInt;
+    private LongLongHashST longLong;
+    private IntObjHashST<Integer> intObj;
+    private int[] intValues;
+    private long[] longValues;
+    private Integer[] objValues;
+
+    @Setup
+    public void setup() {
+        keys = Inputs.ints(n, distribution);
+        boxed = Inputs.boxed(keys);
+        longKeys = new long[n];
+        for (int i = 0; i < n; i++) {
+            longKeys[i] = keys[i] * 0x9E3779B97F4A7C15L;         // spread over the whole long range
+        }
+        intInt = new IntIntHashST();
+        intInt.putAll(keys, keys);
+        longLong = new LongLongHashST();
+        longLong.putAll(longKeys, longKeys);
+        intObj = new IntObjHashST<>();
+        intObj.putAll(keys, boxed);
+        intValues = new int[n];
+        longValues = new long[n];
+        objValues = new Integer[n];
+    }
+
+    @Benchmark
+    public int intIntPut() {
+        IntIntHashST st = new IntIntHashST();
+        for (int key : keys) {
+            st.put(key, key);
+        }
+        return st.size();
+    }
+
+    @Benchmark
+    public int intIntPutAll() {
+        IntIntHashST st = new IntIntHashST();
+        st.putAll(keys, keys);
+        return st.size();
+    }
+
+    @Benchmark
+    public long intIntGet() {
+        long sum = 0;
+        for (int key : keys) {
+            sum += intInt.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long intIntGetAll() {
+        return intInt.getAll(keys, intValues);
+    }
+
+    @Benchmark
+    public int intIntDeletePut() {
+        for (int key : keys) {
+            intInt.delete(key);
+            intInt.put(key, key);
+        }
+        return intInt.size();
+    }
+
+    @Benchmark
+    public int longLongPutAll() {
+        LongLongHashST st = new LongLongHashST();
+        st.putAll(longKeys, longKeys);
+        return st.size();
+    }
+
+    @Benchmark
+    public long longLongGetAll() {
+        return longLong.getAll(longKeys, longValues);
+    }
+
+    @Benchmark
+    public int intObjPutAll() {
+        IntObjHashST<Integer> st = new IntObjHashST<>();
+        st.putAll(keys, boxed);
+        return st.size();
+    }
+
+    @Benchmark
+    public long intObjGetAll() {
+        return intObj.getAll(keys, objValues);
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark.jmh;
+
+import graphics.CSRGraphic;
+import graphics.ParallelSCC;
+import graphics.TarjanSCC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The strong components on random call graphs (see Inputs.callGraph) with V vertexes and E = density * V edges:
+ * TarjanSCC against ParallelSCC with the given number of threads. One op is one full run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SCCBenchmarks {
+
+    @Param({"10000000"})
+    public int V;
+
+    @Param({"4"})
+    public int density;
+
+    private CSRGraphic G;
+
+    /**
+     * The pool of ParallelSCC, only its benchmark is run for every thread count
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        @Param({"1", "2", "4", "8", "16", "32", "64"})
+        public int threads;
+
+        ForkJoinPool pool;
+
+        @Setup
+        public void setup() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        G = Inputs.callGraph(V, density * V);
+    }
+
+    @Benchmark
+    public int tarjanSCC() {
+        return new TarjanSCC(G).count();
+    }
+
+    @Benchmark
+    public int parallelSCC(Pool pool) {
+        return new ParallelSCC(G, pool.pool).count();
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark.jmh;
+
+import graphics.AStarSP;
+import graphics.DijkstraSP;
+import graphics.EdgeWeightedDigraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.MattyRandom;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The weighted shortest paths on road grids (see Inputs.roadGrid) with V vertexes:
+ * a full DijkstraSP tree, and a batch of point-to-point queries between random crossings
+ * with AStarSP, without a heuristic and with the Manhattan distance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ShortestPathBenchmarks {
+
+    @Param({"10000000"})
+    public int V;
+
+    @Param({"16"})
+    public int queries;
+
+    private EdgeWeightedDigraph G;
+    private AStarSP astar;
+    private int side;
+    private int[] sources;
+    private int[] targets;
+
+    @Setup
+    public void setup() {
+        G = Inputs.roadGrid(V);
+        astar = new AStarSP(G);
+        side = (int) Math.sqrt(G.V());
+        sources = new int[queries];
+        targets = new int[queries];
+        MattyRandom.setSeed(Inputs.SEED);
+        for (int q = 0; q < queries; q++) {
+            sources[q] = MattyRandom.uniform(G.V());
+            targets[q] = MattyRandom.uniform(G.V());
+        }
+    }
+
+    @Benchmark
+    public double dijkstraSP() {
+        return new DijkstraSP(G, sources[0]).distTo(targets[0]);
+    }
+
+    @Benchmark
+    public double aStarSP() {
+        double sum = 0;
+        for (int q = 0; q < queries; q++) {
+            sum += astar.distTo(sources[q], targets[q]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double aStarSPManhattan() {
+        double sum = 0;
+        for (int q = 0; q < queries; q++) {
+            int tx = targets[q] % side, ty = targets[q] / side;
+            sum += astar.distTo(sources[q], targets[q], v -> Math.abs(v % side - tx) + Math.abs(v / side - ty));
+        }
+        return sum;
+    }
+}
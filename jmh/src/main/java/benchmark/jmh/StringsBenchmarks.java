@@ -0,0 +1,105 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import strings.LSD;
+import strings.MSD;
+import strings.TST;
+import strings.TrieST;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The string symbol tables (TrieST, TST) and the string sorts (MSD, LSD).
+ * The keys are fixed-width lowercase strings, see Inputs.strings(); one op handles all n keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringsBenchmarks {
+
+    @Param({"10000", "1000000"})
+    public int n;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "SKEWED"})
+    public Inputs.Distribution distribution;
+
+    private String[] keys;
+    private int width;
+    private TrieST<Integer> trie;
+    private TST<Integer> tst;
+
+    @Setup
+    public void setup() {
+        keys = Inputs.strings(n, distribution);
+        width = keys.length == 0 ? 0 : keys[0].length();
+        trie = new TrieST<>();
+        tst = new TST<>();
+        for (int i = 0; i < keys.length; i++) {
+            trie.put(keys[i], i);
+            tst.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public int trieSTPut() {
+        TrieST<Integer> st = new TrieST<>();
+        for (int i = 0; i < keys.length; i++) {
+            st.put(keys[i], i);
+        }
+        return st.size();
+    }
+
+    @Benchmark
+    public long trieSTGet() {
+        long sum = 0;
+        for (String key : keys) {
+            sum += trie.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int tstPut() {
+        TST<Integer> st = new TST<>();
+        for (int i = 0; i < keys.length; i++) {
+            st.put(keys[i], i);
+        }
+        return st.size();
+    }
+
+    @Benchmark
+    public long tstGet() {
+        long sum = 0;
+        for (String key : keys) {
+            sum += tst.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public String[] msdSort() {
+        String[] a = keys.clone();
+        MSD.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public String[] lsdSort() {
+        String[] a = keys.clone();
+        LSD.sort(a, width);
+        return a;
+    }
+}
@@ -0,0 +1,100 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ConcurrentUF;
+import util.UF;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * UF: union n pairs drawn from the key distribution into a fresh structure, and find on every site of a full one.
+ * ConcurrentUF runs the same unions split across the threads of a ForkJoinPool (parameter threads).
+ * ConcurrentUF.connected() is measured in ConcurrentUFBenchmarks, whose thread count is set with -t.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UFBenchmarks {
+
+    @Param({"10000", "1000000"})
+    public int n;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "SKEWED"})
+    public Inputs.Distribution distribution;
+
+    private int[] pairs;
+    private UF full;
+
+    /**
+     * The pool for the parallel unions, only the benchmarks that take it are run for every thread count
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        @Param({"1", "2", "4", "8", "16", "32", "64"})
+        public int threads;
+
+        ForkJoinPool pool;
+
+        @Setup
+        public void setup() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        pairs = Inputs.ints(2 * n, distribution);
+        full = new UF(n);
+        for (int i = 0; i < n; i++) {
+            full.union(pairs[2 * i] % n, pairs[2 * i + 1] % n);
+        }
+    }
+
+    @Benchmark
+    public int union() {
+        UF uf = new UF(n);
+        for (int i = 0; i < n; i++) {
+            uf.union(pairs[2 * i] % n, pairs[2 * i + 1] % n);
+        }
+        return uf.count();
+    }
+
+    @Benchmark
+    public long find() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += full.find(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int concurrentUnion(Pool pool) {
+        ConcurrentUF uf = new ConcurrentUF(n);
+        pool.pool.submit(() -> IntStream.range(0, n).parallel()
+                .forEach(i -> uf.union(pairs[2 * i] % n, pairs[2 * i + 1] % n))).join();
+        return uf.count();
+    }
+}
@@ -0,0 +1,226 @@
+package graphics;
+
+import util.IndexDoubleMinPQ;
+import util.MattyRandom;
+import util.Stack;
+
+/**
+ * 点到点最短路径 (A*)：
+ * 导航这样的查询只关心一个起点s到一个终点t的路径，DijkstraSP却要算出s到所有顶点的最短路径树。
+ * Dijkstra按distTo从小到大取出顶点，取出的顶点的distTo就是最终的值，所以取出t的时候就可以停止，不必处理更远的顶点。
+ *
+ * A*再进一步，用启发函数h(v)估计v到t的距离，把优先级从distTo[v]换成distTo[v] + h(v)，
+ * 朝着t方向的顶点会先被取出，背离t的顶点要等很久才会被取出，而在那之前t往往已经取出了。
+ * 只要h(v)不超过v到t的真实距离（可采纳的, admissible），第一次取出t时得到的就是最短路径；
+ * 如果对每条边v -> w还满足 h(v) <= weight + h(w)（一致的, consistent），每个顶点只会被取出一次。
+ * 不一致的启发函数也能得到正确的结果，只是一个顶点的distTo变小之后要重新放回队列。
+ * h = 0 就是提前停止的Dijkstra。例如在道路网上，如果每条边的权重都不小于它两端的直线距离，直线距离就是一个一致的启发函数。
+ *
+ * 和BidirectionalBFS一样，一个AStarSP对象可以回答同一幅图上的许多查询：
+ * 数组只分配一次，用时间戳(epoch)代替清零，每次查询的代价只和它访问的顶点数有关，而不是V。
+ * 不是线程安全的，每个线程要使用自己的AStarSP。
+ */
+
+public class AStarSP {
+
+    /**
+     * An estimate of the distance from a vertex to the target of a query
+     */
+    public interface Heuristic {
+
+        /**
+         * @param v vertex
+         * @return a lower bound on the length of a shortest path from v to the target; never negative
+         */
+        double estimate(int v);
+    }
+
+    private static final Heuristic ZERO = v -> 0.0;
+
+    private final WeightedIntGraph G;
+    private final int[] mark;               // mark[v] == epoch iff v has been reached by the current query
+    private final double[] distTo;          // distTo[v] = length of the shortest s->v path found so far
+    private final int[] edgeTo;             // edgeTo[v] = the vertex before v on that path, -1 for s
+    private final IndexDoubleMinPQ pq;
+    private int epoch;
+    private int settled;                    // number of vertexes taken off the queue by the last query
+
+    /**
+     * Prepares for queries on G
+     * @param G the weighted graph; every edge weight must be non-negative
+     * @throws IllegalArgumentException if G is not weighted
+     */
+    public AStarSP(WeightedIntGraph G) {
+        if (G == null) throw new IllegalArgumentException("G is null");
+        if (!G.isWeighted()) throw new IllegalArgumentException("AStarSP needs a weighted graph");
+        this.G = G;
+        int V = G.V();
+        mark = new int[V];
+        distTo = new double[V];
+        edgeTo = new int[V];
+        pq = new IndexDoubleMinPQ(V);
+    }
+
+    private void validateVertex(int v) {
+        int V = mark.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    /**
+     * @param s the source vertex
+     * @param t the target vertex
+     * @return the length of a shortest path from s to t, Double.POSITIVE_INFINITY if there is no such path
+     */
+    public double distTo(int s, int t) {
+        return distTo(s, t, ZERO);
+    }
+
+    /**
+     * @param s the source vertex
+     * @param t the target vertex
+     * @param h an admissible estimate of the distance from every vertex to t
+     * @return the length of a shortest path from s to t, Double.POSITIVE_INFINITY if there is no such path
+     */
+    public double distTo(int s, int t, Heuristic h) {
+        return search(s, t, h) ? distTo[t] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param s the source vertex
+     * @param t the target vertex
+     * @return the vertexes of a shortest path from s to t, starting with s, and null if there is no such path
+     */
+    public Iterable<Integer> pathTo(int s, int t) {
+        return pathTo(s, t, ZERO);
+    }
+
+    /**
+     * @param s the source vertex
+     * @param t the target vertex
+     * @param h an admissible estimate of the distance from every vertex to t
+     * @return the vertexes of a shortest path from s to t, starting with s, and null if there is no such path
+     */
+    public Iterable<Integer> pathTo(int s, int t, Heuristic h) {
+        if (!search(s, t, h)) {
+            return null;
+        }
+        Stack<Integer> path = new Stack<>();
+        for (int x = t; x != -1; x = edgeTo[x]) {
+            path.push(x);
+        }
+        return path;
+    }
+
+    /**
+     * @return the number of vertexes the last query took off its priority queue
+     */
+    public int settled() {
+        return settled;
+    }
+
+    // runs A* from s until t is taken off the queue; returns false if t is not reachable from s
+    private boolean search(int s, int t, Heuristic h) {
+        validateVertex(s);
+        validateVertex(t);
+        if (h == null) throw new IllegalArgumentException("heuristic is null");
+        epoch = TraversalWorkspace.nextEpoch(epoch, mark);
+        settled = 0;
+        mark[s] = epoch;
+        distTo[s] = 0.0;
+        edgeTo[s] = -1;
+        pq.insert(s, h.estimate(s));
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            settled++;
+            if (v == t) {
+                pq.clear();
+                return true;
+            }
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                double weight = G.weight(v, i);
+                if (weight < 0) {
+                    pq.clear();
+                    throw new IllegalArgumentException("edge " + v + "->" + G.neighbor(v, i) + " has negative weight " + weight);
+                }
+                int w = G.neighbor(v, i);
+                double distance = distTo[v] + weight;
+                if (mark[w] != epoch || distance < distTo[w]) {
+                    mark[w] = epoch;
+                    distTo[w] = distance;
+                    edgeTo[w] = v;
+                    pq.insertOrDecrease(w, distance + h.estimate(w));
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answers random queries on a side x side grid of roads, whose lengths are 1 to 2 times the distance between
+     * the crossings, with DijkstraSP, with AStarSP without a heuristic, and with AStarSP guided by the Manhattan distance;
+     * checks that they agree: java AStarSP side [queries] [seed]
+     */
+    public static void main(String[] args) {
+        int side = Integer.parseInt(args[0]);
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        if (args.length > 2) {
+            MattyRandom.setSeed(Long.parseLong(args[2]));
+        }
+        int V = side * side;
+        int E = 4 * side * (side - 1);
+        int[] from = new int[E];
+        int[] to = new int[E];
+        double[] weight = new double[E];
+        int e = 0;
+        for (int v = 0; v < V; v++) {
+            int x = v % side, y = v / side;
+            if (x + 1 < side) {
+                double length = 1.0 + MattyRandom.uniform();
+                from[e] = v;     to[e] = v + 1;    weight[e++] = length;
+                from[e] = v + 1; to[e] = v;        weight[e++] = length;
+            }
+            if (y + 1 < side) {
+                double length = 1.0 + MattyRandom.uniform();
+                from[e] = v;        to[e] = v + side; weight[e++] = length;
+                from[e] = v + side; to[e] = v;        weight[e++] = length;
+            }
+        }
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(V, from, to, weight);
+        from = null;
+        to = null;
+        weight = null;
+
+        AStarSP astar = new AStarSP(G);
+        double dijkstraSeconds = 0, earlySeconds = 0, astarSeconds = 0;
+        long earlySettled = 0, astarSettled = 0;
+        for (int q = 0; q < queries; q++) {
+            int s = MattyRandom.uniform(V);
+            int t = MattyRandom.uniform(V);
+            int tx = t % side, ty = t / side;
+            Heuristic manhattan = v -> Math.abs(v % side - tx) + Math.abs(v / side - ty);
+
+            long start = System.nanoTime();
+            double expected = new DijkstraSP(G, s).distTo(t);
+            dijkstraSeconds += (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            double early = astar.distTo(s, t);
+            earlySeconds += (System.nanoTime() - start) / 1e9;
+            earlySettled += astar.settled();
+
+            start = System.nanoTime();
+            double guided = astar.distTo(s, t, manhattan);
+            astarSeconds += (System.nanoTime() - start) / 1e9;
+            astarSettled += astar.settled();
+
+            if (Math.abs(early - expected) > 1e-9 * expected || Math.abs(guided - expected) > 1e-9 * expected) {
+                throw new IllegalStateException(s + " to " + t + ": " + early + " and " + guided + ", expected " + expected);
+            }
+        }
+        System.out.printf("DijkstraSP:                 %8.3f s per query  %10d vertexes settled%n", dijkstraSeconds / queries, V);
+        System.out.printf("AStarSP without heuristic:  %8.3f s per query  %10d vertexes settled%n", earlySeconds / queries, earlySettled / queries);
+        System.out.printf("AStarSP, Manhattan:         %8.3f s per query  %10d vertexes settled%n", astarSeconds / queries, astarSettled / queries);
+    }
+}
@@ -0,0 +1,273 @@
+package graphics;
+
+import util.MattyRandom;
+import util.Queue;
+
+/**
+ * 双向广度优先搜索：
+ * 只需要从s到t的一条最短路径时，BreadFirstPaths会先算出s到所有顶点的最短路径树，再丢掉其中几乎所有的部分。
+ * 双向搜索同时从s向前、从t向后（有向图中沿着反向图的边）一层一层地搜索，每一步扩展两个前沿中顶点较少的那一个，
+ * 一旦某一侧新到达的顶点已经被另一侧到达过，两棵树就连起来了。
+ * 这一层扩展完之后，其中最短的连接就是s到t的最短路径。
+ * 如果距离为d、平均每个顶点有b个邻居，单向搜索大约访问b^d个顶点，双向搜索只访问大约2 * b^(d/2)个顶点，
+ * 在社交网络这种直径很小、度数很大的图上相差好几个数量级。
+ *
+ * 每次查询访问的顶点远少于V，所以不能每次都重新分配和初始化大小为V的数组：
+ * 一个BidirectionalBFS对象保存两组数组，用时间戳(epoch)代替清零，每次查询把epoch加一，
+ * mark[v] != epoch的顶点就是这次查询还没有到达的顶点，数组中其余的旧值都被忽略。
+ * 所以同一个对象上的查询不会再分配O(V)的空间，但也不是线程安全的，每个线程要使用自己的BidirectionalBFS。
+ *
+ * 对DirectGraph，构造时保存一份reverse()，之后再加入的边不会出现在反向图中，需要重新创建BidirectionalBFS。
+ */
+
+public class BidirectionalBFS {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final IntGraph forward;         // edges v -> w followed from s
+    private final IntGraph backward;        // edges w -> v followed from t
+    private final Side from;                // the search from s
+    private final Side to;                  // the search from t
+    private int epoch;
+    private int visited;                    // number of vertexes reached by the last query
+
+    // one direction of the search: the marks, distances and tree of the vertexes it reached, and its current level
+    private static class Side {
+        private final int[] mark;           // mark[v] == epoch iff v has been reached in this query
+        private final int[] distTo;         // distTo[v] = number of edges between v and the source of this side
+        private final int[] edgeTo;         // edgeTo[v] = the vertex before v on the path from the source of this side
+        private int[] frontier;             // the vertexes of the current level
+        private int[] next;
+        private int size;
+
+        Side(int V) {
+            mark = new int[V];
+            distTo = new int[V];
+            edgeTo = new int[V];
+            frontier = new int[V];
+            next = new int[V];
+        }
+    }
+
+    /**
+     * Prepares for queries on the undirected graph G
+     * @param G the graphic
+     */
+    public BidirectionalBFS(Graphic G) {
+        this(G, G);
+    }
+
+    /**
+     * Prepares for queries on the direct graph G; the search from the target follows the edges of G.reverse()
+     * @param G the direct graph
+     */
+    public BidirectionalBFS(DirectGraph G) {
+        this(G, G.reverse());
+    }
+
+    private BidirectionalBFS(IntGraph forward, IntGraph backward) {
+        this.forward = forward;
+        this.backward = backward;
+        from = new Side(forward.V());
+        to = new Side(forward.V());
+    }
+
+    private void validateVertex(int v) {
+        int V = forward.V();
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    /**
+     * @param s the source vertex
+     * @param t the target vertex
+     * @return a shortest path from s to t, or null if there is none
+     */
+    public Iterable<Integer> pathTo(int s, int t) {
+        int meet = search(s, t);
+        if (meet < 0) {
+            return null;
+        }
+        int length = from.distTo[meet] + to.distTo[meet];
+        int[] path = new int[length + 1];
+        int x = meet;
+        for (int i = from.distTo[meet]; i > 0; i--) {
+            path[i] = x;
+            x = from.edgeTo[x];
+        }
+        path[0] = s;
+        x = meet;
+        for (int i = from.distTo[meet]; i < length; i++) {
+            x = to.edgeTo[x];
+            path[i + 1] = x;
+        }
+        Queue<Integer> queue = new Queue<>();
+        for (int v : path) {
+            queue.enqueue(v);
+        }
+        return queue;
+    }
+
+    /**
+     * @param s the source vertex
+     * @param t the target vertex
+     * @return the number of edges on a shortest path from s to t, Integer.MAX_VALUE if there is none
+     */
+    public int distTo(int s, int t) {
+        int meet = search(s, t);
+        return meet < 0 ? INFINITY : from.distTo[meet] + to.distTo[meet];
+    }
+
+    /**
+     * @param s the source vertex
+     * @param t the target vertex
+     * @return is there a path from s to t?
+     */
+    public boolean hasPathTo(int s, int t) {
+        return search(s, t) >= 0;
+    }
+
+    /**
+     * @return the number of vertexes the last query reached, from both sides
+     */
+    public int visited() {
+        return visited;
+    }
+
+    // the vertex where the two searches meet on a shortest s-t path, or -1 if t is not reachable from s
+    private int search(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        epoch = TraversalWorkspace.nextEpoch(epoch, from.mark, to.mark);
+        start(from, s);
+        start(to, t);
+        visited = s == t ? 1 : 2;
+        if (s == t) {
+            return s;
+        }
+        while (from.size > 0 && to.size > 0) {
+            int meet = from.size <= to.size ? expand(forward, from, to) : expand(backward, to, from);
+            if (meet >= 0) {
+                return meet;
+            }
+        }
+        return -1;
+    }
+
+    private void start(Side side, int s) {
+        side.mark[s] = epoch;
+        side.distTo[s] = 0;
+        side.edgeTo[s] = s;
+        side.frontier[0] = s;
+        side.size = 1;
+    }
+
+    // advances side by one whole level along the edges of G;
+    // returns the vertex of the shortest connection to the other side found in this level, or -1 if there is none
+    private int expand(IntGraph G, Side side, Side other) {
+        int meet = -1;
+        int best = INFINITY;
+        int nextSize = 0;
+        for (int f = 0; f < side.size; f++) {
+            int v = side.frontier[f];
+            int d = side.distTo[v] + 1;
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                int w = G.neighbor(v, i);
+                if (side.mark[w] == epoch) continue;
+                side.mark[w] = epoch;
+                side.distTo[w] = d;
+                side.edgeTo[w] = v;
+                side.next[nextSize++] = w;
+                visited++;
+                if (other.mark[w] == epoch) {
+                    visited--;
+                    if (d + other.distTo[w] < best) {
+                        best = d + other.distTo[w];
+                        meet = w;
+                    }
+                }
+            }
+        }
+        int[] temp = side.frontier;
+        side.frontier = side.next;
+        side.next = temp;
+        side.size = nextSize;
+        return meet;
+    }
+
+    /**
+     * Answers random s-t queries on a random graph and checks them against BreadFirstPaths:
+     * java BidirectionalBFS V E [queries] [seed]
+     */
+    public static void main(String[] args) {
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        if (args.length > 3) {
+            MattyRandom.setSeed(Long.parseLong(args[3]));
+        }
+        Graphic G = new Graphic(V);
+        DirectGraph D = new DirectGraph(V);
+        for (int i = 0; i < E; i++) {
+            int v = MattyRandom.uniform(V);
+            int w = MattyRandom.uniform(V);
+            G.addEdge(v, w);
+            D.addEdge(v, w);
+        }
+        int[] s = new int[queries];
+        int[] t = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            s[q] = MattyRandom.uniform(V);
+            t[q] = MattyRandom.uniform(V);
+        }
+
+        for (IntGraph graph : new IntGraph[] { G, D }) {
+            String name = graph == G ? "Graphic" : "DirectGraph";
+            BidirectionalBFS bidirectional = graph == G ? new BidirectionalBFS(G) : new BidirectionalBFS(D);
+            long visited = 0;
+            long start = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                bidirectional.pathTo(s[q], t[q]);
+                visited += bidirectional.visited();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long reached = 0;
+            long bfsStart = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                BreadFirstPaths bfs = new BreadFirstPaths(graph, s[q]);
+                Iterable<Integer> path = bidirectional.pathTo(s[q], t[q]);
+                int expected = bfs.hasPathTo(t[q]) ? bfs.distTo(t[q]) : INFINITY;
+                if (bidirectional.distTo(s[q], t[q]) != expected || !isPath(graph, path, s[q], t[q], expected)) {
+                    throw new IllegalStateException(name + " " + s[q] + " to " + t[q] + ": expected distance " + expected);
+                }
+                for (int v = 0; v < V; v++) {
+                    if (bfs.hasPathTo(v)) reached++;
+                }
+            }
+            double bfsSeconds = (System.nanoTime() - bfsStart) / 1e9;
+            System.out.printf("%-12s BidirectionalBFS: %8.3f s  %10.1f vertexes per query%n", name, seconds, (double) visited / queries);
+            System.out.printf("%-12s BreadFirstPaths:  %8.3f s  %10.1f vertexes per query (including the check)%n", name, bfsSeconds, (double) reached / queries);
+        }
+    }
+
+    // is path a walk of length edges along the edges of G from s to t (or null, if length is INFINITY)?
+    private static boolean isPath(IntGraph G, Iterable<Integer> path, int s, int t, int length) {
+        if (path == null) return length == INFINITY;
+        int prev = -1, edges = -1;
+        for (int v : path) {
+            if (prev < 0 ? v != s : !hasEdge(G, prev, v)) return false;
+            prev = v;
+            edges++;
+        }
+        return prev == t && edges == length;
+    }
+
+    private static boolean hasEdge(IntGraph G, int v, int w) {
+        for (int i = 0, degree = G.degree(v); i < degree; i++) {
+            if (G.neighbor(v, i) == w) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,263 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.MattyRandom;
+import util.Queue;
+import util.ConcurrentUF;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Borůvka算法：
+ *
+ * 开始时每个顶点自己是一个连通分量（一棵树），然后一轮一轮地进行：
+ * - 为每个分量找出它的最小横切边，即一个端点在分量内、另一个端点在分量外的权重最小的边；
+ * - 把所有分量的最小横切边都加入最小生成树，并合并 (contract) 这些边连接的分量。
+ * 由切分定理，每个分量的最小横切边都属于最小生成树。每一轮之后分量的数量至少减半，所以最多进行log2(V)轮。
+ *
+ * 和Prim、Kruskal每次只确定一条边不同，同一轮中所有分量的最小横切边是互相独立的，可以并行地寻找：
+ * 把边分成块交给ForkJoinPool中的任务，每个任务处理一块边，用CAS更新两个端点所在分量的最小横切边best[]。
+ * 两个端点在同一个分量中的边以后也不会再是横切边，所以每个任务顺便把这样的边从自己的块中删掉，后面的轮次越来越快。
+ *
+ * 权重相同的边用编号区分，(权重, 编号) 是一个全序，否则两个分量可能选中两条等重的边而形成环。
+ *
+ * 合并分量也是并行的：每个分量的任务用ConcurrentUF把它的最小横切边的两个端点合并，
+ * 两个分量选中了同一条边时只有一个union()会返回true，这条边只加入最小生成树一次。
+ */
+
+public class BoruvkaMST {
+
+    private static final double FLOATING_POINT_EPSILON = 1E-12;
+    private static final int BLOCK = 1 << 14;           // edges handled by one task
+    private static final int VERTEX_GRAIN = 1 << 15;    // vertexes labeled by one task
+
+    private final Edge[] edges;                 // edges[i] is edge number i
+    private final double[] weights;             // weights[i] = edges[i].weight()
+    private final int[] from, to;               // endpoints of edge i
+    private final int[] alive;                  // numbers of the edges that may still cross components, by block
+    private final int[] blockEnd;               // the edges of block b are alive[b * BLOCK, blockEnd[b])
+    private final int[] component;              // component[v] = root of v in uf, for the current round
+    private final AtomicIntegerArray best;      // best[c] = minimum edge leaving component c, or -1
+    private final boolean[] merged;             // merged[c] = best[c] joined two components in this round
+    private final ConcurrentUF uf;
+    private double weight;                      // total weight of MST
+    private final Queue<Edge> mst = new Queue<>();
+
+    /**
+     * Computes a minimum spanning forest of G, using the common ForkJoinPool
+     * @param G the edge-weighted graph
+     */
+    public BoruvkaMST(EdgeWeightedGraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public BoruvkaMST(EdgeWeightedGraph G, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        int V = G.V();
+        int E = G.E();
+        edges = new Edge[E];
+        weights = new double[E];
+        from = new int[E];
+        to = new int[E];
+        alive = new int[E];
+        int i = 0;
+        for (Edge e : G.edges()) {
+            edges[i] = e;
+            weights[i] = e.weight();
+            from[i] = e.either();
+            to[i] = e.other(from[i]);
+            alive[i] = i;
+            i++;
+        }
+        int blocks = (E + BLOCK - 1) / BLOCK;
+        blockEnd = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            blockEnd[b] = Math.min(E, (b + 1) * BLOCK);
+        }
+        component = new int[V];
+        best = new AtomicIntegerArray(V);
+        merged = new boolean[V];
+        uf = new ConcurrentUF(V);
+
+        // at most log2(V) rounds, stop early when a round finds nothing to contract
+        while (blocks > 0 && mst.size() < V - 1) {
+            pool.invoke(new Label(0, V));
+            pool.invoke(new MinEdges(0, blocks));
+            pool.invoke(new Contract(0, V));
+            if (!collect(V)) break;
+        }
+        assert check(G);
+    }
+
+    // order of edges i and j by weight, then by number
+    private int compare(int i, int j) {
+        int cmp = Double.compare(weights[i], weights[j]);
+        return cmp != 0 ? cmp : Integer.compare(i, j);
+    }
+
+    // lower best[c] to edge e if e is lighter than the current best edge
+    private void offer(int c, int e) {
+        while (true) {
+            int current = best.get(c);
+            if (current >= 0 && compare(current, e) <= 0) return;
+            if (best.compareAndSet(c, current, e)) return;
+        }
+    }
+
+    // add the edges that merged components in this round to the MST, return false if there was none
+    private boolean collect(int V) {
+        boolean contracted = false;
+        for (int c = 0; c < V; c++) {
+            if (!merged[c]) continue;
+            int e = best.get(c);
+            mst.enqueue(edges[e]);
+            weight += weights[e];
+            contracted = true;
+        }
+        return contracted;
+    }
+
+    // component[v] = root of v, best[v] = -1 and merged[v] = false, for the vertexes [lo, hi)
+    private class Label extends RecursiveAction {
+        private final int lo, hi;
+
+        Label(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > VERTEX_GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Label(lo, mid), new Label(mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                component[v] = uf.find(v);
+                best.set(v, -1);
+                merged[v] = false;
+            }
+        }
+    }
+
+    // offer the alive edges of blocks [lo, hi) to the components of their endpoints, and drop the edges inside a component
+    private class MinEdges extends RecursiveAction {
+        private final int lo, hi;
+
+        MinEdges(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new MinEdges(lo, mid), new MinEdges(mid, hi));
+                return;
+            }
+            int end = lo * BLOCK;
+            for (int k = lo * BLOCK; k < blockEnd[lo]; k++) {
+                int e = alive[k];
+                int cv = component[from[e]];
+                int cw = component[to[e]];
+                if (cv == cw) {
+                    continue;
+                }
+                alive[end++] = e;
+                offer(cv, e);
+                offer(cw, e);
+            }
+            blockEnd[lo] = end;
+        }
+    }
+
+    // union the endpoints of the minimum edges of the components [lo, hi)
+    private class Contract extends RecursiveAction {
+        private final int lo, hi;
+
+        Contract(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > VERTEX_GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Contract(lo, mid), new Contract(mid, hi));
+                return;
+            }
+            for (int c = lo; c < hi; c++) {
+                int e = best.get(c);
+                // the components of both endpoints may have picked the same edge, only one union() merges them
+                if (e >= 0 && uf.union(from[e], to[e])) {
+                    merged[c] = true;
+                }
+            }
+        }
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    public Iterable<Edge> edges() {
+        return mst;
+    }
+
+    // check that the weight is the same as the one found by KruskalMST
+    private boolean check(EdgeWeightedGraph G) {
+        double expected = new KruskalMST(G).weight();
+        if (Math.abs(weight() - expected) > FLOATING_POINT_EPSILON * Math.max(1.0, expected)) {
+            System.err.printf("Weight of edges does not equal weight(): %f vs. %f\n", weight(), expected);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prints the MST of the graph in a file: java BoruvkaMST tinyEWG.txt
+     * or times it against KruskalMST on a random graph with 1 to N threads: java BoruvkaMST V E [maxThreads] [seed]
+     */
+    public static void main(String[] args) {
+        if (args.length == 1) {
+            In in = new In(args[0]);
+            EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+            BoruvkaMST mst = new BoruvkaMST(G);
+            for (Edge e : mst.edges()) {
+                System.out.println(e);
+            }
+            System.out.printf("%.5f\n", mst.weight());
+            return;
+        }
+
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        if (args.length > 3) {
+            MattyRandom.setSeed(Long.parseLong(args[3]));
+        }
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int i = 0; i < E; i++) {
+            G.addEdge(new Edge(MattyRandom.uniform(V), MattyRandom.uniform(V), MattyRandom.uniform()));
+        }
+
+        long start = System.nanoTime();
+        KruskalMST expected = new KruskalMST(G);
+        double sequential = (System.nanoTime() - start) / 1e9;
+        System.out.printf("KruskalMST:      %8.3f s%n", sequential);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            start = System.nanoTime();
+            BoruvkaMST mst = new BoruvkaMST(G, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+            if (Math.abs(mst.weight() - expected.weight()) > FLOATING_POINT_EPSILON * Math.max(1.0, expected.weight())) {
+                throw new IllegalStateException("weight " + mst.weight() + ", expected " + expected.weight());
+            }
+            System.out.printf("BoruvkaMST %2d:   %8.3f s  speedup %.2f%n", threads, seconds, sequential / seconds);
+        }
+    }
+}
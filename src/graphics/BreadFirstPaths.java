@@ -1,7 +1,6 @@
 package graphics;
 
 import edu.princeton.cs.algs4.In;
-import edu.princeton.cs.algs4.Queue;
 import edu.princeton.cs.algs4.Stack;
 import edu.princeton.cs.algs4.StdOut;
 
@@ -37,11 +36,21 @@ import edu.princeton.cs.algs4.StdOut;
 public class BreadFirstPaths {
 
     private static final int INFINITY = Integer.MAX_VALUE;
-    private boolean[] marked;
+    private final int V;
+    private boolean[] marked;               // null when the search ran in a workspace
+    private TraversalWorkspace workspace;
+    private int epoch;                      // the search of workspace this one is
     private int[] edgeTo;                   // edgeTo[v] - previous edge on shortest s-v path
     private int[] distTo;                   // distTo[v] - number of edges shortest s-v path
 
-    public BreadFirstPaths(Graphic G, int s) {
+    /**
+     * Computes the shortest path between the source vertex s and every other vertex in G.
+     * G can be any IntGraph: a Graphic, a DirectGraph, a CSRGraphic, or one stored outside the heap (MappedGraphic, OffHeapGraphic).
+     * @param G the graphic
+     * @param s the source vertex
+     */
+    public BreadFirstPaths(IntGraph G, int s) {
+        V = G.V();
         marked = new boolean[G.V()];
         edgeTo = new int[G.V()];
         distTo = new int[G.V()];
@@ -54,7 +63,8 @@ public class BreadFirstPaths {
      * @param G the graphic
      * @param sources the source vertices
      */
-    public BreadFirstPaths(Graphic G, Iterable<Integer> sources) {
+    public BreadFirstPaths(IntGraph G, Iterable<Integer> sources) {
+        V = G.V();
         marked = new boolean[G.V()];
         edgeTo = new int[G.V()];
         distTo = new int[G.V()];
@@ -65,8 +75,42 @@ public class BreadFirstPaths {
         bfs(G, sources);
     }
 
+    /**
+     * Computes the shortest paths from s with the marks, edgeTo[], distTo[] and queue of workspace instead of new arrays,
+     * so a search that reaches only a few vertexes costs only as much as those vertexes;
+     * the result is valid until the workspace is used by another search
+     * @param G the graphic
+     * @param s the source vertex
+     * @param workspace a workspace with capacity() >= G.V(), e.g. TraversalWorkspace.forThread(G.V())
+     */
+    public BreadFirstPaths(IntGraph G, int s, TraversalWorkspace workspace) {
+        V = G.V();
+        validateVertex(s);
+        this.workspace = workspace;
+        epoch = workspace.begin(G);
+        int[] mark = workspace.mark();
+        edgeTo = workspace.edgeTo();
+        distTo = workspace.distTo();
+        int[] q = workspace.queue();
+        int head = 0, tail = 0;
+        mark[s] = epoch;
+        distTo[s] = 0;
+        q[tail++] = s;
+        while (head < tail) {
+            int v = q[head++];
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                int w = G.neighbor(v, i);
+                if (mark[w] != epoch) {
+                    edgeTo[w] = v;
+                    distTo[w] = distTo[v] + 1;
+                    mark[w] = epoch;
+                    q[tail++] = w;
+                }
+            }
+        }
+    }
+
     private void validateVertex(int v) {
-        int V = marked.length;
         if (v < 0 || v >= V) {
             throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
         }
@@ -91,44 +135,44 @@ public class BreadFirstPaths {
      * @param G the graphic
      * @param s the source vertex
      */
-    private void bfs(Graphic G, int s) {
-        Queue<Integer> q = new Queue<>();
+    private void bfs(IntGraph G, int s) {
         for (int v = 0; v < G.V(); v++) {
             distTo[v] = INFINITY;
         }
+        // every vertex is enqueued at most once, so an int[] of size V is a queue that never wraps around
+        int[] q = new int[G.V()];
+        int head = 0, tail = 0;
         distTo[s] = 0;
         marked[s] = true;
-        q.enqueue(s);
+        q[tail++] = s;
 
-        while (!q.isEmpty()) {
-            int v = q.dequeue();
-            for (int w : G.adj(v)) {
-                if (!marked[w]) {
-                    edgeTo[w] = v;
-                    distTo[w] = distTo[v] + 1;
-                    marked[w] = true;
-                    q.enqueue(w);
-                }
-            }
-        }
+        search(G, q, head, tail);
     }
 
-    private void bfs(Graphic G, Iterable<Integer> sources) {
-        Queue<Integer> q = new Queue<>();
+    private void bfs(IntGraph G, Iterable<Integer> sources) {
+        int[] q = new int[G.V()];
+        int head = 0, tail = 0;
         for (int s : sources) {
+            if (marked[s]) continue;
             marked[s] = true;
             distTo[s] = 0;
-            q.enqueue(s);
+            q[tail++] = s;
         }
 
-        while (!q.isEmpty()) {
-            int v = q.dequeue();
-            for (int w : G.adj(v)) {
+        search(G, q, head, tail);
+    }
+
+    // run the queue q[head..tail) until it is empty
+    private void search(IntGraph G, int[] q, int head, int tail) {
+        while (head < tail) {
+            int v = q[head++];
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                int w = G.neighbor(v, i);
                 if (!marked[w]) {
                     edgeTo[w] = v;
                     distTo[w] = distTo[v] + 1;
                     marked[w] = true;
-                    q.enqueue(w);
+                    q[tail++] = w;
                 }
             }
         }
@@ -141,7 +185,7 @@ public class BreadFirstPaths {
      */
     public boolean hasPathTo(int v) {
         validateVertex(v);
-        return marked[v];
+        return marked != null ? marked[v] : workspace.marked(v, epoch);
     }
 
     /**
@@ -151,6 +195,9 @@ public class BreadFirstPaths {
      */
     public int distTo(int v) {
         validateVertex(v);
+        if (marked == null && !workspace.marked(v, epoch)) {
+            return INFINITY;
+        }
         return distTo[v];
     }
 
@@ -169,7 +216,7 @@ public class BreadFirstPaths {
     }
 
     // check optimality conditions for single source
-    private boolean check(Graphic G, int s) {
+    private boolean check(IntGraph G, int s) {
         // check that the distance of s = 0
         if (distTo[s] != 0) {
             StdOut.println("distance of source " + s + " to itself = " + distTo[s]);
@@ -179,7 +226,8 @@ public class BreadFirstPaths {
         // check that for each edge v-w dist[w] <= dist[v] + 1
         // provided v is reachable from s
         for (int v = 0; v < G.V(); v++) {
-            for (int w : G.adj(v)) {
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                int w = G.neighbor(v, i);
                 if (hasPathTo(v) != hasPathTo(w)) {
                     StdOut.println("edge " + v + "-" + w);
                     StdOut.println("hasPathTo(" + v + ") = " + hasPathTo(v));
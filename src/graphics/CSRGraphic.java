@@ -0,0 +1,332 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.MattyRandom;
+import util.Queue;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 压缩稀疏行（Compressed Sparse Row, CSR）表示：
+ * 邻接表为每个顶点都分配一个独立的对象（Bag或IntBag），V很大时这些对象头和多余的容量会占用大量内存，遍历时也要在堆中跳来跳去。
+ * CSR把所有顶点的邻接表首尾相接地存放在一个int[] targets中，再用int[] offsets记录每个顶点的邻接表在targets中的起止位置：
+ * 顶点v的所有相邻顶点就是 targets[offsets[v]] ... targets[offsets[v + 1] - 1]
+ *
+ * 每条边只占用4个字节，遍历时是顺序访问数组，对缓存非常友好。
+ * 代价是这幅图是不可变的：构造完成之后就不能再添加边了。
+ *
+ * 邻接表中顶点的顺序与Graphic/DirectGraph中adj(v)返回的顺序完全相同，所以在两种表示上运行的搜索得到的结果也相同。
+ */
+
+public class CSRGraphic implements IntGraph {
+
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    private final int V;                    // number of vertexes
+    private final int E;                    // number of edges
+    private final boolean directed;         // is this a directed graph?
+    private final int[] offsets;            // adjacency list of v is targets[offsets[v]] to targets[offsets[v + 1] - 1]
+    private final int[] targets;            // all adjacency lists, one after another
+
+    private CSRGraphic(int V, int E, boolean directed, int[] offsets, int[] targets) {
+        this.V = V;
+        this.E = E;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Initializes a graph from the same input format as Graphic(In) and DirectGraph(In):
+     * the number of vertexes V, followed by the number of edges E, followed by E pairs of vertexes.
+     * @param in the input stream
+     * @param directed true to read the edges as directed edges v -> w, false to read them as undirected edges v-w
+     */
+    public CSRGraphic(In in, boolean directed) {
+        if (in == null) throw new IllegalArgumentException("Argument to CSRGraphic() is null.");
+        try {
+            this.V = in.readInt();
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
+            this.E = in.readInt();
+            if (E < 0) throw new IllegalArgumentException("Number of edges must be non-negative.");
+            this.directed = directed;
+
+            int[] from = new int[E];
+            int[] to = new int[E];
+            for (int i = 0; i < E; i++) {
+                from[i] = in.readInt();
+                to[i] = in.readInt();
+                validateVertex(from[i]);
+                validateVertex(to[i]);
+            }
+
+            offsets = new int[V + 1];
+            targets = new int[checkedLength((long) E * (directed ? 1 : 2))];
+            fill(from, to);
+        }
+        catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("invalid input format in CSRGraphic constructor", e);
+        }
+    }
+
+    /**
+     * Freezes an undirected graph into CSR form.
+     * @param G the undirected graph
+     */
+    public CSRGraphic(Graphic G) {
+        this(G.V(), G.E(), false);
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] = offsets[v] + G.degree(v);
+        }
+        for (int v = 0; v < V; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                targets[i] = G.neighbor(v, i - offsets[v]);
+            }
+        }
+    }
+
+    /**
+     * Freezes a direct graph into CSR form.
+     * @param G the direct graph
+     */
+    public CSRGraphic(DirectGraph G) {
+        this(G.V(), G.E(), true);
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] = offsets[v] + G.outDegree(v);
+        }
+        for (int v = 0; v < V; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                targets[i] = G.neighbor(v, i - offsets[v]);
+            }
+        }
+    }
+
+    /**
+     * Builds a graph from an edge list: edge i is from[i] -> to[i] (or from[i]-to[i] if not directed).
+     * Within each adjacency list the edges are in reverse order of the list, as if added one by one to a Graphic or DirectGraph.
+     * @param V the number of vertexes
+     * @param from the first vertexes of the edges
+     * @param to the second vertexes of the edges
+     * @param directed true for directed edges
+     */
+    public CSRGraphic(int V, int[] from, int[] to, boolean directed) {
+        this(checkedVertexes(V), from.length, directed);
+        if (to.length != from.length) throw new IllegalArgumentException("from[] and to[] have different lengths");
+        for (int i = 0; i < from.length; i++) {
+            validateVertex(from[i]);
+            validateVertex(to[i]);
+        }
+        fill(from, to);
+    }
+
+    private static int checkedVertexes(int V) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
+        return V;
+    }
+
+    // allocate the arrays for a graph with V vertexes and E edges
+    private CSRGraphic(int V, int E, boolean directed) {
+        this(V, E, directed, new int[V + 1], new int[checkedLength((long) E * (directed ? 1 : 2))]);
+    }
+
+    private static int checkedLength(long length) {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many edges for an int[] adjacency array: " + length);
+        }
+        return (int) length;
+    }
+
+    // counting sort the edge list into offsets[] and targets[]
+    // each adjacency list is filled from its end towards its start, so it ends up in the same (LIFO) order as a Bag
+    private void fill(int[] from, int[] to) {
+        for (int i = 0; i < E; i++) {
+            offsets[from[i] + 1]++;
+            if (!directed) offsets[to[i] + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] next = new int[V];
+        for (int v = 0; v < V; v++) {
+            next[v] = offsets[v + 1];
+        }
+        for (int i = 0; i < E; i++) {
+            int v = from[i];
+            int w = to[i];
+            targets[--next[v]] = w;
+            if (!directed) targets[--next[w]] = v;
+        }
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    /**
+     * @return the number of vertexes
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * @return the number of edges
+     */
+    public int E() {
+        return E;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * @param v vertex
+     * @return the number of vertexes adjacent to v (the out degree of v in a directed graph)
+     */
+    public int degree(int v) {
+        validateVertex(v);
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Returns the i-th vertex adjacent to v, in the same order as adj(v).
+     * Use it with degree(v) to walk an adjacency list without boxing or allocating an iterator:
+     *     for (int i = 0; i < G.degree(v); i++) { int w = G.neighbor(v, i); ... }
+     * @param v vertex
+     * @param i index into the adjacency list of v, between 0 and degree(v) - 1
+     * @return the i-th vertex adjacent to v
+     */
+    public int neighbor(int v, int i) {
+        validateVertex(v);
+        int begin = offsets[v];
+        if (i < 0 || i >= offsets[v + 1] - begin) {
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (degree(v) - 1));
+        }
+        return targets[begin + i];
+    }
+
+    /**
+     * Returns the vertices adjacent to vertex v.
+     * This boxes every vertex; prefer degree(v) and neighbor(v, i) in hot loops.
+     * @param v vertex
+     * @return the vertices adjacent to vertex v, as an iterable
+     */
+    public Iterable<Integer> adj(int v) {
+        validateVertex(v);
+        Queue<Integer> queue = new Queue<>();
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+            queue.enqueue(targets[i]);
+        }
+        return queue;
+    }
+
+    /**
+     * @return the reverse of this directed graph, also in CSR form
+     */
+    public CSRGraphic reverse() {
+        if (!directed) {
+            return this;
+        }
+        int[] from = new int[E];
+        int[] to = new int[E];
+        for (int v = 0; v < V; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                from[i] = targets[i];
+                to[i] = v;
+            }
+        }
+        CSRGraphic reverse = new CSRGraphic(V, E, true);
+        reverse.fill(from, to);
+        return reverse;
+    }
+
+    /**
+     * @return the approximate number of bytes used by the adjacency arrays
+     */
+    public long memoryUsage() {
+        return 4L * offsets.length + 4L * targets.length;
+    }
+
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(V).append(" vertices; ").append(E).append(" edges").append(NEWLINE);
+        for (int v = 0; v < V; v++) {
+            result.append(v).append(": ");
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                result.append(targets[i]).append(" ");
+            }
+            result.append(NEWLINE);
+        }
+        return result.toString();
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // sum every adjacency list once, so the JIT can't drop the loops
+    private static long sweep(IntGraph G) {
+        long sum = 0;
+        for (int v = 0; v < G.V(); v++) {
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                sum += G.neighbor(v, i);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Compares the memory usage and adjacency traversal throughput of Graphic against CSRGraphic
+     * on a random graph with V vertexes and E edges: java CSRGraphic V E [seed]
+     */
+    public static void main(String[] args) {
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        if (args.length > 2) {
+            MattyRandom.setSeed(Long.parseLong(args[2]));
+        }
+
+        long before = usedMemory();
+        Graphic G = new Graphic(V);
+        for (int i = 0; i < E; i++) {
+            G.addEdge(MattyRandom.uniform(V), MattyRandom.uniform(V));
+        }
+        long bagBytes = usedMemory() - before;
+
+        before = usedMemory();
+        CSRGraphic csr = new CSRGraphic(G);
+        long csrBytes = usedMemory() - before;
+
+        System.out.printf("Graphic:    %,d bytes (%.1f bytes per edge)%n", bagBytes, (double) bagBytes / E);
+        System.out.printf("CSRGraphic: %,d bytes (%.1f bytes per edge)%n", csrBytes, (double) csrBytes / E);
+
+        int rounds = 10;
+        long check = 0;
+        for (int r = 0; r < rounds; r++) {       // warm up, the sweep call site sees both classes
+            check += sweep(G) + sweep(csr);
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            check += sweep(G);
+        }
+        double bagSeconds = (System.nanoTime() - start) / 1e9;
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            check += sweep(csr);
+        }
+        double csrSeconds = (System.nanoTime() - start) / 1e9;
+
+        double visits = 2.0 * E * rounds;
+        System.out.printf("Graphic:    %.1f M neighbor visits/s%n", visits / bagSeconds / 1e6);
+        System.out.printf("CSRGraphic: %.1f M neighbor visits/s%n", visits / csrSeconds / 1e6);
+        System.out.println("(checksum " + check + ")");
+    }
+}
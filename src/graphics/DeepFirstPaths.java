@@ -14,31 +14,49 @@ import edu.princeton.cs.algs4.StdOut;
 public class DeepFirstPaths {
 
     private int s;                  // source vertex
-    private boolean[] marked;       // marked[v] - is there an s-v path?
+    private final int V;
+    private boolean[] marked;       // marked[v] - is there an s-v path? null when the search ran in a workspace
     private int[] edgeTo;           // edgeTo[v] - last edge on s-v path
+    private TraversalWorkspace workspace;
+    private int epoch;              // the search of workspace this one is
 
-    public DeepFirstPaths(Graphic G, int s) {
+    public DeepFirstPaths(IntGraph G, int s) {
         this.s = s;
-        marked = new boolean[G.V()];
-        edgeTo = new int[G.V()];
+        V = G.V();
+        marked = new boolean[V];
+        edgeTo = new int[V];
         validateVertex(s);
-        dfs(G, s);
+        new DepthFirstWalker(G, marked).walk(s, tree());
     }
 
-    private void validateVertex(int v) {
-        int V = marked.length;
-        if (v < 0 || v >= V) {
-            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
-        }
+    /**
+     * Searches from s with the marks and edgeTo[] of workspace instead of new arrays;
+     * the result is valid until the workspace is used by another search
+     * @param G the graph
+     * @param s the source vertex
+     * @param workspace a workspace with capacity() >= G.V(), e.g. TraversalWorkspace.forThread(G.V())
+     */
+    public DeepFirstPaths(IntGraph G, int s, TraversalWorkspace workspace) {
+        this.s = s;
+        V = G.V();
+        validateVertex(s);
+        this.workspace = workspace;
+        epoch = workspace.begin(G);
+        edgeTo = workspace.edgeTo();
+        new DepthFirstWalker(G, workspace).walk(s, tree());
     }
 
-    private void dfs(Graphic G, int v) {
-        marked[v] = true;
-        for (int w : G.adj(v)) {
-            if (!marked[w]) {
-                edgeTo[w] = v;
-                dfs(G, w);
+    private DepthFirstWalker.Visitor tree() {
+        return new DepthFirstWalker.Visitor() {
+            public void preVisit(int v, int parent) {
+                if (parent >= 0) edgeTo[v] = parent;
             }
+        };
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
         }
     }
 
@@ -49,7 +67,7 @@ public class DeepFirstPaths {
      */
     public boolean hasPathTo(int v) {
         validateVertex(v);
-        return marked[v];
+        return marked != null ? marked[v] : workspace.marked(v, epoch);
     }
 
     public Iterable<Integer> pathTo(int v) {
@@ -19,31 +19,45 @@ import edu.princeton.cs.algs4.StdOut;
 
 public class DeepFirstSearch {
 
-    private boolean[] marked;           // marked[v] = is there an s-v path?
+    private final int V;
+    private boolean[] marked;           // marked[v] = is there an s-v path? null when the search ran in a workspace
+    private TraversalWorkspace workspace;
+    private int epoch;                  // the search of workspace this one is
     private int count;                  // number of vertices connected to s
 
-    public DeepFirstSearch(Graphic G, int s) {
-        marked = new boolean[G.V()];
+    public DeepFirstSearch(IntGraph G, int s) {
+        V = G.V();
+        marked = new boolean[V];
         validateVertex(s);
-        dfs(G, s);
+        new DepthFirstWalker(G, marked).walk(s, counter());
     }
 
-    private void validateVertex(int v) {
-        int V = marked.length;
-        if (v < 0 || v >= V) {
-            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
-        }
+    /**
+     * Searches from s with the marks of workspace instead of new arrays;
+     * the result is valid until the workspace is used by another search
+     * @param G the graph
+     * @param s the source vertex
+     * @param workspace a workspace with capacity() >= G.V(), e.g. TraversalWorkspace.forThread(G.V())
+     */
+    public DeepFirstSearch(IntGraph G, int s, TraversalWorkspace workspace) {
+        V = G.V();
+        validateVertex(s);
+        this.workspace = workspace;
+        epoch = workspace.begin(G);
+        new DepthFirstWalker(G, workspace).walk(s, counter());
     }
 
-    // depth first search from v
-    private void dfs(Graphic G, int v) {
-        count++;
-        marked[v] = true;
-        // 此循环体现了深度优先
-        for (int w : G.adj(v)) {
-            if (!marked[w]) {
-                dfs(G, w);
+    private DepthFirstWalker.Visitor counter() {
+        return new DepthFirstWalker.Visitor() {
+            public void preVisit(int v, int parent) {
+                count++;
             }
+        };
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
         }
     }
 
@@ -55,7 +69,7 @@ public class DeepFirstSearch {
      */
     public boolean marked(int v) {
         validateVertex(v);
-        return marked[v];
+        return marked != null ? marked[v] : workspace.marked(v, epoch);
     }
 
     public int count() {
@@ -0,0 +1,493 @@
+package graphics;
+
+import util.MattyRandom;
+import util.Stack;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 并行的单点最短路径 (Δ-stepping: Meyer, Sanders, "Δ-stepping: a parallelizable shortest path algorithm")：
+ *
+ * Dijkstra每次只取出distTo最小的一个顶点，这是一个严格串行的过程。
+ * Δ-stepping把distTo按宽度Δ分成桶，第i个桶中是distTo在[iΔ, (i+1)Δ)之间的顶点，一次处理整个桶：
+ * - 权重不超过Δ的边是轻边，从桶i出发的轻边可能把顶点放回桶i，所以桶i中的顶点反复放松它们的轻边，直到桶i为空；
+ * - 权重大于Δ的边是重边，它们一定通向后面的桶，所以桶i清空之后，对桶i中出现过的每个顶点只放松一次重边。
+ * 同一个桶中的顶点的放松没有先后之分，可以分给ForkJoinPool中的多个线程同时进行。
+ * Δ越小越接近Dijkstra（重复放松少，但每个桶的并行度低）；Δ越大越接近Bellman-Ford（并行度高，但重复放松多）。
+ * 对边的权重在[0, 1)之间均匀分布、平均度数为d的图，Δ = 1/d左右最好，这也是没有给出Δ时的默认值。
+ *
+ * 实现：
+ * - 构造时把图复制到CSR数组中，每个顶点的轻边排在重边前面，放松时不需要再判断边的种类；
+ * - distTo保存在AtomicLongArray中：非负double的位模式和它的数值顺序相同，所以放松就是对long的CAS取最小值；
+ * - 只有ceil(maxWeight / Δ) + 2个桶是同时有用的，它们组成一个环；每个线程先把要加入桶的顶点攒在自己的缓冲区里，
+ *   一个任务结束时再一次性加入各个桶，桶上的锁每个任务只取一次；
+ * - 一个顶点的distTo变小之后不会从原来的桶中删除，取出时distTo不属于这个桶的顶点被跳过（惰性删除），
+ *   同一轮中重复出现的顶点用时间戳去重。
+ * edgeTo在distTo全部确定之后再并行地计算：v的父结点是满足 distTo[u] + weight = distTo[v] 的邻居u，
+ * 所以这里只处理无向图（v的邻接表里同时有它的入边）。
+ *
+ * 得到的distTo与DijkstraUndirectedSP完全相同；edgeTo可能选择另一条同样长的最短路径。
+ */
+
+public class DeltaSteppingSP {
+
+    private static final int GRAIN = 1 << 10;           // vertexes per task
+    private static final int MAX_BUCKETS = 1 << 16;     // limit on maxWeight / delta
+
+    private final ForkJoinPool pool;
+    private final double delta;
+    private final int V;
+    private final int s;
+    private final int[] offsets;            // the edges of v are offsets[v] to offsets[v + 1] - 1
+    private final int[] lightEnd;           // the light edges of v are offsets[v] to lightEnd[v] - 1, then the heavy edges
+    private final int[] targets;
+    private final double[] weights;
+    private final AtomicLongArray dist;     // the bits of distTo[v]
+    private final AtomicIntegerArray round; // round[v] = the last light round that relaxed the edges of v
+    private final AtomicIntegerArray bucketOfSettled;   // bucketOfSettled[v] = the last bucket v was settled in, plus one
+    private final Bucket[] buckets;         // buckets[b % buckets.length] holds the vertexes of bucket b
+    private final Bucket settled;           // the vertexes settled in the current bucket, whose heavy edges are still to relax
+    private final ThreadLocal<Bins> bins;   // static Bins: a value must not refer back to this search, or it is never freed
+    private double[] distTo;                // distTo[v] = length of a shortest s-v path
+    private int[] edgeTo;                   // edgeTo[v] = the vertex before v on a shortest s-v path, -1 for s and unreached vertexes
+    private int phases;                     // number of light rounds
+
+    /**
+     * Computes the shortest paths from s with the common ForkJoinPool and delta = maxWeight / average degree
+     * @param G the edge-weighted graph
+     * @param s the source vertex
+     */
+    public DeltaSteppingSP(EdgeWeightedGraph G, int s) {
+        this(G, s, Double.NaN, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param G the edge-weighted graph
+     * @param s the source vertex
+     * @param delta the width of a bucket, positive
+     * @param pool the pool every bucket is spread across
+     * @throws IllegalArgumentException if an edge weight is negative, or delta is too small for the weights
+     */
+    public DeltaSteppingSP(EdgeWeightedGraph G, int s, double delta, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        if (!Double.isNaN(delta) && !(delta > 0)) throw new IllegalArgumentException("delta must be positive: " + delta);
+        this.pool = pool;
+        V = G.V();
+        this.s = s;
+        validateVertex(s);
+
+        // copy the graph, light edges first
+        offsets = new int[V + 1];
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] = offsets[v] + G.degree(v);
+        }
+        targets = new int[offsets[V]];
+        weights = new double[offsets[V]];
+        double maxWeight = 0;
+        for (Edge e : G.edges()) {
+            if (e.weight() < 0) throw new IllegalArgumentException("edge " + e + " has negative weight");
+            maxWeight = Math.max(maxWeight, e.weight());
+        }
+        if (Double.isNaN(delta)) {
+            delta = maxWeight > 0 && offsets[V] > 0 ? maxWeight * V / offsets[V] : 1.0;
+        }
+        this.delta = delta;
+        if (maxWeight / delta > MAX_BUCKETS - 2) {
+            throw new IllegalArgumentException("delta " + delta + " is too small for edge weights up to " + maxWeight);
+        }
+        lightEnd = new int[V];
+        for (int v = 0; v < V; v++) {
+            int light = offsets[v], heavy = offsets[v + 1];
+            for (Edge e : G.adj(v)) {
+                int i = e.weight() <= delta ? light++ : --heavy;
+                targets[i] = e.other(v);
+                weights[i] = e.weight();
+            }
+            lightEnd[v] = light;
+        }
+
+        dist = new AtomicLongArray(V);
+        round = new AtomicIntegerArray(V);
+        bucketOfSettled = new AtomicIntegerArray(V);
+        buckets = new Bucket[(int) (maxWeight / delta) + 2];
+        for (int b = 0; b < buckets.length; b++) {
+            buckets[b] = new Bucket();
+        }
+        settled = new Bucket();
+        bins = ThreadLocal.withInitial(() -> new Bins(buckets.length));
+        search();
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    private long bucketOf(double distance) {
+        return (long) (distance / delta);
+    }
+
+    private void search() {
+        long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < V; v++) {
+            dist.lazySet(v, infinity);
+        }
+        dist.set(s, Double.doubleToRawLongBits(0.0));
+        buckets[0].add(s);
+
+        int n = buckets.length;
+        int settledRound = 0;
+        for (long current = 0; ; current++) {
+            // the next non-empty bucket; all the pending vertexes are in the n buckets from current on
+            int k = 0;
+            while (k < n && buckets[(int) ((current + k) % n)].isEmpty()) {
+                k++;
+            }
+            if (k == n) break;
+            current += k;
+            Bucket bucket = buckets[(int) (current % n)];
+
+            settledRound++;
+            while (!bucket.isEmpty()) {
+                int[] frontier = bucket.drain();
+                phases++;
+                pool.invoke(new Relax(frontier, 0, frontier.length, current, phases, settledRound));
+            }
+            int[] heavy = settled.drain();
+            pool.invoke(new Relax(heavy, 0, heavy.length, -1, 0, 0));
+        }
+
+        distTo = new double[V];
+        for (int v = 0; v < V; v++) {
+            distTo[v] = Double.longBitsToDouble(dist.get(v));
+        }
+        edgeTo = new int[V];
+        pool.invoke(new Parents(0, V));
+        connectEqualParents();
+    }
+
+    // lower distTo[w] to distance; returns true if it was larger
+    private boolean relax(int w, double distance) {
+        long bits = Double.doubleToRawLongBits(distance);
+        long old = dist.get(w);
+        while (bits < old) {
+            if (dist.compareAndSet(w, old, bits)) {
+                return true;
+            }
+            old = dist.get(w);
+        }
+        return false;
+    }
+
+    // atomically set a[v] to value, return false if it already was value
+    private static boolean claim(AtomicIntegerArray a, int v, int value) {
+        int old = a.get(v);
+        while (old != value) {
+            if (a.compareAndSet(v, old, value)) {
+                return true;
+            }
+            old = a.get(v);
+        }
+        return false;
+    }
+
+    // light round: relax the light edges of the vertexes of bucket current in frontier[lo, hi);
+    // heavy round (current < 0): relax the heavy edges of the settled vertexes in frontier[lo, hi)
+    private class Relax extends RecursiveAction {
+        private final int[] frontier;
+        private final int lo, hi;
+        private final long current;
+        private final int phase, settledRound;
+
+        Relax(int[] frontier, int lo, int hi, long current, int phase, int settledRound) {
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.current = current;
+            this.phase = phase;
+            this.settledRound = settledRound;
+        }
+
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Relax(frontier, lo, mid, current, phase, settledRound),
+                          new Relax(frontier, mid, hi, current, phase, settledRound));
+                return;
+            }
+            Bins local = bins.get();
+            for (int i = lo; i < hi; i++) {
+                int v = frontier[i];
+                double d = Double.longBitsToDouble(dist.get(v));
+                int begin, end;
+                if (current >= 0) {
+                    // skip the vertexes that moved to an earlier bucket, and the ones already relaxed in this round
+                    if (bucketOf(d) != current || !claim(round, v, phase)) continue;
+                    if (claim(bucketOfSettled, v, settledRound)) local.settled.add(v);
+                    begin = offsets[v];
+                    end = lightEnd[v];
+                }
+                else {
+                    begin = lightEnd[v];
+                    end = offsets[v + 1];
+                }
+                for (int e = begin; e < end; e++) {
+                    int w = targets[e];
+                    double distance = d + weights[e];
+                    if (relax(w, distance)) {
+                        local.add((int) (bucketOf(distance) % buckets.length), w);
+                    }
+                }
+            }
+            local.flush(buckets, settled);
+        }
+    }
+
+    // a bucket: an array of vertexes that tasks append to, a whole buffer at a time
+    private static class Bucket {
+        private int[] items = new int[16];
+        private int size;
+
+        synchronized void add(int v) {
+            add(new int[] { v }, 1);
+        }
+
+        synchronized void add(int[] a, int n) {
+            if (size + n > items.length) {
+                items = Arrays.copyOf(items, Math.max(2 * items.length, size + n));
+            }
+            System.arraycopy(a, 0, items, size, n);
+            size += n;
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        // remove and return all the vertexes
+        synchronized int[] drain() {
+            int[] result = Arrays.copyOf(items, size);
+            size = 0;
+            return result;
+        }
+    }
+
+    // the vertexes a thread is about to add to each bucket, and to the settled vertexes
+    private static class Bins {
+        private final int[][] items;
+        private final int[] sizes;
+        private final int[] touched;        // the buckets with sizes[b] > 0
+        private int touchedCount;
+        private final Buffer settled = new Buffer();
+
+        Bins(int n) {
+            items = new int[n][];
+            sizes = new int[n];
+            touched = new int[n];
+        }
+
+        void add(int b, int v) {
+            if (sizes[b] == 0) {
+                touched[touchedCount++] = b;
+                if (items[b] == null) items[b] = new int[16];
+            }
+            else if (sizes[b] == items[b].length) {
+                items[b] = Arrays.copyOf(items[b], 2 * items[b].length);
+            }
+            items[b][sizes[b]++] = v;
+        }
+
+        // move the vertexes into the buckets of the search and into its settled vertexes
+        void flush(Bucket[] buckets, Bucket settledOfSearch) {
+            for (int t = 0; t < touchedCount; t++) {
+                int b = touched[t];
+                buckets[b].add(items[b], sizes[b]);
+                sizes[b] = 0;
+            }
+            touchedCount = 0;
+            if (settled.size > 0) {
+                settledOfSearch.add(settled.items, settled.size);
+                settled.size = 0;
+            }
+        }
+    }
+
+    private static class Buffer {
+        private int[] items = new int[16];
+        private int size;
+
+        void add(int v) {
+            if (size == items.length) items = Arrays.copyOf(items, 2 * size);
+            items[size++] = v;
+        }
+    }
+
+    // edgeTo[v] = a neighbor u with distTo[u] + weight = distTo[v] and distTo[u] < distTo[v], -1 if there is none;
+    // -2 if the only such neighbors have distTo[u] = distTo[v] (zero weights), they are left to connectEqualParents()
+    private class Parents extends RecursiveAction {
+        private final int lo, hi;
+
+        Parents(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > 16 * GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Parents(lo, mid), new Parents(mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                edgeTo[v] = -1;
+                if (v == s || distTo[v] == Double.POSITIVE_INFINITY) continue;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int u = targets[e];
+                    if (distTo[u] + weights[e] == distTo[v]) {
+                        if (distTo[u] < distTo[v]) {
+                            edgeTo[v] = u;
+                            break;
+                        }
+                        edgeTo[v] = -2;
+                    }
+                }
+            }
+        }
+    }
+
+    // give the vertexes with edgeTo[v] = -2 a parent, searching from the vertexes that have one along tight edges of equal distTo,
+    // so that the parents never form a cycle
+    private void connectEqualParents() {
+        int[] queue = new int[V];
+        int head = 0, tail = 0;
+        for (int v = 0; v < V; v++) {
+            if (edgeTo[v] != -2) continue;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = targets[e];
+                if ((u == s || edgeTo[u] >= 0) && distTo[u] + weights[e] == distTo[v]) {
+                    edgeTo[v] = u;
+                    queue[tail++] = v;
+                    break;
+                }
+            }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (edgeTo[v] == -2 && distTo[u] + weights[e] == distTo[v]) {
+                    edgeTo[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Is there a path between the source vertex s and vertex v?
+     * @param v the vertex
+     * @return true if there is a path, and false otherwise
+     */
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param v the vertex
+     * @return the length of a shortest path between s and v, Double.POSITIVE_INFINITY if there is no such path
+     */
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    /**
+     * @param v the vertex
+     * @return the vertexes of a shortest path from s to v, starting with s, and null if there is no such path
+     */
+    public Iterable<Integer> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) {
+            return null;
+        }
+        Stack<Integer> path = new Stack<>();
+        for (int x = v; x != -1; x = edgeTo[x]) {
+            path.push(x);
+        }
+        return path;
+    }
+
+    /**
+     * @return the width of a bucket
+     */
+    public double delta() {
+        return delta;
+    }
+
+    /**
+     * @return the number of light rounds, i.e. the number of times the threads had to wait for each other
+     */
+    public int phases() {
+        return phases;
+    }
+
+    /**
+     * Times the search against DijkstraUndirectedSP on a random graph with 1 to N threads, and checks the results:
+     * java DeltaSteppingSP V E [maxThreads] [delta] [seed]
+     */
+    public static void main(String[] args) {
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        double delta = args.length > 3 ? Double.parseDouble(args[3]) : Double.NaN;
+        if (args.length > 4) {
+            MattyRandom.setSeed(Long.parseLong(args[4]));
+        }
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V, E);
+        int s = MattyRandom.uniform(V);
+
+        long start = System.nanoTime();
+        DijkstraUndirectedSP expected = new DijkstraUndirectedSP(G, s);
+        double sequential = (System.nanoTime() - start) / 1e9;
+        System.out.printf("DijkstraUndirectedSP:   %8.3f s%n", sequential);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            start = System.nanoTime();
+            DeltaSteppingSP sp = new DeltaSteppingSP(G, s, delta, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+
+            for (int v = 0; v < V; v++) {
+                if (sp.distTo(v) != expected.distTo(v)) {
+                    throw new IllegalStateException("distTo(" + v + ") = " + sp.distTo(v) + ", expected " + expected.distTo(v));
+                }
+                if (!sp.hasPathTo(v)) continue;
+                // the path must start at s and every step must be an edge that is tight for distTo
+                int prev = -1;
+                for (int x : sp.pathTo(v)) {
+                    if (prev < 0 ? x != s : !tight(G, sp, prev, x)) {
+                        throw new IllegalStateException("pathTo(" + v + ") is not a shortest path");
+                    }
+                    prev = x;
+                }
+                if (V > 10_000) v += V / 1000;
+            }
+            System.out.printf("DeltaSteppingSP %2d:     %8.3f s  speedup %.2f  (delta %.4f, %d phases)%n",
+                    threads, seconds, sequential / seconds, sp.delta(), sp.phases());
+        }
+    }
+
+    private static boolean tight(EdgeWeightedGraph G, DeltaSteppingSP sp, int u, int v) {
+        for (Edge e : G.adj(u)) {
+            if (e.other(u) == v && sp.distTo(u) + e.weight() == sp.distTo(v)) return true;
+        }
+        return false;
+    }
+}
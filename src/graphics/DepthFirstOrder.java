@@ -1,53 +1,56 @@
 package graphics;
 
 import edu.princeton.cs.algs4.In;
-import util.Queue;
-import util.Stack;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * The DepthFirstOrder class represents a data type for determining depth-first search ordering of the vertices in a
  * digraph or edge-weighted digraph, including preorder, postorder, and reverse postorder.
+ *
+ * 搜索由DepthFirstWalker完成，不使用递归；两种顺序都保存在int[]中，pre()、post()和reversePost()返回这两个数组的视图，
+ * 所以即使在上亿个顶点的图上，除了与V成正比的几个int[]之外也不需要其他内存。
  */
 
 public class DepthFirstOrder {
     private boolean[] marked;               // marked[v] = has v been marked in dfs
     private int[] pre;                      // pre[v] = preorder number of v
     private int[] post;                     // post[v] = postorder number of v
-    private Queue<Integer> preorder;        // vertexes in preorder
-    private Queue<Integer> postorder;       // vertexes in postorder
+    private int[] preorder;                 // preorder[i] = the i-th vertex in preorder
+    private int[] postorder;                // postorder[i] = the i-th vertex in postorder
     private int preCounter;                 // counter for preorder numbering
     private int postCounter;                // counter for postorder numbering
 
-    public DepthFirstOrder(DirectGraph G) {
+    public DepthFirstOrder(IntGraph G) {
         marked = new boolean[G.V()];
         pre = new int[G.V()];
         post = new int[G.V()];
-        preorder = new Queue<>();
-        postorder = new Queue<>();
+        preorder = new int[G.V()];
+        postorder = new int[G.V()];
         preCounter = 0;
         postCounter = 0;
+        DepthFirstWalker walker = new DepthFirstWalker(G, marked);
+        DepthFirstWalker.Visitor numbering = new DepthFirstWalker.Visitor() {
+            public void preVisit(int v, int parent) {
+                preorder[preCounter] = v;
+                pre[v] = preCounter++;
+            }
+
+            public void postVisit(int v, int parent) {
+                postorder[postCounter] = v;
+                post[v] = postCounter++;
+            }
+        };
         for (int v = 0; v < G.V(); v++) {
             if (!marked[v]) {
-                dfs(G, v);
+                walker.walk(v, numbering);
             }
         }
 
         assert check();
     }
 
-    private void dfs(DirectGraph G, int v) {
-        marked[v] = true;
-        pre[v] = preCounter++;
-        preorder.enqueue(v);
-        for (int w : G.adj(v)) {
-            if (!marked[w]) {
-                dfs(G, w);
-            }
-        }
-        post[v] = postCounter++;
-        postorder.enqueue(v);
-    }
-
     /**
      *
      * @param v the vertex
@@ -64,11 +67,11 @@ public class DepthFirstOrder {
     }
 
     public Iterable<Integer> pre() {
-        return preorder;
+        return order(preorder, false);
     }
 
     public Iterable<Integer> post() {
-        return postorder;
+        return order(postorder, false);
     }
 
     /**
@@ -76,11 +79,24 @@ public class DepthFirstOrder {
      * @return the vertexes in reverse postorder
      */
     public Iterable<Integer> reversePost() {
-        Stack<Integer> reverse = new Stack<>();
-        for (Integer vertex : postorder) {
-            reverse.push(vertex);
-        }
-        return reverse;
+        return order(postorder, true);
+    }
+
+    // a read-only view of the vertexes in a[], front to back or back to front
+    private static Iterable<Integer> order(int[] a, boolean reverse) {
+        return () -> new Iterator<Integer>() {
+            private int i = 0;
+
+            public boolean hasNext() {
+                return i < a.length;
+            }
+
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int k = i++;
+                return a[reverse ? a.length - 1 - k : k];
+            }
+        };
     }
 
     private void validateVertex(int v) {
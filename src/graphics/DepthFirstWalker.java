@@ -0,0 +1,202 @@
+package graphics;
+
+import java.util.Arrays;
+
+/**
+ * 非递归的深度优先搜索：
+ * 递归的dfs()每深入一层就占用一个Java栈帧，在一条很长的路径（例如几十万个顶点的链）上会抛出StackOverflowError，
+ * 只能放在栈很大的线程中运行。这里用两个显式的int栈代替调用栈：
+ * stack[d]是搜索路径上的第d个顶点，cursor[d]是它的邻接表中下一条要检查的边的下标（和递归版本中循环变量i的作用相同）。
+ * 每一步只看栈顶顶点的下一条边：另一端没有被标记就把它压入栈中，邻接表走完了就把顶点弹出。
+ *
+ * 顶点和边的访问顺序与递归版本完全相同，所以迁移到这里的DeepFirstSearch、DeepFirstPaths、MyCC、MyCycle、
+ * DirectedDFS、DirectedCycle和DepthFirstOrder得到的结果都不变。
+ *
+ * 搜索用Visitor的三个方法通知用例：
+ * - preVisit(v, parent)：第一次到达v（前序），parent是树中v的父顶点，起点的parent是-1
+ * - nonTreeEdge(v, w)：检查v -> w时w已经被标记过了
+ * - postVisit(v, parent)：v的邻接表已经全部检查完（后序）
+ * Visitor可以调用stop()提前结束搜索，例如找到一个环之后。
+ *
+ * 两个栈按需加倍，只有搜索路径真的很深时才会变大，每一层占用8个字节，不再受线程栈大小的限制。
+ *
+ * 标记可以是调用者的boolean[] marked，也可以是TraversalWorkspace中当前这次搜索的时间戳，后者不需要为每次搜索分配和清零数组。
+ */
+
+public class DepthFirstWalker {
+
+    /**
+     * Callbacks of a depth-first search; every method does nothing by default
+     */
+    public interface Visitor {
+
+        /**
+         * Called when v is reached for the first time, before any of its edges is checked
+         * @param v the vertex
+         * @param parent the vertex whose edge led to v, or -1 if v is the source of the search
+         */
+        default void preVisit(int v, int parent) {}
+
+        /**
+         * Called for an edge v -> w whose other end w is already marked
+         */
+        default void nonTreeEdge(int v, int w) {}
+
+        /**
+         * Called when all the edges of v have been checked
+         * @param v the vertex
+         * @param parent the vertex whose edge led to v, or -1 if v is the source of the search
+         */
+        default void postVisit(int v, int parent) {}
+    }
+
+    private static final int INITIAL_DEPTH = 16;
+
+    private final IntGraph G;
+    private final int V;
+    private final boolean[] marked;     // marked[v] = has v been reached by any search? null when the marks are stamps
+    private final int[] stamp;          // stamp[v] == epoch iff v has been reached, when there is no marked[]
+    private final int epoch;
+    private int[] stack;                // stack[d] = the d-th vertex on the current path
+    private int[] cursor;               // cursor[d] = index of the next edge of stack[d] to check
+    private int depth;                  // number of vertexes on the current path
+    private boolean stopped;
+
+    /**
+     * @param G the graph
+     * @param marked marked[v] is set when v is reached; vertexes already marked are never visited.
+     *               Shared with the caller, so several searches on the same walker never visit a vertex twice.
+     */
+    public DepthFirstWalker(IntGraph G, boolean[] marked) {
+        if (marked.length != G.V()) {
+            throw new IllegalArgumentException("marked[] has length " + marked.length + ", expected " + G.V());
+        }
+        this.G = G;
+        this.V = G.V();
+        this.marked = marked;
+        this.stamp = null;
+        this.epoch = 0;
+        stack = new int[Math.min(INITIAL_DEPTH, Math.max(1, V))];
+        cursor = new int[stack.length];
+    }
+
+    /**
+     * @param G the graph
+     * @param workspace the vertexes are marked in the search the workspace is currently running (see TraversalWorkspace.begin());
+     *                  vertexes already marked by it are never visited
+     */
+    DepthFirstWalker(IntGraph G, TraversalWorkspace workspace) {
+        this.G = G;
+        this.V = G.V();
+        this.marked = null;
+        this.stamp = workspace.mark();
+        this.epoch = workspace.epoch();
+        stack = new int[Math.min(INITIAL_DEPTH, Math.max(1, V))];
+        cursor = new int[stack.length];
+    }
+
+    private boolean isMarked(int v) {
+        return marked != null ? marked[v] : stamp[v] == epoch;
+    }
+
+    private void mark(int v) {
+        if (marked != null) marked[v] = true;
+        else stamp[v] = epoch;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    /**
+     * Searches depth-first from s, unless s is already marked
+     * @param s the source vertex
+     * @param visitor the callbacks
+     * @return false if the visitor called stop(), true otherwise
+     */
+    public boolean walk(int s, Visitor visitor) {
+        validateVertex(s);
+        stopped = false;
+        if (isMarked(s)) return true;
+        mark(s);
+        visitor.preVisit(s, -1);
+        push(s);
+        while (depth > 0 && !stopped) {
+            int top = depth - 1;
+            int v = stack[top];
+            int i = cursor[top];
+            if (i < G.degree(v)) {
+                cursor[top] = i + 1;
+                int w = G.neighbor(v, i);
+                if (!isMarked(w)) {
+                    mark(w);
+                    visitor.preVisit(w, v);
+                    push(w);
+                }
+                else {
+                    visitor.nonTreeEdge(v, w);
+                }
+            }
+            else {
+                depth--;
+                visitor.postVisit(v, depth > 0 ? stack[depth - 1] : -1);
+            }
+        }
+        depth = 0;
+        return !stopped;
+    }
+
+    private void push(int v) {
+        if (depth == stack.length) {
+            int capacity = (int) Math.min(2L * stack.length, V);
+            stack = Arrays.copyOf(stack, capacity);
+            cursor = Arrays.copyOf(cursor, capacity);
+        }
+        stack[depth] = v;
+        cursor[depth] = 0;
+        depth++;
+    }
+
+    /**
+     * Ends the current search after the callback that calls it returns
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return the number of vertexes on the current search path, i.e. the depth of the vertex being visited
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Walks a path graph 0-1-2-...-(V-1), which overflows the stack of any recursive dfs() for large V:
+     * java DepthFirstWalker [V]
+     */
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] from = new int[V - 1];
+        int[] to = new int[V - 1];
+        for (int v = 0; v < V - 1; v++) {
+            from[v] = v;
+            to[v] = v + 1;
+        }
+        CSRGraphic chain = new CSRGraphic(V, from, to, false);
+        from = null;
+        to = null;
+
+        long start = System.nanoTime();
+        DeepFirstSearch search = new DeepFirstSearch(chain, 0);
+        System.out.printf("DeepFirstSearch: %d vertexes connected to 0 in %.3f s%n", search.count(), (System.nanoTime() - start) / 1e9);
+        start = System.nanoTime();
+        DepthFirstOrder order = new DepthFirstOrder(chain);
+        System.out.printf("DepthFirstOrder: post(0) = %d in %.3f s%n", order.post(0), (System.nanoTime() - start) / 1e9);
+        start = System.nanoTime();
+        MyCycle cycle = new MyCycle(chain);
+        System.out.printf("MyCycle:         hasCycle() = %b in %.3f s%n", cycle.hasCycle(), (System.nanoTime() - start) / 1e9);
+    }
+}
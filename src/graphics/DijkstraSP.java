@@ -0,0 +1,153 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.IndexDoubleMinPQ;
+import util.Stack;
+
+/**
+ * 加权有向图中的单点最短路径 (Dijkstra)：
+ * 和DijkstraUndirectedSP是同一个算法，但是图是任意加权的WeightedIntGraph（EdgeWeightedDigraph、加权的OffHeapGraphic和MappedGraphic……），
+ * 边用游标(degree/neighbor/weight)遍历，不需要Edge对象；优先队列是IndexDoubleMinPQ，键是double，decreaseKey不会装箱。
+ * edgeTo[v]保存的是最短路径树中v的父顶点，而不是一条边，pathTo(v)返回路径上的顶点，和BreadFirstPaths一样。
+ *
+ * 无向的WeightedIntGraph中每条边在两个端点的邻接表中各出现一次，所以同样适用。
+ * 所有边的权重都必须是非负的，时间是 E log V。
+ * 只需要到一个终点的最短路径时，用AStarSP，它在到达终点时就停止，而且可以用启发函数引导搜索。
+ */
+
+public class DijkstraSP {
+
+    private final double[] distTo;          // distTo[v] = distance of shortest s->v path
+    private final int[] edgeTo;             // edgeTo[v] = the vertex before v on a shortest s->v path, -1 for s and unreached vertexes
+    private final int s;
+
+    /**
+     * Computes a shortest-paths tree from the source vertex s to every other vertex in G
+     * @param G the weighted graph
+     * @param s the source vertex
+     * @throws IllegalArgumentException if G is not weighted, or an edge weight is negative
+     */
+    public DijkstraSP(WeightedIntGraph G, int s) {
+        if (!G.isWeighted()) throw new IllegalArgumentException("DijkstraSP needs a weighted graph");
+        int V = G.V();
+        distTo = new double[V];
+        edgeTo = new int[V];
+        this.s = s;
+        validateVertex(s);
+
+        for (int v = 0; v < V; v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeTo[v] = -1;
+        }
+        distTo[s] = 0.0;
+
+        IndexDoubleMinPQ pq = new IndexDoubleMinPQ(V);
+        pq.insert(s, 0.0);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                double weight = G.weight(v, i);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("edge " + v + "->" + G.neighbor(v, i) + " has negative weight " + weight);
+                }
+                int w = G.neighbor(v, i);
+                // relax edge v -> w
+                double distance = distTo[v] + weight;
+                if (distance < distTo[w]) {
+                    distTo[w] = distance;
+                    edgeTo[w] = v;
+                    pq.insertOrDecrease(w, distance);
+                }
+            }
+        }
+
+        assert check(G);
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    /**
+     * @param v the destination vertex
+     * @return the length of a shortest path from s to v, Double.POSITIVE_INFINITY if there is no such path
+     */
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param v the destination vertex
+     * @return the vertexes of a shortest path from s to v, starting with s, and null if there is no such path
+     */
+    public Iterable<Integer> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) {
+            return null;
+        }
+        Stack<Integer> path = new Stack<>();
+        for (int x = v; x != -1; x = edgeTo[x]) {
+            path.push(x);
+        }
+        return path;
+    }
+
+    // check the optimality conditions: distTo[s] = 0, no edge can be relaxed, and every edgeTo[] is tight
+    private boolean check(WeightedIntGraph G) {
+        if (distTo[s] != 0.0 || edgeTo[s] != -1) {
+            System.err.println("distTo[s] and edgeTo[s] inconsistent");
+            return false;
+        }
+        for (int v = 0; v < G.V(); v++) {
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                int w = G.neighbor(v, i);
+                if (distTo[v] + G.weight(v, i) < distTo[w]) {
+                    System.err.println("edge " + v + "->" + w + " not relaxed");
+                    return false;
+                }
+            }
+        }
+        for (int w = 0; w < G.V(); w++) {
+            int v = edgeTo[w];
+            if (v == -1) continue;
+            boolean tight = false;
+            for (int i = 0, degree = G.degree(v); i < degree && !tight; i++) {
+                tight = G.neighbor(v, i) == w && distTo[v] + G.weight(v, i) == distTo[w];
+            }
+            if (!tight) {
+                System.err.println("edge " + v + "->" + w + " on shortest path not tight");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+        int s = Integer.parseInt(args[1]);
+        DijkstraSP sp = new DijkstraSP(G, s);
+
+        for (int t = 0; t < G.V(); t++) {
+            if (sp.hasPathTo(t)) {
+                System.out.printf("%d to %d (%.2f)  ", s, t, sp.distTo(t));
+                for (int x : sp.pathTo(t)) {
+                    System.out.print(x == s ? x : "->" + x);
+                }
+                System.out.println();
+            }
+            else {
+                System.out.printf("%d to %d         no path\n", s, t);
+            }
+        }
+    }
+}
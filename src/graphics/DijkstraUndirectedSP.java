@@ -0,0 +1,157 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.IndexMinPQ;
+import util.Stack;
+
+/**
+ * 单点最短路径：给定一幅加权图和一个起点s，找到从s到每个顶点的总权重最小的路径
+ *
+ * Dijkstra算法，要求所有边的权重都是非负的：
+ * 和即时的Prim算法几乎一样，只是顶点的优先级从"连接到树的最短边的权重"变成了"从s到它的路径的总权重"distTo[w]。
+ * 每次从索引优先队列中取出distTo最小的顶点v，放松它的所有边：
+ * 如果 distTo[v] + e.weight() < distTo[w]，说明经过v到达w的路径更短，更新distTo[w]和edgeTo[w]，并减小w在队列中的优先级。
+ *
+ * 取出的顶点的distTo不会再变小，所以每个顶点只会被取出一次，队列中最多只有V个顶点，时间是 E log V
+ *
+ * 这里的图是无向的EdgeWeightedGraph：每条边可以从两个方向经过。
+ */
+
+public class DijkstraUndirectedSP {
+
+    private double[] distTo;                // distTo[v] = distance of shortest s->v path
+    private Edge[] edgeTo;                  // edgeTo[v] = last edge on shortest s->v path
+    private IndexMinPQ<Double> pq;          // priority queue of vertices
+
+    /**
+     * Computes a shortest-paths tree from the source vertex s to every other vertex in the edge-weighted graph G
+     * @param G the edge-weighted graph
+     * @param s the source vertex
+     * @throws IllegalArgumentException if an edge weight is negative
+     */
+    public DijkstraUndirectedSP(EdgeWeightedGraph G, int s) {
+        distTo = new double[G.V()];
+        edgeTo = new Edge[G.V()];
+        validateVertex(s);
+
+        for (int v = 0; v < G.V(); v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+        }
+        distTo[s] = 0.0;
+
+        pq = new IndexMinPQ<>(G.V());
+        pq.insert(s, distTo[s]);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            for (Edge e : G.adj(v)) {
+                if (e.weight() < 0) {
+                    throw new IllegalArgumentException("edge " + e + " has negative weight");
+                }
+                relax(e, v);
+            }
+        }
+
+        assert check(G, s);
+    }
+
+    // relax edge e, leaving v
+    private void relax(Edge e, int v) {
+        int w = e.other(v);
+        if (distTo[w] > distTo[v] + e.weight()) {
+            distTo[w] = distTo[v] + e.weight();
+            edgeTo[w] = e;
+            if (pq.contains(w)) {
+                pq.decreaseKey(w, distTo[w]);
+            }
+            else {
+                pq.insert(w, distTo[w]);
+            }
+        }
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    /**
+     * @param v the destination vertex
+     * @return the length of a shortest path between s and v, Double.POSITIVE_INFINITY if there is no such path
+     */
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param v the destination vertex
+     * @return a shortest path between s and v as an iterable of edges, and null if there is no such path
+     */
+    public Iterable<Edge> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) {
+            return null;
+        }
+        Stack<Edge> path = new Stack<>();
+        int x = v;
+        for (Edge e = edgeTo[v]; e != null; e = edgeTo[x]) {
+            path.push(e);
+            x = e.other(x);
+        }
+        return path;
+    }
+
+    // check the optimality conditions: distTo[s] = 0, no edge can be relaxed, and every edgeTo[] is tight
+    private boolean check(EdgeWeightedGraph G, int s) {
+        if (distTo[s] != 0.0 || edgeTo[s] != null) {
+            System.err.println("distTo[s] and edgeTo[s] inconsistent");
+            return false;
+        }
+        for (int v = 0; v < G.V(); v++) {
+            for (Edge e : G.adj(v)) {
+                int w = e.other(v);
+                if (distTo[v] + e.weight() < distTo[w]) {
+                    System.err.println("edge " + e + " not relaxed");
+                    return false;
+                }
+            }
+        }
+        for (int w = 0; w < G.V(); w++) {
+            if (edgeTo[w] == null) continue;
+            Edge e = edgeTo[w];
+            int v = e.other(w);
+            if (distTo[v] + e.weight() != distTo[w]) {
+                System.err.println("edge " + e + " on shortest path not tight");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+        int s = Integer.parseInt(args[1]);
+        DijkstraUndirectedSP sp = new DijkstraUndirectedSP(G, s);
+
+        for (int t = 0; t < G.V(); t++) {
+            if (sp.hasPathTo(t)) {
+                System.out.printf("%d to %d (%.2f)  ", s, t, sp.distTo(t));
+                for (Edge e : sp.pathTo(t)) {
+                    System.out.print(e + "   ");
+                }
+                System.out.println();
+            }
+            else {
+                System.out.printf("%d to %d         no path\n", s, t);
+            }
+        }
+    }
+}
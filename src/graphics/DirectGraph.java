@@ -2,8 +2,7 @@ package graphics;
 
 
 import edu.princeton.cs.algs4.In;
-import util.Bag;
-import util.Stack;
+import util.IntBag;
 
 import java.util.NoSuchElementException;
 
@@ -20,14 +19,15 @@ import java.util.NoSuchElementException;
  *
  * 需要 int[] inDegree 这个变量是因为，顶点的outDegree很好计算，就是adj[v].size()，inDegree就没那么好计算了，所以最好采取一个变量进行记录
  */
-public class DirectGraph {
+public class DirectGraph implements IntGraph {
 
     private static final String NEWLINE = System.getProperty("line.separator");
 
     private final int V;            // the number of vertexes in the graph
     private int E;                  // the number of edges in the graph
-    private Bag<Integer>[] adj;     // adj[v] = adjacency list for vertex v
+    private IntBag[] adj;           // adj[v] = adjacency list for vertex v
     private int[] inDegree;         // inDegree[v] = inDegree of vertex v
+    private EdgeListener[] listeners = EdgeListeners.NONE;   // notified after every addEdge()
 
     /**
      * Initialize an empty direct graph with v vertexes.
@@ -40,9 +40,9 @@ public class DirectGraph {
         this.V = v;
         this.E = 0;
         inDegree = new int[V];
-        adj = (Bag<Integer>[]) new Bag[V];
+        adj = new IntBag[V];
         for (int i = 0; i < V; i++) {
-            adj[i] = new Bag<>();
+            adj[i] = new IntBag();
         }
     }
 
@@ -56,9 +56,9 @@ public class DirectGraph {
                 throw new IllegalArgumentException("Number for vertexes in a graph must be non-negative.");
             }
             inDegree = new int[V];
-            adj = (Bag<Integer>[]) new Bag[V];
+            adj = new IntBag[V];
             for (int i = 0; i < V; i++) {
-                adj[i] = new Bag<>();
+                adj[i] = new IntBag();
             }
 
             int e = in.readInt();
@@ -95,20 +95,13 @@ public class DirectGraph {
             inDegree[v] = dg.inDegree(v);
         }
 
-        adj = (Bag<Integer>[]) new Bag[V];
+        // add in reverse iteration order so that the list could be the original order of dg
+        adj = new IntBag[V];
         for (int v = 0; v < V; v++) {
-            adj[v] = new Bag<>();
-        }
-
-        // Use a Stack
-        // reverse so that the list could be the original order of dg
-        for (int v = 0; v < V; v++) {
-            Stack<Integer> reverse = new Stack<>();
-            for (int w : dg.adj(v)) {
-                reverse.push(w);
-            }
-            for (int w : reverse) {
-                adj[v].add(w);
+            int degree = dg.outDegree(v);
+            adj[v] = new IntBag(degree);
+            for (int i = degree - 1; i >= 0; i--) {
+                adj[v].add(dg.neighbor(v, i));
             }
         }
     }
@@ -130,6 +123,25 @@ public class DirectGraph {
         adj[v].add(w);
         inDegree[w]++;
         E++;
+        for (EdgeListener listener : listeners) {
+            listener.edgeAdded(v, w);
+        }
+    }
+
+    /**
+     * Registers a listener that is told about every edge added from now on;
+     * a copy or the reverse of the direct graph does not inherit it
+     * @param listener the listener
+     */
+    public void addEdgeListener(EdgeListener listener) {
+        listeners = EdgeListeners.add(listeners, listener);
+    }
+
+    /**
+     * @param listener a listener registered by addEdgeListener()
+     */
+    public void removeEdgeListener(EdgeListener listener) {
+        listeners = EdgeListeners.remove(listeners, listener);
     }
 
     public int V() {
@@ -155,6 +167,26 @@ public class DirectGraph {
         return adj[v].size();
     }
 
+    /**
+     * Same as outDegree(v), so that a DirectGraph can be searched through the IntGraph interface
+     * @param v source vertex
+     * @return the out degree of v
+     */
+    public int degree(int v) {
+        return outDegree(v);
+    }
+
+    /**
+     * Returns the i-th vertex adjacent from v, in the same order as adj(v), without boxing it
+     * @param v source vertex
+     * @param i index between 0 and outDegree(v) - 1
+     * @return the i-th vertex adjacent from v
+     */
+    public int neighbor(int v, int i) {
+        validateVertex(v);
+        return adj[v].get(i);
+    }
+
     public int inDegree(int v) {
         validateVertex(v);
         return inDegree[v];
@@ -167,13 +199,21 @@ public class DirectGraph {
     public DirectGraph reverse() {
         DirectGraph reverseDg = new DirectGraph(this.V);
         for (int i = 0; i < V; i++) {
-            for (int w : adj(i)) {
-                reverseDg.addEdge(w, i);
+            for (int j = 0; j < adj[i].size(); j++) {
+                reverseDg.addEdge(adj[i].get(j), i);
             }
         }
         return reverseDg;
     }
 
+    /**
+     * Freezes this direct graph into an immutable compressed sparse row representation
+     * @return a CSRGraphic with the same vertexes, edges and adjacency order as this direct graph
+     */
+    public CSRGraphic freeze() {
+        return new CSRGraphic(this);
+    }
+
     /**
      *
      * @return the number of vertexes V, followed by the number of edges E, followed by the V adjacency lists
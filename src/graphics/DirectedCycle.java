@@ -44,45 +44,41 @@ public class DirectedCycle {
      * Determines whether the DirectGraph G has a directed cycle and, if so, finds such a cycle
      * @param G
      */
-    public DirectedCycle(DirectGraph G) {
+    public DirectedCycle(IntGraph G) {
         marked = new boolean[G.V()];
         edgeTo = new int[G.V()];
         onStack = new boolean[G.V()];
-        for (int v = 0; v < G.V(); v++) {
-            if (!marked[v] && cycle == null) {
-                dfs(G, v);
+        DepthFirstWalker walker = new DepthFirstWalker(G, marked);
+        // run DFS and find a directed cycle (if one exists)
+        DepthFirstWalker.Visitor finder = new DepthFirstWalker.Visitor() {
+            public void preVisit(int v, int parent) {
+                if (parent >= 0) edgeTo[v] = parent;
+                onStack[v] = true;
             }
-        }
-    }
 
-    /**
-     * run DFS and find a directed cycle (if one exists)
-     * @param G the DirectGraph
-     * @param v the source vertex
-     */
-    private void dfs(DirectGraph G, int v) {
-        marked[v] = true;
-        onStack[v] = true;
-        for (int w : G.adj(v)) {
-            if (cycle != null) {
-                return;
-            }
-            else if (!marked[w]) {
-                edgeTo[w] = v;
-                dfs(G, w);
-            }
-            else if (onStack[w]) {
-                cycle = new Stack<>();
-                for (int x = v; x != w; x = edgeTo[x]) {
-                    cycle.push(x);
+            public void nonTreeEdge(int v, int w) {
+                if (onStack[w]) {
+                    cycle = new Stack<>();
+                    for (int x = v; x != w; x = edgeTo[x]) {
+                        cycle.push(x);
+                    }
+                    cycle.push(w);
+                    cycle.push(v);
+                    walker.stop();
+
+                    assert check();
                 }
-                cycle.push(w);
-                cycle.push(v);
+            }
 
-                assert check();
+            public void postVisit(int v, int parent) {
+                onStack[v] = false;
+            }
+        };
+        for (int v = 0; v < G.V(); v++) {
+            if (!marked[v] && cycle == null) {
+                walker.walk(v, finder);
             }
         }
-        onStack[v] = false;
     }
 
     public boolean hasCycle() {
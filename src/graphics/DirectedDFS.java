@@ -25,18 +25,38 @@ import util.Bag;
  * (or a set of source vertexes) in a direct graph.
  */
 public class DirectedDFS {
-    private boolean[] marked;           // marked[v] = true iff v is reachable from source(s)
+    private final int V;
+    private boolean[] marked;           // marked[v] = true iff v is reachable from source(s); null when the search ran in a workspace
+    private TraversalWorkspace workspace;
+    private int epoch;                  // the search of workspace this one is
     private int count;                  // number of reachable vertexes from source(s)
 
     /**
-     * Computes the vertexes in the direct graph that are reachable from source vertex s
+     * Computes the vertexes in the direct graph that are reachable from source vertex s.
+     * G can be any IntGraph: a DirectGraph, a CSRGraphic, or one stored outside the heap (MappedGraphic, OffHeapGraphic).
      * @param G the direct graph
      * @param s the source vertex
      */
-    public DirectedDFS(DirectGraph G, int s) {
-        marked = new boolean[G.V()];
+    public DirectedDFS(IntGraph G, int s) {
+        V = G.V();
+        marked = new boolean[V];
         validateVertex(s);
-        dfs(G, s);
+        new DepthFirstWalker(G, marked).walk(s, counter());
+    }
+
+    /**
+     * Computes the vertexes reachable from s with the marks of workspace instead of a new array;
+     * the result is valid until the workspace is used by another search
+     * @param G the direct graph
+     * @param s the source vertex
+     * @param workspace a workspace with capacity() >= G.V(), e.g. TraversalWorkspace.forThread(G.V())
+     */
+    public DirectedDFS(IntGraph G, int s, TraversalWorkspace workspace) {
+        V = G.V();
+        validateVertex(s);
+        this.workspace = workspace;
+        epoch = workspace.begin(G);
+        new DepthFirstWalker(G, workspace).walk(s, counter());
     }
 
     /**
@@ -44,28 +64,28 @@ public class DirectedDFS {
      * @param G the direct graph
      * @param sources the sources
      */
-    public DirectedDFS(DirectGraph G, Iterable<Integer> sources) {
-        marked = new boolean[G.V()];
+    public DirectedDFS(IntGraph G, Iterable<Integer> sources) {
+        V = G.V();
+        marked = new boolean[V];
         validateVertexes(sources);
+        DepthFirstWalker walker = new DepthFirstWalker(G, marked);
+        DepthFirstWalker.Visitor counter = counter();
         for (int v : sources) {
             if (!marked[v]) {
-                dfs(G, v);
+                walker.walk(v, counter);
             }
         }
     }
 
-    private void dfs(DirectGraph G, int s) {
-        count++;
-        marked[s] = true;
-        for (int w : G.adj(s)) {
-            if (!marked[w]) {
-                dfs(G, w);
+    private DepthFirstWalker.Visitor counter() {
+        return new DepthFirstWalker.Visitor() {
+            public void preVisit(int v, int parent) {
+                count++;
             }
-        }
+        };
     }
 
     private void validateVertex(int v) {
-        int V = marked.length;
         if (v < 0 || v >= V) {
             throw new IllegalArgumentException("Number of vertexes must be non-negative.");
         }
@@ -90,7 +110,7 @@ public class DirectedDFS {
      */
     public boolean marked(int v) {
         validateVertex(v);
-        return marked[v];
+        return marked != null ? marked[v] : workspace.marked(v, epoch);
     }
 
     public int count() {
@@ -0,0 +1,15 @@
+package graphics;
+
+/**
+ * Graphic和DirectGraph每次addEdge()之后都会通知注册在它上面的EdgeListener，
+ * 这样依赖于图的结构（例如IncrementalCC中的连通分量）就能跟着边的插入一起更新，而不必每次都从头遍历整幅图。
+ */
+public interface EdgeListener {
+
+    /**
+     * Called after the edge v-w (v -> w in a direct graph) has been added to the graph
+     * @param v one vertex of the edge (the tail vertex)
+     * @param w the other vertex of the edge (the head vertex)
+     */
+    void edgeAdded(int v, int w);
+}
@@ -0,0 +1,36 @@
+package graphics;
+
+import java.util.Arrays;
+
+/**
+ * Graphic和DirectGraph保存EdgeListener用的写时复制数组：
+ * 监听者保存在一个数组中，注册和注销时复制整个数组，addEdge()中的循环不需要创建Iterator；
+ * 没有监听者时只多了一次对空数组的检查。
+ */
+final class EdgeListeners {
+
+    static final EdgeListener[] NONE = new EdgeListener[0];
+
+    private EdgeListeners() {}
+
+    // listeners plus listener, as a new array
+    static EdgeListener[] add(EdgeListener[] listeners, EdgeListener listener) {
+        if (listener == null) throw new IllegalArgumentException("listener is null");
+        EdgeListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        return copy;
+    }
+
+    // listeners without the first occurrence of listener, as a new array; listeners itself if it is not there
+    static EdgeListener[] remove(EdgeListener[] listeners, EdgeListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                EdgeListener[] copy = new EdgeListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, copy, 0, i);
+                System.arraycopy(listeners, i + 1, copy, i, listeners.length - i - 1);
+                return copy.length == 0 ? NONE : copy;
+            }
+        }
+        return listeners;
+    }
+}
@@ -0,0 +1,238 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 加权有向图：
+ * EdgeWeightedGraph的每条边都是一个Edge对象，保存在每个顶点的Bag中，在上千万个顶点的道路网上，
+ * 对象头、引用和Bag的节点比边本身的数据还要大得多。这里用和CSRGraphic一样的压缩稀疏行表示：
+ * 顶点v的所有出边是 targets[offsets[v]] ... targets[offsets[v + 1] - 1]，边的权重保存在并行的double[] weights中，
+ * 每条边只占用12个字节，遍历时是顺序访问数组。
+ *
+ * 它实现了WeightedIntGraph，所以DijkstraSP、AStarSP、DirectedDFS、TarjanSCC等都可以直接在它上面运行；
+ * 和CSRGraphic一样，构造完成之后就不能再添加边了。
+ * 边的顺序与把边逐条加入邻接表(Bag)时adj(v)的顺序相同，即每个顶点的出边按加入的相反顺序排列。
+ */
+
+public class EdgeWeightedDigraph implements WeightedIntGraph {
+
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    private final int V;                    // number of vertexes
+    private final int E;                    // number of edges
+    private final int[] offsets;            // the edges leaving v are offsets[v] to offsets[v + 1] - 1
+    private final int[] targets;            // targets[e] = the head vertex of edge e
+    private final double[] weights;         // weights[e] = the weight of edge e
+
+    /**
+     * Builds a graph from an edge list: edge i is from[i] -> to[i] with weight weight[i]
+     * @param V the number of vertexes
+     * @param from the tail vertexes of the edges
+     * @param to the head vertexes of the edges
+     * @param weight the weights of the edges
+     */
+    public EdgeWeightedDigraph(int V, int[] from, int[] to, double[] weight) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
+        if (to.length != from.length || weight.length != from.length) {
+            throw new IllegalArgumentException("from[], to[] and weight[] have different lengths");
+        }
+        this.V = V;
+        this.E = from.length;
+        offsets = new int[V + 1];
+        targets = new int[E];
+        weights = new double[E];
+        for (int i = 0; i < E; i++) {
+            validateVertex(from[i]);
+            validateVertex(to[i]);
+            if (Double.isNaN(weight[i])) throw new IllegalArgumentException("weight of edge " + i + " is NaN");
+        }
+        fill(from, to, weight);
+    }
+
+    /**
+     * Reads a graph from the input stream: V, E, then E lines "v w weight" for the edges v -> w
+     * @param in the input stream
+     */
+    public EdgeWeightedDigraph(In in) {
+        this(EdgeList.read(in));
+    }
+
+    /**
+     * Builds the direct graph with the edges v -> w and w -> v for every edge v-w of G (a self-loop only once)
+     * @param G the undirected edge-weighted graph
+     */
+    public EdgeWeightedDigraph(EdgeWeightedGraph G) {
+        this(EdgeList.of(G));
+    }
+
+    private EdgeWeightedDigraph(EdgeList edges) {
+        this(edges.V, edges.from, edges.to, edges.weight);
+    }
+
+    // the edges of a graph, before they are sorted into the adjacency arrays
+    private static class EdgeList {
+        private final int V;
+        private final int[] from;
+        private final int[] to;
+        private final double[] weight;
+
+        private EdgeList(int V, int E) {
+            this.V = V;
+            from = new int[E];
+            to = new int[E];
+            weight = new double[E];
+        }
+
+        static EdgeList read(In in) {
+            if (in == null) throw new IllegalArgumentException("Argument to EdgeWeightedDigraph() is null.");
+            try {
+                int V = in.readInt();
+                if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
+                int E = in.readInt();
+                if (E < 0) throw new IllegalArgumentException("Number of edges must be non-negative.");
+                EdgeList edges = new EdgeList(V, E);
+                for (int i = 0; i < E; i++) {
+                    edges.from[i] = in.readInt();
+                    edges.to[i] = in.readInt();
+                    edges.weight[i] = in.readDouble();
+                }
+                return edges;
+            } catch (NoSuchElementException e) {
+                throw new IllegalArgumentException("invalid input format in EdgeWeightedDigraph constructor", e);
+            }
+        }
+
+        static EdgeList of(EdgeWeightedGraph G) {
+            int E = 0;
+            for (Edge e : G.edges()) {
+                int v = e.either();
+                E += v == e.other(v) ? 1 : 2;
+            }
+            EdgeList edges = new EdgeList(G.V(), E);
+            int i = 0;
+            for (Edge e : G.edges()) {
+                int v = e.either();
+                int w = e.other(v);
+                edges.from[i] = v;
+                edges.to[i] = w;
+                edges.weight[i++] = e.weight();
+                if (v != w) {
+                    edges.from[i] = w;
+                    edges.to[i] = v;
+                    edges.weight[i++] = e.weight();
+                }
+            }
+            return edges;
+        }
+    }
+
+    // counting sort the edge list into offsets[], targets[] and weights[]
+    // each adjacency list is filled from its end towards its start, so it ends up in the same (LIFO) order as a Bag
+    private void fill(int[] from, int[] to, double[] weight) {
+        for (int i = 0; i < E; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = new int[V];
+        System.arraycopy(offsets, 1, next, 0, V);
+        for (int i = 0; i < E; i++) {
+            int e = --next[from[i]];
+            targets[e] = to[i];
+            weights[e] = weight[i];
+        }
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    private int validateEdge(int v, int i) {
+        validateVertex(v);
+        int begin = offsets[v];
+        if (i < 0 || i >= offsets[v + 1] - begin) {
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (degree(v) - 1));
+        }
+        return begin + i;
+    }
+
+    /**
+     * @return the number of vertexes
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * @return the number of edges
+     */
+    public int E() {
+        return E;
+    }
+
+    public boolean isDirected() {
+        return true;
+    }
+
+    public boolean isWeighted() {
+        return true;
+    }
+
+    /**
+     * @param v vertex
+     * @return the number of edges leaving v (the out degree of v)
+     */
+    public int degree(int v) {
+        validateVertex(v);
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * @param v vertex
+     * @param i index into the edges leaving v, between 0 and degree(v) - 1
+     * @return the head vertex of the i-th edge leaving v
+     */
+    public int neighbor(int v, int i) {
+        return targets[validateEdge(v, i)];
+    }
+
+    /**
+     * @param v vertex
+     * @param i index into the edges leaving v, between 0 and degree(v) - 1
+     * @return the weight of the i-th edge leaving v
+     */
+    public double weight(int v, int i) {
+        return weights[validateEdge(v, i)];
+    }
+
+    /**
+     * @return the approximate number of bytes used by the adjacency arrays
+     */
+    public long memoryUsage() {
+        return 4L * offsets.length + 4L * targets.length + 8L * weights.length;
+    }
+
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(V).append(" vertices; ").append(E).append(" edges").append(NEWLINE);
+        for (int v = 0; v < V; v++) {
+            result.append(v).append(": ");
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                result.append(v).append("->").append(targets[e]).append(String.format(" %5.2f  ", weights[e]));
+            }
+            result.append(NEWLINE);
+        }
+        return result.toString();
+    }
+
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+        System.out.print(G);
+    }
+}
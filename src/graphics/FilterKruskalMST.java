@@ -0,0 +1,348 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.MattyRandom;
+import util.Queue;
+import util.UF;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+
+/**
+ * Filter-Kruskal (Osipov, Sanders, Singler, "The Filter-Kruskal Minimum Spanning Tree Algorithm")：
+ *
+ * KruskalMST把所有的边都放进优先队列，再一条一条地取出来，所有边都要参与排序，整个过程是串行的。
+ * 但是在稠密的图中，MST通常在处理完很小一部分最轻的边之后就已经把大部分顶点连通了，
+ * 剩下的重边绝大多数两个端点已经在同一棵树中，对它们排序是白费功夫。
+ *
+ * Filter-Kruskal像快速排序一样递归：
+ * - 边数少于阈值时，直接排序并按Kruskal算法处理；
+ * - 否则选一个主元，把边切分为不重于主元的轻边和比主元重的重边；
+ * - 递归处理轻边，此时UF中已经包含了所有轻边的结果；
+ * - 过滤 (filter) 重边：删掉两个端点已经连通的边，它们不可能再进入MST，然后递归处理剩下的重边。
+ *
+ * 边按 (权重, 编号) 的全序处理，所以结果与权重相同的边的输入顺序无关，而且与KruskalMST的权重相同（权重各不相同时边也相同）。
+ *
+ * 边不保存为Edge对象，而是保存在基本类型的数组中：
+ * - ends[i]：第i条边的两个端点，打包成一个long (v << 32 | w)；
+ * - keys[]：要排序的边，每个long的高32位是权重转换成float之后可以按整数比较的位模式，低32位是边的编号i。
+ *   这样对keys[]做一次Arrays.parallelSort()就是按权重排序，不需要比较器，也不需要解引用对象。
+ *   float的精度比double低，不同的权重可能得到相同的高32位，排序之后再把这样的段按精确的权重修正一次。
+ *
+ * 切分和过滤是并行的：把区间分成块，每块先数出要留下的边，算出前缀和之后各块再把边写到缓冲区中的对应位置。
+ * 切分、过滤和递归在给定的ForkJoinPool中运行。排序用的Arrays.parallelSort()从这个池的线程中调用，它派生的任务也留在这个池中，
+ * 但是它把区间切成多少个任务是按公共池的并行度 (ForkJoinPool.getCommonPoolParallelism()) 决定的，与给定的池无关：
+ * 公共池的并行度为1时（只有一两个CPU，或者设置了-Djava.util.concurrent.ForkJoinPool.common.parallelism=1），
+ * 排序退化成串行的，不管给定的池有多少个线程。
+ */
+
+public class FilterKruskalMST {
+
+    private static final double FLOATING_POINT_EPSILON = 1E-12;
+    private static final int MIN_BASE = 1 << 13;        // ranges with at most max(MIN_BASE, V) edges are sorted directly
+    private static final int BLOCK = 1 << 14;           // edges per block of a parallel split
+    private static final int PARALLEL_SPLIT = 1 << 17;  // smaller ranges are split sequentially
+
+    private final Edge[] edges;                 // edges[i] is edge number i
+    private final double[] weights;             // weights[i] = edges[i].weight()
+    private final long[] ends;                  // both endpoints of edge i, v << 32 | w
+    private final long[] keys;                  // sortable weight << 32 | edge number
+    private final long[] buffer;                // target of the parallel splits
+    private final UF uf;
+    private final int V;
+    private final int base;
+    private double weight;
+    private final Queue<Edge> mst = new Queue<>();
+
+    /**
+     * Computes a minimum spanning forest of G, using the common ForkJoinPool
+     * @param G the edge-weighted graph
+     */
+    public FilterKruskalMST(EdgeWeightedGraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public FilterKruskalMST(EdgeWeightedGraph G, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        V = G.V();
+        int E = G.E();
+        base = Math.max(MIN_BASE, V);
+        edges = new Edge[E];
+        weights = new double[E];
+        ends = new long[E];
+        keys = new long[E];
+        buffer = new long[E];
+        int i = 0;
+        for (Edge e : G.edges()) {
+            int v = e.either();
+            int w = e.other(v);
+            edges[i] = e;
+            weights[i] = e.weight();
+            ends[i] = (long) v << 32 | w;
+            keys[i] = (long) sortable(e.weight()) << 32 | i;
+            i++;
+        }
+        uf = new UF(V);
+        pool.invoke(ForkJoinTask.adapt(() -> filterKruskal(0, E)));
+        assert check(G);
+    }
+
+    // an int whose signed order is the order of the weights rounded to float
+    private static int sortable(double weight) {
+        int bits = Float.floatToIntBits((float) weight);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+
+    private static int edgeOf(long key) {
+        return (int) key;
+    }
+
+    // order of edges i and j by weight, then by number
+    private int compare(int i, int j) {
+        int cmp = Double.compare(weights[i], weights[j]);
+        return cmp != 0 ? cmp : Integer.compare(i, j);
+    }
+
+    private boolean connected(int i) {
+        return uf.find((int) (ends[i] >>> 32)) == uf.find((int) ends[i]);
+    }
+
+    private void filterKruskal(int lo, int hi) {
+        while (hi - lo > base) {
+            if (mst.size() == V - 1) return;
+            int pivot = pivot(lo, hi);
+            int mid = split(lo, hi, i -> compare(i, pivot) <= 0, true);
+            filterKruskal(lo, mid);
+            if (mst.size() == V - 1) return;
+            // no unions happen while filtering, so the concurrent find() calls only compress paths: every value they
+            // write into the parent array is an ancestor, and every value they read leads to the right root
+            hi = split(mid, hi, i -> !connected(i), false);
+            lo = mid;
+        }
+        kruskal(lo, hi);
+    }
+
+    // median of the first, middle and last edge of the range; the edges are distinct, so both sides are non-empty
+    private int pivot(int lo, int hi) {
+        int a = edgeOf(keys[lo]);
+        int b = edgeOf(keys[(lo + hi) >>> 1]);
+        int c = edgeOf(keys[hi - 1]);
+        if (compare(a, b) > 0) {
+            int temp = a;
+            a = b;
+            b = temp;
+        }
+        if (compare(b, c) <= 0) return b;
+        return compare(a, c) >= 0 ? a : c;
+    }
+
+    // sort the range, then run Kruskal's algorithm over it
+    private void kruskal(int lo, int hi) {
+        Arrays.parallelSort(keys, lo, hi);
+        fixTies(lo, hi);
+        for (int k = lo; k < hi && mst.size() < V - 1; k++) {
+            int i = edgeOf(keys[k]);
+            int v = (int) (ends[i] >>> 32);
+            int w = (int) ends[i];
+            if (uf.find(v) == uf.find(w)) {
+                continue;
+            }
+            uf.union(v, w);
+            mst.enqueue(edges[i]);
+            weight += weights[i];
+        }
+    }
+
+    // keys with the same float weight are ordered by number; put every such run in the exact (weight, number) order
+    private void fixTies(int lo, int hi) {
+        for (int start = lo; start < hi; ) {
+            int end = start + 1;
+            while (end < hi && (keys[end] >>> 32) == (keys[start] >>> 32)) {
+                end++;
+            }
+            boolean sorted = true;
+            for (int k = start + 1; k < end && sorted; k++) {
+                sorted = compare(edgeOf(keys[k - 1]), edgeOf(keys[k])) < 0;
+            }
+            if (!sorted) {
+                Integer[] run = new Integer[end - start];
+                for (int k = start; k < end; k++) {
+                    run[k - start] = edgeOf(keys[k]);
+                }
+                Arrays.sort(run, this::compare);
+                for (int k = start; k < end; k++) {
+                    keys[k] = (keys[k] & 0xffffffff00000000L) | run[k - start];
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Moves the keys of [lo, hi) whose edge passes the test to the front of the range, in their original order.
+     * The other keys follow them if keepRest is true, and are dropped otherwise.
+     * @return the end of the keys that passed
+     */
+    private int split(int lo, int hi, IntPredicate test, boolean keepRest) {
+        if (hi - lo < PARALLEL_SPLIT) {
+            int passed = lo;
+            int failed = lo;
+            for (int k = lo; k < hi; k++) {
+                if (test.test(edgeOf(keys[k]))) keys[passed++] = keys[k];
+                else buffer[failed++] = keys[k];
+            }
+            if (keepRest) System.arraycopy(buffer, lo, keys, passed, failed - lo);
+            return passed;
+        }
+
+        int blocks = (hi - lo + BLOCK - 1) / BLOCK;
+        int[] counts = new int[blocks + 1];
+        new Split(lo, hi, 0, blocks, test, counts, true, keepRest, 0).invoke();
+        // counts[b] becomes the number of passing keys in the blocks before b
+        int sum = 0;
+        for (int b = 0; b <= blocks; b++) {
+            int count = counts[b];
+            counts[b] = sum;
+            sum += count;
+        }
+        int passed = lo + counts[blocks];
+        new Split(lo, hi, 0, blocks, test, counts, false, keepRest, passed).invoke();
+        int end = keepRest ? hi : passed;
+        new Copy(lo, end).invoke();
+        return passed;
+    }
+
+    // counts the passing keys of every block in [bLo, bHi) of [lo, hi), or writes the keys of those blocks to buffer
+    private class Split extends RecursiveAction {
+        private final int lo, hi, bLo, bHi;
+        private final IntPredicate test;
+        private final int[] counts;
+        private final boolean count;            // count the passing keys, or write them?
+        private final boolean keepRest;
+        private final int passed;               // end of the passing keys in buffer
+
+        Split(int lo, int hi, int bLo, int bHi, IntPredicate test, int[] counts, boolean count, boolean keepRest,
+              int passed) {
+            this.lo = lo;
+            this.hi = hi;
+            this.bLo = bLo;
+            this.bHi = bHi;
+            this.test = test;
+            this.counts = counts;
+            this.count = count;
+            this.keepRest = keepRest;
+            this.passed = passed;
+        }
+
+        protected void compute() {
+            if (bHi - bLo > 1) {
+                int mid = (bLo + bHi) >>> 1;
+                invokeAll(new Split(lo, hi, bLo, mid, test, counts, count, keepRest, passed),
+                          new Split(lo, hi, mid, bHi, test, counts, count, keepRest, passed));
+                return;
+            }
+            int start = lo + bLo * BLOCK;
+            int end = Math.min(hi, start + BLOCK);
+            if (count) {
+                int n = 0;
+                for (int k = start; k < end; k++) {
+                    if (test.test(edgeOf(keys[k]))) n++;
+                }
+                counts[bLo] = n;
+                return;
+            }
+            // passing keys go to buffer[lo + counts[b] ...], the others after all passing keys
+            int p = lo + counts[bLo];
+            int f = passed + (start - lo) - counts[bLo];
+            for (int k = start; k < end; k++) {
+                if (test.test(edgeOf(keys[k]))) buffer[p++] = keys[k];
+                else if (keepRest) buffer[f++] = keys[k];
+            }
+        }
+    }
+
+    // copies buffer[lo, hi) back to keys[lo, hi)
+    private class Copy extends RecursiveAction {
+        private final int lo, hi;
+
+        Copy(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > PARALLEL_SPLIT) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Copy(lo, mid), new Copy(mid, hi));
+                return;
+            }
+            System.arraycopy(buffer, lo, keys, lo, hi - lo);
+        }
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    public Iterable<Edge> edges() {
+        return mst;
+    }
+
+    // check that the weight is the same as the one found by KruskalMST
+    private boolean check(EdgeWeightedGraph G) {
+        double expected = new KruskalMST(G).weight();
+        if (Math.abs(weight() - expected) > FLOATING_POINT_EPSILON * Math.max(1.0, expected)) {
+            System.err.printf("Weight of edges does not equal weight(): %f vs. %f\n", weight(), expected);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prints the MST of the graph in a file: java FilterKruskalMST tinyEWG.txt
+     * or times it against KruskalMST on a random graph with 1 to N threads: java FilterKruskalMST V E [maxThreads] [seed]
+     */
+    public static void main(String[] args) {
+        if (args.length == 1) {
+            In in = new In(args[0]);
+            EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+            FilterKruskalMST mst = new FilterKruskalMST(G);
+            for (Edge e : mst.edges()) {
+                System.out.println(e);
+            }
+            System.out.printf("%.5f\n", mst.weight());
+            return;
+        }
+
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        if (args.length > 3) {
+            MattyRandom.setSeed(Long.parseLong(args[3]));
+        }
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int i = 0; i < E; i++) {
+            G.addEdge(new Edge(MattyRandom.uniform(V), MattyRandom.uniform(V), MattyRandom.uniform()));
+        }
+
+        long start = System.nanoTime();
+        KruskalMST expected = new KruskalMST(G);
+        double sequential = (System.nanoTime() - start) / 1e9;
+        System.out.printf("KruskalMST:            %8.3f s%n", sequential);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            start = System.nanoTime();
+            FilterKruskalMST mst = new FilterKruskalMST(G, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+            if (Math.abs(mst.weight() - expected.weight()) > FLOATING_POINT_EPSILON * Math.max(1.0, expected.weight())) {
+                throw new IllegalStateException("weight " + mst.weight() + ", expected " + expected.weight());
+            }
+            System.out.printf("FilterKruskalMST %2d:   %8.3f s  speedup %.2f%n", threads, seconds, sequential / seconds);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 图的二进制文件格式：
+ *
+ * 文本格式（V、E和E对顶点）每次加载都要用In一个词一个词地解析，再一条边一条边地加到邻接表中，图很大时要几分钟，
+ * 而且解析过程中需要的堆内存是最终结果的好几倍。
+ * 二进制文件直接保存CSR表示（见CSRGraphic），MappedGraphic用FileChannel.map()把文件映射到内存，
+ * 邻接表直接从映射的缓冲区中读取，不需要解析，也不需要复制到堆中，打开一个文件的时间与图的大小无关。
+ *
+ * 文件的布局（所有的数都是小端序，每一段都按8字节对齐）：
+ *
+ *     偏移      类型               内容
+ *     0         int                MAGIC
+ *     4         int                VERSION
+ *     8         int                flags：DIRECTED | WEIGHTED
+ *     12        int                V
+ *     16        long               E，边数
+ *     24        long               A，邻接表的总长度（有向图中是E，无向图中是2E，自环在它的顶点的邻接表中出现两次）
+ *     32        long[V + 1]        offsets：顶点v的邻接表是targets[offsets[v]]到targets[offsets[v + 1] - 1]
+ *     ...       int[A]             targets，按8字节补齐
+ *     ...       double[A]          weights，只有加权图才有，weights[i]是targets[i]这条边的权重
+ *
+ * offsets是long，所以邻接表的总长度可以超过2^31。
+ * 邻接表中顶点的顺序与内存中的图adj(v)返回的顺序相同。
+ */
+
+public class GraphFile {
+
+    public static final int MAGIC = 0x46524741;         // "AGRF" in little endian
+    public static final int VERSION = 1;
+    public static final int DIRECTED = 1;
+    public static final int WEIGHTED = 2;
+    public static final int HEADER_BYTES = 32;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private GraphFile() {}
+
+    /**
+     * @return the byte offset of the targets section in a file with V vertexes
+     */
+    static long targetsStart(int V) {
+        return HEADER_BYTES + 8L * (V + 1);
+    }
+
+    /**
+     * @return the byte offset of the weights section in a file with V vertexes and A adjacency entries
+     */
+    static long weightsStart(int V, long A) {
+        return align(targetsStart(V) + 4 * A);
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * Writes the undirected graph G to a binary graph file
+     * @param G the graph
+     * @param filename the name of the file
+     */
+    public static void write(Graphic G, String filename) {
+        write(G, G.E(), false, filename);
+    }
+
+    /**
+     * Writes the directed graph G to a binary graph file
+     * @param G the graph
+     * @param filename the name of the file
+     */
+    public static void write(DirectGraph G, String filename) {
+        write(G, G.E(), true, filename);
+    }
+
+    /**
+     * Writes the CSR graph G to a binary graph file
+     * @param G the graph
+     * @param filename the name of the file
+     */
+    public static void write(CSRGraphic G, String filename) {
+        write(G, G.E(), G.isDirected(), filename);
+    }
+
+    private static void write(IntGraph G, long E, boolean directed, String filename) {
+        int V = G.V();
+        try (Output out = new Output(filename)) {
+            long A = 0;
+            for (int v = 0; v < V; v++) {
+                A += G.degree(v);
+            }
+            out.header(directed ? DIRECTED : 0, V, E, A);
+            long offset = 0;
+            for (int v = 0; v < V; v++) {
+                out.putLong(offset);
+                offset += G.degree(v);
+            }
+            out.putLong(offset);
+            for (int v = 0; v < V; v++) {
+                for (int i = 0, d = G.degree(v); i < d; i++) {
+                    out.putInt(G.neighbor(v, i));
+                }
+            }
+            out.align();
+        }
+    }
+
+    /**
+     * Writes the edge-weighted graph G to a binary graph file.
+     * Every edge v-w appears in the adjacency lists of both v and w, with its weight.
+     * @param G the graph
+     * @param filename the name of the file
+     */
+    public static void write(EdgeWeightedGraph G, String filename) {
+        int V = G.V();
+        try (Output out = new Output(filename)) {
+            long A = 0;
+            for (int v = 0; v < V; v++) {
+                A += G.degree(v);
+            }
+            out.header(WEIGHTED, V, G.E(), A);
+            long offset = 0;
+            for (int v = 0; v < V; v++) {
+                out.putLong(offset);
+                offset += G.degree(v);
+            }
+            out.putLong(offset);
+            for (int v = 0; v < V; v++) {
+                for (Edge e : G.adj(v)) {
+                    out.putInt(e.other(v));
+                }
+            }
+            out.align();
+            for (int v = 0; v < V; v++) {
+                for (Edge e : G.adj(v)) {
+                    out.putDouble(e.weight());
+                }
+            }
+        }
+    }
+
+    // a little-endian stream of numbers into a file, written through one reused buffer
+    private static class Output implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Output(String filename) {
+            try {
+                channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("could not open " + filename, e);
+            }
+        }
+
+        void header(int flags, int V, long E, long A) {
+            putInt(MAGIC);
+            putInt(VERSION);
+            putInt(flags);
+            putInt(V);
+            putLong(E);
+            putLong(A);
+        }
+
+        void putInt(int x) {
+            reserve(4);
+            buffer.putInt(x);
+        }
+
+        void putLong(long x) {
+            reserve(8);
+            buffer.putLong(x);
+        }
+
+        void putDouble(double x) {
+            reserve(8);
+            buffer.putDouble(x);
+        }
+
+        void align() {
+            while ((position + buffer.position()) % 8 != 0) {
+                reserve(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        private void reserve(int bytes) {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer);
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+
+        public void close() {
+            flush();
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Converts a text graph file to the binary format:
+     * java GraphFile graph|digraph|weighted input.txt output.bin
+     */
+    public static void main(String[] args) {
+        String kind = args[0];
+        long start = System.nanoTime();
+        In in = new In(args[1]);
+        switch (kind) {
+            case "graph":
+                write(new Graphic(in), args[2]);
+                break;
+            case "digraph":
+                write(new DirectGraph(in), args[2]);
+                break;
+            case "weighted":
+                write(new EdgeWeightedGraph(in), args[2]);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown graph kind: " + kind);
+        }
+        System.out.printf("converted %s to %s in %.3f s%n", args[1], args[2], (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,504 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 快速读取文本格式的图文件（与Graphic(In)、DirectGraph(In)、EdgeWeightedGraph(In)读取的格式相同）：
+ * 顶点数V，边数E，然后是E条边"v w"，加权图是"v w weight"。和In一样，这些数之间可以是任意的空白，
+ * 通常每行一条边，但一条边分成几行、一行写几条边也可以。唯一的区别是文件头之后必须正好是E条边，
+ * In读完第E条边之后会忽略剩下的内容，这里会报错。
+ *
+ * In的readInt()和readDouble()经过Scanner，每个数都要先用正则表达式切出一个String再解析，大文件要几分钟。
+ * 这里：
+ * - 用FileChannel按大块 (BUFFER_BYTES) 把文件读入byte[]，直接在字节上解析整数和浮点数，不创建任何String；
+ * - 读完文件头之后，把剩下的部分在空白处切分成若干段，先并行地数出每段有多少个数，
+ *   再把每个切分点往后移过几个数，使它落在一条边的开头（第2k个数之前，加权图是第3k个），各段就只包含完整的边，
+ *   然后交给ForkJoinPool中的任务并行解析，每段得到自己的边数组；数数只是扫描一遍字节，比解析快得多；
+ * - 最后按文件中的顺序把各段的边加入图中，所以得到的图（包括每个邻接表中顶点的顺序）与In构造的图完全相同。
+ * 一个文件被接受还是拒绝与它分成几段无关。
+ *
+ * 浮点数先按十进制尾数和指数解析，尾数不超过15位、指数不超过22时，尾数和10的幂都能精确地表示为double，
+ * 一次乘法或除法的结果就是正确舍入的值，与Double.parseDouble()相同；其余少见的情况交给Double.parseDouble()。
+ */
+
+public class GraphReader {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int MARGIN = 1 << 10;          // refill the buffer when fewer bytes than this are left
+    private static final int MIN_SPLIT = 1 << 22;       // smallest part of the file given to one task, in bytes
+    private static final double[] POWERS_OF_10 = new double[23];
+
+    static {
+        POWERS_OF_10[0] = 1;
+        for (int i = 1; i < POWERS_OF_10.length; i++) {
+            POWERS_OF_10[i] = POWERS_OF_10[i - 1] * 10;
+        }
+    }
+
+    private GraphReader() {}
+
+    /**
+     * Reads an undirected graph, the same as new Graphic(new In(filename))
+     * @param filename the name of the file
+     * @return the graph
+     */
+    public static Graphic readGraphic(String filename) {
+        return readGraphic(filename, ForkJoinPool.commonPool());
+    }
+
+    public static Graphic readGraphic(String filename, ForkJoinPool pool) {
+        return readGraphic(filename, pool, MIN_SPLIT);
+    }
+
+    // minSplit is the smallest part of the file given to one task; the tests make it small to split small files
+    static Graphic readGraphic(String filename, ForkJoinPool pool, int minSplit) {
+        EdgeList edges = parse(filename, false, pool, minSplit);
+        Graphic G = new Graphic(edges.V);
+        for (Part part : edges.parts) {
+            for (int i = 0; i < part.n; i++) {
+                G.addEdge(part.from[i], part.to[i]);
+            }
+        }
+        return G;
+    }
+
+    /**
+     * Reads a directed graph, the same as new DirectGraph(new In(filename))
+     * @param filename the name of the file
+     * @return the graph
+     */
+    public static DirectGraph readDirectGraph(String filename) {
+        return readDirectGraph(filename, ForkJoinPool.commonPool());
+    }
+
+    public static DirectGraph readDirectGraph(String filename, ForkJoinPool pool) {
+        EdgeList edges = parse(filename, false, pool, MIN_SPLIT);
+        DirectGraph G = new DirectGraph(edges.V);
+        for (Part part : edges.parts) {
+            for (int i = 0; i < part.n; i++) {
+                G.addEdge(part.from[i], part.to[i]);
+            }
+        }
+        return G;
+    }
+
+    /**
+     * Reads an edge-weighted graph, the same as new EdgeWeightedGraph(new In(filename))
+     * @param filename the name of the file
+     * @return the graph
+     */
+    public static EdgeWeightedGraph readEdgeWeightedGraph(String filename) {
+        return readEdgeWeightedGraph(filename, ForkJoinPool.commonPool());
+    }
+
+    public static EdgeWeightedGraph readEdgeWeightedGraph(String filename, ForkJoinPool pool) {
+        return readEdgeWeightedGraph(filename, pool, MIN_SPLIT);
+    }
+
+    static EdgeWeightedGraph readEdgeWeightedGraph(String filename, ForkJoinPool pool, int minSplit) {
+        EdgeList edges = parse(filename, true, pool, minSplit);
+        EdgeWeightedGraph G = new EdgeWeightedGraph(edges.V);
+        for (Part part : edges.parts) {
+            for (int i = 0; i < part.n; i++) {
+                G.addEdge(new Edge(part.from[i], part.to[i], part.weights[i]));
+            }
+        }
+        return G;
+    }
+
+    /**
+     * Reads a graph straight into CSR form, the same as new CSRGraphic(new In(filename), directed),
+     * without building the adjacency lists of a Graphic or DirectGraph first
+     * @param filename the name of the file
+     * @param directed true to read the edges as directed edges v -> w, false to read them as undirected edges v-w
+     * @return the graph
+     */
+    public static CSRGraphic readCSRGraphic(String filename, boolean directed) {
+        return readCSRGraphic(filename, directed, ForkJoinPool.commonPool());
+    }
+
+    public static CSRGraphic readCSRGraphic(String filename, boolean directed, ForkJoinPool pool) {
+        EdgeList edges = parse(filename, false, pool, MIN_SPLIT);
+        int[] from = new int[edges.E];
+        int[] to = new int[edges.E];
+        int k = 0;
+        for (Part part : edges.parts) {
+            System.arraycopy(part.from, 0, from, k, part.n);
+            System.arraycopy(part.to, 0, to, k, part.n);
+            k += part.n;
+        }
+        return new CSRGraphic(edges.V, from, to, directed);
+    }
+
+    // the header and the edges of a file, in file order
+    private static class EdgeList {
+        private final int V, E;
+        private final List<Part> parts;
+
+        EdgeList(int V, int E, List<Part> parts) {
+            this.V = V;
+            this.E = E;
+            this.parts = parts;
+        }
+    }
+
+    private static EdgeList parse(String filename, boolean weighted, ForkJoinPool pool, int minSplit) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            Part header = new Part(channel, 0, size, weighted);
+            header.fill();
+            int V = header.readHeaderInt();
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
+            int E = header.readHeaderInt();
+            if (E < 0) throw new IllegalArgumentException("Number of edges must be non-negative.");
+            long start = header.position();
+
+            // split the rest at edge boundaries, a few parts per thread
+            int count = (int) Math.max(1, Math.min(4L * pool.getParallelism(), (size - start) / minSplit));
+            long[] bounds = split(channel, start, size, count, weighted ? 3 : 2, pool);
+            List<Part> parts = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (bounds[i + 1] > bounds[i]) {
+                    parts.add(new Part(channel, bounds[i], bounds[i + 1], weighted));
+                }
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(parts)));
+
+            long total = 0;
+            for (Part part : parts) {
+                total += part.n;
+            }
+            if (total != E) {
+                throw new IllegalArgumentException("invalid input format: expected " + E + " edges, found " + total);
+            }
+            for (Part part : parts) {
+                for (int i = 0; i < part.n; i++) {
+                    if (part.from[i] >= V || part.to[i] >= V) {
+                        int v = part.from[i] >= V ? part.from[i] : part.to[i];
+                        throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+                    }
+                }
+            }
+            return new EdgeList(V, E, parts);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("could not read " + filename, e);
+        }
+    }
+
+    // splits [start, size) into count parts with whole edges of k tokens each: part i is [bounds[i], bounds[i + 1])
+    // the bytes are first cut at whitespace into parts of about the same length, then every cut is moved past
+    // the few tokens that separate it from the start of the next edge, as counted by the parts before it
+    private static long[] split(FileChannel channel, long start, long size, int count, int k, ForkJoinPool pool) throws IOException {
+        long[] bounds = new long[count + 1];
+        bounds[0] = start;
+        bounds[count] = size;
+        if (count == 1) return bounds;
+        for (int i = 1; i < count; i++) {
+            bounds[i] = Math.max(bounds[i - 1], whitespace(channel, start + (size - start) / count * i, size));
+        }
+
+        long[] tokens = new long[count];
+        List<ForkJoinTask<?>> counters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final int part = i;
+            counters.add(ForkJoinTask.adapt(() -> {
+                tokens[part] = new Part(channel, bounds[part], bounds[part + 1], false).countTokens();
+            }));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(counters)));
+
+        long before = 0;                        // tokens before the cut bounds[i]
+        for (int i = 1; i < count; i++) {
+            before += tokens[i - 1];
+            int skip = (int) ((k - before % k) % k);
+            bounds[i] = Math.max(bounds[i - 1], skipTokens(channel, bounds[i], skip, size));
+        }
+        return bounds;
+    }
+
+    // the position of the first whitespace byte at or after position, or size
+    private static long whitespace(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) <= ' ') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // the position just after the next count tokens from position, or size if there are fewer
+    private static long skipTokens(FileChannel channel, long position, int count, long size) throws IOException {
+        if (count == 0) return position;
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        boolean inToken = false;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                boolean space = buffer.get(i) <= ' ';
+                if (space && inToken && --count == 0) {
+                    return position + i;
+                }
+                inToken = !space;
+            }
+            position += read;
+        }
+        return count == 0 ? position : size;
+    }
+
+    // parses the edges of the bytes [start, end) of the file
+    private static class Part extends RecursiveAction {
+        private final FileChannel channel;
+        private final long end;
+        private final boolean weighted;
+        private long filePosition;              // next byte of the file to read into the buffer
+        private byte[] buffer;
+        private int pos, limit;                 // unparsed bytes are buffer[pos, limit)
+
+        private int n;                          // number of edges parsed
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private double[] weights;
+
+        Part(FileChannel channel, long start, long end, boolean weighted) {
+            this.channel = channel;
+            this.filePosition = start;
+            this.end = end;
+            this.weighted = weighted;
+        }
+
+        protected void compute() {
+            fill();
+            if (weighted) weights = new double[from.length];
+            while (skipWhitespace()) {
+                if (n == from.length) {
+                    from = Arrays.copyOf(from, 2 * n);
+                    to = Arrays.copyOf(to, 2 * n);
+                    if (weighted) weights = Arrays.copyOf(weights, 2 * n);
+                }
+                from[n] = readVertex();
+                to[n] = readVertex();
+                if (weighted) weights[n] = readDouble();
+                n++;
+            }
+            buffer = null;
+        }
+
+        // the number of tokens in the part, without parsing them
+        long countTokens() {
+            long tokens = 0;
+            int space = 1;                      // 1 if the byte before is whitespace, 0 if not
+            while (true) {
+                fill();
+                int starts = 0;
+                for (int i = pos; i < limit; i++) {
+                    // without a branch: a token starts where a whitespace byte (<= ' ') is followed by another byte
+                    int next = (buffer[i] - (' ' + 1)) >>> 31;
+                    starts += space & ~next;
+                    space = next;
+                }
+                tokens += starts;
+                pos = limit;
+                if (filePosition >= end) break;
+            }
+            buffer = null;
+            return tokens;
+        }
+
+        void fill() {
+            if (buffer == null) buffer = new byte[BUFFER_BYTES];
+            if (limit - pos >= MARGIN || filePosition >= end) return;
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+            ByteBuffer target = ByteBuffer.wrap(buffer, limit, (int) Math.min(buffer.length - limit, end - filePosition));
+            try {
+                while (target.hasRemaining()) {
+                    int read = channel.read(target, filePosition);
+                    if (read < 0) break;
+                    filePosition += read;
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            limit = target.position();
+        }
+
+        // the position in the file of the next unparsed byte
+        long position() {
+            return filePosition - (limit - pos);
+        }
+
+        // skip to the next token, return false at the end of the part
+        private boolean skipWhitespace() {
+            while (true) {
+                fill();
+                while (pos < limit && buffer[pos] <= ' ') {
+                    pos++;
+                }
+                if (pos < limit) return true;
+                if (filePosition >= end) return false;
+            }
+        }
+
+        int readHeaderInt() {
+            if (!skipWhitespace()) throw new IllegalArgumentException("invalid input format: missing header");
+            return readInt();
+        }
+
+        private int readVertex() {
+            if (!skipWhitespace()) throw new IllegalArgumentException("invalid input format: incomplete edge");
+            int v = readInt();
+            if (v < 0) throw new IllegalArgumentException("vertex " + v + " is negative");
+            return v;
+        }
+
+        private int readInt() {
+            fill();
+            boolean negative = buffer[pos] == '-';
+            if (negative || buffer[pos] == '+') pos++;
+            long value = 0;
+            int digits = 0;
+            while (pos < limit && buffer[pos] >= '0' && buffer[pos] <= '9') {
+                value = 10 * value + (buffer[pos++] - '0');
+                if (value > Integer.MAX_VALUE + 1L) throw new IllegalArgumentException("invalid input format: int overflow");
+                digits++;
+            }
+            if (digits == 0 || (pos < limit && buffer[pos] > ' ')) {
+                throw new IllegalArgumentException("invalid input format: not an int at byte " + position());
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) throw new IllegalArgumentException("invalid input format: int overflow");
+            return (int) value;
+        }
+
+        private double readDouble() {
+            if (!skipWhitespace()) throw new IllegalArgumentException("invalid input format: missing weight");
+            int start = pos;
+            while (pos < limit && buffer[pos] > ' ') {
+                pos++;
+            }
+            double value = parseDouble(buffer, start, pos);
+            if (Double.isNaN(value)) {
+                // not a plain decimal number, or too many digits for the exact fast path
+                String token = new String(buffer, start, pos - start, StandardCharsets.US_ASCII);
+                try {
+                    return Double.parseDouble(token);
+                }
+                catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("invalid input format: not a double: " + token, e);
+                }
+            }
+            return value;
+        }
+    }
+
+    // the value of the decimal number in bytes [start, end), or NaN if it can't be converted exactly here
+    private static double parseDouble(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;                    // digits in mantissa, not counting leading zeros
+        int exponent = 0;
+        int digits = 0;
+        boolean point = false;
+        for (; i < end; i++) {
+            byte c = bytes[i];
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa != 0 || c != '0') {
+                    if (++significant > 15) return Double.NaN;
+                    mantissa = 10 * mantissa + (c - '0');
+                }
+                if (point) exponent--;
+            }
+            else if (c == '.' && !point) {
+                point = true;
+            }
+            else {
+                break;
+            }
+        }
+        if (digits == 0) return Double.NaN;
+        if (i < end) {
+            if (bytes[i] != 'e' && bytes[i] != 'E') return Double.NaN;
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            if (i == end) return Double.NaN;
+            int e = 0;
+            for (; i < end; i++) {
+                if (bytes[i] < '0' || bytes[i] > '9' || e > 1000) return Double.NaN;
+                e = 10 * e + (bytes[i] - '0');
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        double value;
+        if (mantissa == 0) value = 0;
+        else if (exponent >= 0 && exponent < POWERS_OF_10.length) value = mantissa * POWERS_OF_10[exponent];
+        else if (exponent < 0 && -exponent < POWERS_OF_10.length) value = mantissa / POWERS_OF_10[-exponent];
+        else return Double.NaN;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Times GraphReader against the In constructors on a text graph file:
+     * java GraphReader graph|digraph|weighted file.txt
+     */
+    public static void main(String[] args) {
+        String kind = args[0];
+        String filename = args[1];
+        double megabytes = new java.io.File(filename).length() / 1e6;
+
+        long start = System.nanoTime();
+        switch (kind) {
+            case "graph":    new Graphic(new In(filename)); break;
+            case "digraph":  new DirectGraph(new In(filename)); break;
+            case "weighted": new EdgeWeightedGraph(new In(filename)); break;
+            default: throw new IllegalArgumentException("unknown graph kind: " + kind);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("In:          %8.3f s  %8.1f MB/s%n", seconds, megabytes / seconds);
+
+        start = System.nanoTime();
+        switch (kind) {
+            case "graph":    readGraphic(filename); break;
+            case "digraph":  readDirectGraph(filename); break;
+            case "weighted": readEdgeWeightedGraph(filename); break;
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("GraphReader: %8.3f s  %8.1f MB/s%n", seconds, megabytes / seconds);
+    }
+}
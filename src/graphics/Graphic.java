@@ -5,30 +5,30 @@ package graphics;
  * 我们使用这个数组就是为了快速访问给定顶点的邻接顶点列表。
  */
 
-import edu.princeton.cs.algs4.Bag;
 import edu.princeton.cs.algs4.In;
-import edu.princeton.cs.algs4.Stack;
 import edu.princeton.cs.algs4.StdOut;
+import util.IntBag;
 
 import java.util.NoSuchElementException;
 
-public class Graphic {
+public class Graphic implements IntGraph {
 
     private static final String NEWLINE = System.getProperty("line.separator");
 
     private final int V;                    // Number of vertexes
     private int E;                          // Number of edges
-    private Bag<Integer>[] adj;             // All the vertexes that are adjacent to vertex V
-                                            // This is a Bag[], the number of the array is the same as the number of vertexes
+    private IntBag[] adj;                   // All the vertexes that are adjacent to vertex V
+                                            // This is an IntBag[], the number of the array is the same as the number of vertexes
+    private EdgeListener[] listeners = EdgeListeners.NONE;   // notified after every addEdge()
 
     public Graphic(int V) {
         if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
         this.V = V;
         this.E = 0;
-        // Each vertex has a Bag<Integer> as its adjacent vertices.
-        adj = (Bag<Integer>[]) new Bag[V];
+        // Each vertex has an IntBag as its adjacent vertices.
+        adj = new IntBag[V];
         for (int v = 0; v < V; v++) {
-            adj[v] = new Bag<Integer>();
+            adj[v] = new IntBag();
         }
     }
 
@@ -37,9 +37,9 @@ public class Graphic {
         try {
             this.V = in.readInt();
             if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
-            adj = (Bag<Integer>[]) new Bag[V];
+            adj = new IntBag[V];
             for (int v = 0; v < V; v++) {
-                adj[v] = new Bag<Integer>();
+                adj[v] = new IntBag();
             }
 
             int E = in.readInt();
@@ -62,19 +62,13 @@ public class Graphic {
         if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
 
         // update adjacency lists
-        adj = (Bag<Integer>[]) new Bag[V];
-        for (int v = 0; v < V; v++) {
-            adj[v] = new Bag<Integer>();
-        }
-
+        // add in reverse iteration order so that the copy iterates in the same order as G
+        adj = new IntBag[V];
         for (int v = 0; v < G.V(); v++) {
-            Stack<Integer> reverse = new Stack<>();
-            for (int w : G.adj[v]) {
-                reverse.push(w);
-            }
-
-            for (int w : reverse) {
-                adj[v].add(w);
+            int degree = G.adj[v].size();
+            adj[v] = new IntBag(degree);
+            for (int i = degree - 1; i >= 0; i--) {
+                adj[v].add(G.adj[v].get(i));
             }
         }
     }
@@ -97,6 +91,24 @@ public class Graphic {
         E++;
         adj[v].add(w);
         adj[w].add(v);
+        for (EdgeListener listener : listeners) {
+            listener.edgeAdded(v, w);
+        }
+    }
+
+    /**
+     * Registers a listener that is told about every edge added from now on; a copy of the graph does not inherit it
+     * @param listener the listener
+     */
+    public void addEdgeListener(EdgeListener listener) {
+        listeners = EdgeListeners.add(listeners, listener);
+    }
+
+    /**
+     * @param listener a listener registered by addEdgeListener()
+     */
+    public void removeEdgeListener(EdgeListener listener) {
+        listeners = EdgeListeners.remove(listeners, listener);
     }
 
     /**
@@ -135,6 +147,26 @@ public class Graphic {
         return adj[v].size();
     }
 
+    /**
+     * Returns the i-th vertex adjacent to v, in the same order as adj(v), without boxing it
+     * @param v vertex
+     * @param i index between 0 and degree(v) - 1
+     * @return the i-th vertex adjacent to v
+     */
+    public int neighbor(int v, int i) {
+        validateVertex(v);
+        return adj[v].get(i);
+    }
+
+    /**
+     * Freezes this graph into an immutable compressed sparse row representation,
+     * which stores every adjacency list in one int[] array.
+     * @return a CSRGraphic with the same vertexes, edges and adjacency order as this graph
+     */
+    public CSRGraphic freeze() {
+        return new CSRGraphic(this);
+    }
+
     public String toString() {
         StringBuilder result = new StringBuilder();
         result.append(V + " vertices; " + E + " edges " + NEWLINE);
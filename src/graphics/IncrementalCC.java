@@ -0,0 +1,160 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.MattyRandom;
+import util.UF;
+
+/**
+ * 动态连通性（只插入边）：
+ * MyCC和DeepFirstSearch给出的是某一时刻的图的连通分量，图中每加入一条边，都要重新遍历整幅图才能回答connected()。
+ * 在只会加入边、不会删除边的情况下，这正是union-find要解决的问题：
+ * IncrementalCC注册为图的EdgeListener，每次addEdge(v, w)都执行一次uf.union(v, w)，
+ * 按秩合并加上路径压缩，每次插入和查询的均摊成本接近常数 (O(α(V)))，而count()直接就是uf中的分量数。
+ *
+ * 对DirectGraph，边的方向被忽略，得到的是弱连通分量（union-find无法增量地维护强连通分量，那要用TarjanSCC重新计算）。
+ *
+ * id(v)是v所在分量的根顶点，同一个分量中的顶点的id相同，但是它不在0到count() - 1之间，而且合并之后可能会改变；
+ * 需要稳定的编号时，用MyCC对某一时刻的图重新计算。
+ * 不是线程安全的：addEdge()和查询要在同一个线程中，或者由调用者加锁。
+ */
+
+public class IncrementalCC implements EdgeListener {
+
+    private final UF uf;
+    private final Graphic graphic;          // the graph the listener is registered on, exactly one of the two is not null
+    private final DirectGraph digraph;
+
+    /**
+     * Computes the connected components of G and keeps them current as edges are added to G
+     * @param G the undirected graphic
+     */
+    public IncrementalCC(Graphic G) {
+        if (G == null) throw new IllegalArgumentException("G is null");
+        uf = unionAll(G);
+        graphic = G;
+        digraph = null;
+        G.addEdgeListener(this);
+    }
+
+    /**
+     * Computes the weakly connected components of G (the direction of the edges is ignored)
+     * and keeps them current as edges are added to G
+     * @param G the direct graph
+     */
+    public IncrementalCC(DirectGraph G) {
+        if (G == null) throw new IllegalArgumentException("G is null");
+        uf = unionAll(G);
+        graphic = null;
+        digraph = G;
+        G.addEdgeListener(this);
+    }
+
+    // union-find over the edges G already has
+    private static UF unionAll(IntGraph G) {
+        UF uf = new UF(G.V());
+        for (int v = 0; v < G.V(); v++) {
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                uf.union(v, G.neighbor(v, i));
+            }
+        }
+        return uf;
+    }
+
+    public void edgeAdded(int v, int w) {
+        uf.union(v, w);
+    }
+
+    /**
+     * Stops following the graph; the components stay those of the graph at this moment
+     */
+    public void detach() {
+        if (graphic != null) graphic.removeEdgeListener(this);
+        else digraph.removeEdgeListener(this);
+    }
+
+    private void validateVertex(int v) {
+        int V = graphic != null ? graphic.V() : digraph.V();
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    /**
+     * @return the number of connected components in the graph
+     */
+    public int count() {
+        return uf.count();
+    }
+
+    /**
+     * @param v vertex
+     * @return the root vertex of the component containing v; it may change when an edge joins two components
+     */
+    public int id(int v) {
+        validateVertex(v);
+        return uf.find(v);
+    }
+
+    /**
+     * @param v vertex v
+     * @param w vertex w
+     * @return if the vertex v and w is connected
+     */
+    public boolean connected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return uf.connected(v, w);
+    }
+
+    /**
+     * Replays the edges of a graph file one by one and prints the number of components after each: java IncrementalCC tinyG.txt
+     * or adds E random edges to a graph with V vertexes, asks connected() after every edge,
+     * and checks the result against MyCC: java IncrementalCC V E [seed]
+     */
+    public static void main(String[] args) {
+        if (args.length == 1) {
+            In in = new In(args[0]);
+            Graphic G = new Graphic(in.readInt());
+            IncrementalCC cc = new IncrementalCC(G);
+            int E = in.readInt();
+            for (int i = 0; i < E; i++) {
+                int v = in.readInt();
+                int w = in.readInt();
+                G.addEdge(v, w);
+                System.out.println(v + "-" + w + "  " + cc.count() + " components");
+            }
+            return;
+        }
+
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        if (args.length > 2) {
+            MattyRandom.setSeed(Long.parseLong(args[2]));
+        }
+        Graphic G = new Graphic(V);
+        IncrementalCC cc = new IncrementalCC(G);
+        int connected = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < E; i++) {
+            G.addEdge(MattyRandom.uniform(V), MattyRandom.uniform(V));
+            if (cc.connected(MattyRandom.uniform(V), MattyRandom.uniform(V))) {
+                connected++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("IncrementalCC: %d edges and queries in %.3f s (%.0f ns each), %d components, %d queries connected%n",
+                E, seconds, seconds * 1e9 / Math.max(1, E), cc.count(), connected);
+
+        start = System.nanoTime();
+        MyCC expected = new MyCC(G);
+        System.out.printf("MyCC:          one traversal in %.3f s, %d components%n", (System.nanoTime() - start) / 1e9, expected.count());
+        if (cc.count() != expected.count()) {
+            throw new IllegalStateException(cc.count() + " components, expected " + expected.count());
+        }
+        for (int v = 1; v < V; v++) {
+            if (cc.connected(v - 1, v) != expected.connected(v - 1, v)) {
+                throw new IllegalStateException("vertexes " + (v - 1) + " and " + v + " disagree");
+            }
+        }
+    }
+}
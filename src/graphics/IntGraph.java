@@ -0,0 +1,35 @@
+package graphics;
+
+/**
+ * The IntGraph interface is the allocation-free way to visit the adjacency lists of a graph.
+ *
+ * adj(v) hands out an Iterable<Integer>, which costs an Iterator per visited vertex and an unboxing per edge.
+ * In a search that is the innermost loop, so the searches walk the adjacency lists with a cursor instead:
+ *
+ *     for (int i = 0, d = G.degree(v); i < d; i++) {
+ *         int w = G.neighbor(v, i);
+ *         ...
+ *     }
+ *
+ * neighbor(v, i) must return the vertexes in the same order as adj(v).
+ */
+public interface IntGraph {
+
+    /**
+     * @return the number of vertexes
+     */
+    int V();
+
+    /**
+     * @param v vertex
+     * @return the number of vertexes adjacent to v (the out degree of v in a directed graph)
+     */
+    int degree(int v);
+
+    /**
+     * @param v vertex
+     * @param i index into the adjacency list of v, between 0 and degree(v) - 1
+     * @return the i-th vertex adjacent to v
+     */
+    int neighbor(int v, int i);
+}
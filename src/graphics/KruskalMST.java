@@ -1,7 +1,8 @@
 package graphics;
 
 import edu.princeton.cs.algs4.In;
-import util.MinPQ;
+import util.DoubleMinPQ;
+import util.OffHeapArray;
 import util.Queue;
 import util.UF;
 
@@ -14,24 +15,35 @@ import util.UF;
  * 我们从一片由V棵单顶点的树构成的森林开始并不断地将两棵树合并（用可以找到的最短边）直到只剩下一棵树，这棵树就是最小生成树
  *
  * 用一个union-find数据结构来识别会形成环的边
+ *
+ * 优先队列中保存的是边在edges[]中的编号，以边的权重为键（DoubleMinPQ，4叉堆），比较时不需要解引用Edge对象
+ *
+ * 也可以在加权的WeightedIntGraph（例如堆外的OffHeapGraphic或映射的MappedGraphic）上运行，边数可以超过2^31：
+ * 边的权重和两个端点都保存在堆外的数组（OffHeapArray）中，每条边16个字节，权重转换成可以按long比较的键，
+ * 在堆外原地排序（三向切分的快速排序，递归太深时改用堆排序），再按顺序扫描一遍。
+ * 堆上只有与V成正比的union-find和最小生成树的V - 1个Edge对象，与边数无关。
  */
 
 public class KruskalMST {
 
     private static final double FLOAT_POINT_EPSILON = 1E-12;
+    private static final int INSERTION_SORT_CUTOFF = 16;
 
     private double weight;
     private Queue<Edge> mst = new Queue<>();
 
     public KruskalMST(EdgeWeightedGraph G) {
-        MinPQ<Edge> pq = new MinPQ<>();
+        Edge[] edges = new Edge[G.E()];
+        DoubleMinPQ pq = new DoubleMinPQ(G.E(), 4);
+        int i = 0;
         for (Edge e : G.edges()) {
-            pq.insert(e);
+            edges[i] = e;
+            pq.insert(e.weight(), i++);
         }
         UF uf = new UF(G.V());
         // loop will end when mst.size() == G.V() - 1
         while (!pq.isEmpty() && mst.size() < G.V() - 1) {
-            Edge e = pq.delMin();
+            Edge e = edges[pq.delMin()];
             int v = e.either();
             int w = e.other(v);
             if (uf.find(v) == uf.find(w)) {
@@ -43,6 +55,128 @@ public class KruskalMST {
         }
     }
 
+    /**
+     * Computes a minimum spanning forest of an undirected graph that is walked with degree(v), neighbor(v, i) and weight(v, i).
+     * Every edge v-w is taken from the adjacency list of the smaller of v and w; self-loops are skipped.
+     * The edges are sorted off the heap, so the heap used is proportional to V whatever the number of edges.
+     * @param G the undirected edge-weighted graph
+     * @throws IllegalArgumentException if G is directed or not weighted
+     */
+    public KruskalMST(WeightedIntGraph G) {
+        if (G.isDirected()) throw new IllegalArgumentException("KruskalMST needs an undirected graph");
+        if (!G.isWeighted()) throw new IllegalArgumentException("KruskalMST needs a weighted graph");
+        int V = G.V();
+        long m = 0;
+        for (int v = 0; v < V; v++) {
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                if (G.neighbor(v, i) > v) m++;
+            }
+        }
+
+        OffHeapArray keys = new OffHeapArray(m, 8);     // long: the weight of edge k, in the order of its double value
+        OffHeapArray ends = new OffHeapArray(m, 8);     // long: v << 32 | w for edge k
+        long k = 0;
+        for (int v = 0; v < V; v++) {
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                int w = G.neighbor(v, i);
+                if (w > v) {
+                    keys.setLong(k, key(G.weight(v, i)));
+                    ends.setLong(k++, (long) v << 32 | w);
+                }
+            }
+        }
+        sort(keys, ends, 0, m, 2 * (64 - Long.numberOfLeadingZeros(m)));
+
+        UF uf = new UF(V);
+        for (k = 0; k < m && mst.size() < V - 1; k++) {
+            long edge = ends.getLong(k);
+            int v = (int) (edge >>> 32);
+            int w = (int) edge;
+            if (uf.find(v) == uf.find(w)) {
+                continue;
+            }
+            uf.union(v, w);
+            double edgeWeight = weight(keys.getLong(k));
+            mst.enqueue(new Edge(v, w, edgeWeight));
+            weight += edgeWeight;
+        }
+    }
+
+    // a long that compares like the double x: flip the other bits of negative numbers, whose bits grow as they get smaller
+    private static long key(double x) {
+        long bits = Double.doubleToLongBits(x);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static double weight(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+
+    // sort keys[lo, hi) and move ends[] along: quicksort with 3-way partitioning (weights repeat a lot),
+    // recursing into the smaller side; heapsort once depth runs out, insertion sort for short ranges
+    private static void sort(OffHeapArray keys, OffHeapArray ends, long lo, long hi, int depth) {
+        while (hi - lo > INSERTION_SORT_CUTOFF) {
+            if (depth-- == 0) {
+                heapSort(keys, ends, lo, hi);
+                return;
+            }
+            long a = keys.getLong(lo), b = keys.getLong(lo + (hi - lo) / 2), c = keys.getLong(hi - 1);
+            long pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));     // median of three
+            // [lo, lt) < pivot, [lt, i) == pivot, [gt, hi) > pivot
+            long lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                long key = keys.getLong(i);
+                if (key < pivot) swap(keys, ends, lt++, i++);
+                else if (key > pivot) swap(keys, ends, i, --gt);
+                else i++;
+            }
+            if (lt - lo < hi - gt) {
+                sort(keys, ends, lo, lt, depth);
+                lo = gt;
+            }
+            else {
+                sort(keys, ends, gt, hi, depth);
+                hi = lt;
+            }
+        }
+        for (long i = lo + 1; i < hi; i++) {
+            for (long j = i; j > lo && keys.getLong(j) < keys.getLong(j - 1); j--) {
+                swap(keys, ends, j, j - 1);
+            }
+        }
+    }
+
+    private static void heapSort(OffHeapArray keys, OffHeapArray ends, long lo, long hi) {
+        long n = hi - lo;
+        for (long k = n / 2 - 1; k >= 0; k--) {
+            sink(keys, ends, lo, k, n);
+        }
+        while (n > 1) {
+            swap(keys, ends, lo, lo + --n);
+            sink(keys, ends, lo, 0, n);
+        }
+    }
+
+    // max-heap of the n keys from lo on, the children of k are 2k + 1 and 2k + 2
+    private static void sink(OffHeapArray keys, OffHeapArray ends, long lo, long k, long n) {
+        while (2 * k + 1 < n) {
+            long j = 2 * k + 1;
+            if (j + 1 < n && keys.getLong(lo + j + 1) > keys.getLong(lo + j)) j++;
+            if (keys.getLong(lo + k) >= keys.getLong(lo + j)) break;
+            swap(keys, ends, lo + k, lo + j);
+            k = j;
+        }
+    }
+
+    private static void swap(OffHeapArray keys, OffHeapArray ends, long i, long j) {
+        long key = keys.getLong(i);
+        keys.setLong(i, keys.getLong(j));
+        keys.setLong(j, key);
+        long edge = ends.getLong(i);
+        ends.setLong(i, ends.getLong(j));
+        ends.setLong(j, edge);
+    }
+
     public double weight() {
         return weight;
     }
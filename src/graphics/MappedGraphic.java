@@ -0,0 +1,212 @@
+package graphics;
+
+import util.Queue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射的只读图：直接从GraphFile格式的二进制文件中读取邻接表
+ *
+ * 构造时只把文件映射到内存并检查文件头，不读取任何边，所以打开一个图只需要几毫秒，与图的大小无关；
+ * 邻接表不复制到堆中，由操作系统按页从文件中读入，第一次访问某个顶点时才会产生磁盘读。
+ * 多个进程打开同一个文件时共享同一份页缓存。
+ *
+ * 一个MappedByteBuffer最多映射2^31个字节，所以文件按CHUNK_BYTES (1GB) 分段映射。
+ * 文件中的每个数都按它自己的大小对齐，而CHUNK_BYTES是8的倍数，所以任何一个数都不会跨越两段。
+ *
+ * 和CSRGraphic一样用degree(v)和neighbor(v, i)遍历邻接表；加权图还可以用weight(v, i)读取边的权重（WeightedIntGraph），
+ * 例如直接在映射的文件上运行KruskalMST；不加权的图isWeighted()返回false，这些算法在开始之前就会拒绝它。
+ */
+
+public class MappedGraphic implements WeightedIntGraph {
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_BYTES = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_BYTES - 1;
+
+    private final int V;                        // number of vertexes
+    private final long E;                       // number of edges
+    private final long A;                       // total length of the adjacency lists
+    private final boolean directed;
+    private final boolean weighted;
+    private final long targets;                 // byte offset of the targets section
+    private final long weights;                 // byte offset of the weights section
+    private final MappedByteBuffer[] chunks;    // the file, CHUNK_BYTES at a time
+
+    /**
+     * Maps a binary graph file written by GraphFile.write()
+     * @param filename the name of the file
+     * @throws IllegalArgumentException if the file is not a binary graph file
+     */
+    public MappedGraphic(String filename) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < GraphFile.HEADER_BYTES) throw new IllegalArgumentException(filename + " is not a graph file: too short");
+            chunks = new MappedByteBuffer[(int) ((size + CHUNK_BYTES - 1) >>> CHUNK_SHIFT)];
+            for (int k = 0; k < chunks.length; k++) {
+                long start = k * CHUNK_BYTES;
+                chunks[k] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_BYTES, size - start));
+                chunks[k].order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            if (getInt(0) != GraphFile.MAGIC) throw new IllegalArgumentException(filename + " is not a graph file");
+            if (getInt(4) != GraphFile.VERSION) {
+                throw new IllegalArgumentException(filename + " has unsupported version " + getInt(4));
+            }
+            int flags = getInt(8);
+            directed = (flags & GraphFile.DIRECTED) != 0;
+            weighted = (flags & GraphFile.WEIGHTED) != 0;
+            V = getInt(12);
+            E = getLong(16);
+            A = getLong(24);
+            if (V < 0 || E < 0 || A < 0) throw new IllegalArgumentException(filename + " has a corrupt header");
+            targets = GraphFile.targetsStart(V);
+            weights = GraphFile.weightsStart(V, A);
+            long expected = weighted ? weights + 8 * A : targets + 4 * A;
+            if (size < expected) {
+                throw new IllegalArgumentException(filename + " is truncated: " + size + " bytes, expected " + expected);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("could not open " + filename, e);
+        }
+    }
+
+    private int getInt(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getInt((int) (position & CHUNK_MASK));
+    }
+
+    private long getLong(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & CHUNK_MASK));
+    }
+
+    private double getDouble(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getDouble((int) (position & CHUNK_MASK));
+    }
+
+    // index of the first adjacency entry of v
+    private long offset(int v) {
+        return getLong(GraphFile.HEADER_BYTES + 8L * v);
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    // index of the i-th adjacency entry of v
+    private long entry(int v, int i) {
+        validateVertex(v);
+        long begin = offset(v);
+        long end = offset(v + 1);
+        if (i < 0 || i >= end - begin) {
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (end - begin - 1));
+        }
+        return begin + i;
+    }
+
+    /**
+     * @return the number of vertexes
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * @return the number of edges
+     */
+    public long E() {
+        return E;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    /**
+     * @param v vertex
+     * @return the number of vertexes adjacent to v (the out degree of v in a directed graph)
+     */
+    public int degree(int v) {
+        validateVertex(v);
+        return (int) (offset(v + 1) - offset(v));
+    }
+
+    /**
+     * Returns the i-th vertex adjacent to v, in the same order as adj(v) of the graph that was written.
+     * @param v vertex
+     * @param i index into the adjacency list of v, between 0 and degree(v) - 1
+     * @return the i-th vertex adjacent to v
+     */
+    public int neighbor(int v, int i) {
+        return getInt(targets + 4 * entry(v, i));
+    }
+
+    /**
+     * @param v vertex
+     * @param i index into the adjacency list of v, between 0 and degree(v) - 1
+     * @return the weight of the edge from v to neighbor(v, i)
+     * @throws UnsupportedOperationException if the graph is not weighted
+     */
+    public double weight(int v, int i) {
+        if (!weighted) throw new UnsupportedOperationException("the graph is not weighted");
+        return getDouble(weights + 8 * entry(v, i));
+    }
+
+    /**
+     * Returns the vertices adjacent to vertex v.
+     * This boxes every vertex; prefer degree(v) and neighbor(v, i) in hot loops.
+     * @param v vertex
+     * @return the vertices adjacent to vertex v, as an iterable
+     */
+    public Iterable<Integer> adj(int v) {
+        validateVertex(v);
+        Queue<Integer> queue = new Queue<>();
+        for (long k = offset(v), end = offset(v + 1); k < end; k++) {
+            queue.enqueue(getInt(targets + 4 * k));
+        }
+        return queue;
+    }
+
+    /**
+     * @return the size of the mapped file in bytes; none of it is on the Java heap
+     */
+    public long mappedBytes() {
+        long bytes = 0;
+        for (MappedByteBuffer chunk : chunks) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Opens a binary graph file and walks all its adjacency lists:
+     * java MappedGraphic graph.bin
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        MappedGraphic G = new MappedGraphic(args[0]);
+        double openMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("opened %d vertexes, %d edges (%,d bytes mapped) in %.3f ms%n", G.V(), G.E(), G.mappedBytes(), openMillis);
+
+        start = System.nanoTime();
+        long sum = 0;
+        for (int v = 0; v < G.V(); v++) {
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                sum += G.neighbor(v, i);
+            }
+        }
+        System.out.printf("walked all adjacency lists in %.3f s (checksum %d)%n", (System.nanoTime() - start) / 1e9, sum);
+    }
+}
@@ -0,0 +1,218 @@
+package graphics;
+
+import util.MattyRandom;
+
+import java.util.Arrays;
+
+/**
+ * 多源广度优先搜索 (MS-BFS: Then et al., "The More the Merrier: Efficient Multi-Source Graph Traversal")：
+ * 对k个起点分别运行BreadFirstPaths，每一次都要分配marked[]、edgeTo[]、distTo[]和队列，并且把整幅图的邻接表各读一遍。
+ * 而对同一幅图的k次搜索，在同一层上往往会访问相同的顶点和边，MS-BFS把它们合并成一次遍历：
+ * 每个顶点有一个位集合，第i位代表第i个起点的搜索，
+ * - seen[v]：哪些搜索已经到达过v
+ * - visit[v]：哪些搜索的当前层中有v
+ * 处理当前层中的顶点v时，对它的每个邻居w，visit[v] & ~seen[w]就是这一层第一次经过v到达w的所有搜索，
+ * 它们一起被加入w的下一层和seen[w]中，这样一条边在每一层中最多被检查一次，而不是每个搜索各检查一次。
+ *
+ * 起点每64个占用一个long，超过64个起点时每个顶点使用words = ceil(k / 64)个long，
+ * 一次遍历可以同时进行任意多个搜索，代价是每个顶点3 * words个long的位集合。
+ * 每一层只遍历这一层中的顶点（用frontier数组保存），而不是扫描所有的V个顶点。
+ *
+ * distTo(i, v)为每个起点分别保存，共k * V个int，和k个BreadFirstPaths的distTo[]一样多，
+ * 但是不需要它们的marked[]、edgeTo[]和队列；只需要距离的总和（例如接近中心性）的用例应该直接使用位集合。
+ */
+
+public class MultiSourceBFS {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final int V;
+    private final int[] sources;
+    private final int[][] distTo;           // distTo[i][v] = number of edges on a shortest sources[i]-v path
+
+    /**
+     * Computes the shortest paths from each of the sources to every vertex in G, in one traversal
+     * @param G the graph; for a direct graph the paths follow the direction of the edges
+     * @param sources the source vertexes, search i starts at sources[i]; a vertex may appear more than once
+     */
+    public MultiSourceBFS(IntGraph G, int[] sources) {
+        if (G == null) throw new IllegalArgumentException("G is null");
+        if (sources == null) throw new IllegalArgumentException("sources is null");
+        V = G.V();
+        for (int s : sources) {
+            validateVertex(s);
+        }
+        this.sources = sources.clone();
+        int k = sources.length;
+        distTo = new int[k][];
+        for (int i = 0; i < k; i++) {
+            distTo[i] = new int[V];
+            Arrays.fill(distTo[i], INFINITY);
+        }
+        if (k > 0) {
+            bfs(G);
+        }
+    }
+
+    private void bfs(IntGraph G) {
+        int k = sources.length;
+        int words = (k + 63) >>> 6;
+        // the bitsets of vertex v are the words [v * words, (v + 1) * words) of each array
+        long[] seen = new long[V * words];
+        long[] visit = new long[V * words];
+        long[] next = new long[V * words];
+        int[] frontier = new int[V];
+        int[] nextFrontier = new int[V];
+        int size = 0;
+        for (int i = 0; i < k; i++) {
+            int s = sources[i];
+            int index = s * words + (i >>> 6);
+            long bit = 1L << i;
+            if (visit[s * words] == 0 && isEmpty(visit, s, words)) {
+                frontier[size++] = s;
+            }
+            visit[index] |= bit;
+            seen[index] |= bit;
+            distTo[i][s] = 0;
+        }
+
+        for (int level = 1; size > 0; level++) {
+            int nextSize = 0;
+            for (int f = 0; f < size; f++) {
+                int v = frontier[f];
+                int base = v * words;
+                for (int j = 0, degree = G.degree(v); j < degree; j++) {
+                    int w = G.neighbor(v, j);
+                    int wBase = w * words;
+                    boolean added = false;
+                    for (int b = 0; b < words; b++) {
+                        long d = visit[base + b] & ~seen[wBase + b];
+                        if (d == 0) continue;
+                        if (!added && isEmpty(next, w, words)) {
+                            nextFrontier[nextSize++] = w;
+                        }
+                        added = true;
+                        next[wBase + b] |= d;
+                        seen[wBase + b] |= d;
+                        // one distance per search that reaches w for the first time
+                        for (long bits = d; bits != 0; bits &= bits - 1) {
+                            distTo[(b << 6) + Long.numberOfTrailingZeros(bits)][w] = level;
+                        }
+                    }
+                }
+            }
+            // the next level becomes the current one; clear only the bitsets of the old level
+            for (int f = 0; f < size; f++) {
+                Arrays.fill(visit, frontier[f] * words, (frontier[f] + 1) * words, 0L);
+            }
+            long[] tempBits = visit;
+            visit = next;
+            next = tempBits;
+            int[] tempFrontier = frontier;
+            frontier = nextFrontier;
+            nextFrontier = tempFrontier;
+            size = nextSize;
+        }
+    }
+
+    // are all the words of the bitset of v in bits zero?
+    private static boolean isEmpty(long[] bits, int v, int words) {
+        for (int b = v * words, end = b + words; b < end; b++) {
+            if (bits[b] != 0) return false;
+        }
+        return true;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    private void validateSource(int i) {
+        int k = sources.length;
+        if (i < 0 || i >= k) {
+            throw new IllegalArgumentException("source index " + i + " is not between 0 and " + (k-1));
+        }
+    }
+
+    /**
+     * @return the number of searches, i.e. the length of the sources array
+     */
+    public int sources() {
+        return sources.length;
+    }
+
+    /**
+     * @param i the index of the search
+     * @return the source vertex of search i
+     */
+    public int source(int i) {
+        validateSource(i);
+        return sources[i];
+    }
+
+    /**
+     * @param i the index of the search
+     * @param v vertex
+     * @return is there a path from the source of search i to v?
+     */
+    public boolean hasPathTo(int i, int v) {
+        validateSource(i);
+        validateVertex(v);
+        return distTo[i][v] != INFINITY;
+    }
+
+    /**
+     * @param i the index of the search
+     * @param v vertex
+     * @return the number of edges on a shortest path from the source of search i to v, Integer.MAX_VALUE if there is none
+     */
+    public int distTo(int i, int v) {
+        validateSource(i);
+        validateVertex(v);
+        return distTo[i][v];
+    }
+
+    /**
+     * Runs k searches on a random graph, once with one BreadFirstPaths per source and once batched, and checks the distances:
+     * java MultiSourceBFS V E [k] [seed]
+     */
+    public static void main(String[] args) {
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        if (args.length > 3) {
+            MattyRandom.setSeed(Long.parseLong(args[3]));
+        }
+        int[] from = new int[E];
+        int[] to = new int[E];
+        for (int i = 0; i < E; i++) {
+            from[i] = MattyRandom.uniform(V);
+            to[i] = MattyRandom.uniform(V);
+        }
+        CSRGraphic G = new CSRGraphic(V, from, to, false);
+        int[] sources = new int[k];
+        for (int i = 0; i < k; i++) {
+            sources[i] = MattyRandom.uniform(V);
+        }
+
+        long start = System.nanoTime();
+        MultiSourceBFS batch = new MultiSourceBFS(G, sources);
+        double batched = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        for (int i = 0; i < k; i++) {
+            BreadFirstPaths bfs = new BreadFirstPaths(G, sources[i]);
+            for (int v = 0; v < V; v++) {
+                int expected = bfs.hasPathTo(v) ? bfs.distTo(v) : INFINITY;
+                if (batch.distTo(i, v) != expected) {
+                    throw new IllegalStateException("source " + sources[i] + " to " + v + ": " + batch.distTo(i, v) + ", expected " + expected);
+                }
+            }
+        }
+        double separate = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d x BreadFirstPaths: %8.3f s (including the check)%n", k, separate);
+        System.out.printf("MultiSourceBFS:       %8.3f s  %.0f ns per search and edge%n", batched, batched * 1e9 / k / Math.max(1, 2L * E));
+    }
+}
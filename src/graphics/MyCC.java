@@ -1,14 +1,33 @@
 package graphics;
 
 import edu.princeton.cs.algs4.In;
+import util.ConcurrentUF;
+import util.MattyRandom;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * dfs的下一个直接应用就是找出一幅图的所有连通分量，它能够将所有顶点都切分为等价类（连通分量）
+ *
+ * 并行模式 (Afforest: Sutton, Ben-Nun, Bar, "Optimizing Parallel Graph Connectivity Computation via Subgraph Sampling")：
+ * 深度优先搜索是串行的，并行模式改用ConcurrentUF，多个线程同时对边执行union()。
+ * 如果对每条边都union一次，巨大的连通分量内部的边（通常是绝大部分边）都是在做无用功，Afforest先对子图采样：
+ * 1. 每个顶点只和它的前NEIGHBOR_ROUNDS个邻居union，这样得到的森林已经覆盖了巨大分量的大部分顶点；
+ * 2. 随机抽取SAMPLES个顶点，出现最多的根c近似就是巨大分量；
+ * 3. 再并行地处理每个顶点的其余的边，但是跳过已经在c中的顶点。
+ *    无向图的每条边在两个端点的邻接表中各出现一次，一条边的两个端点只要有一个不在c中，这条边就会在那一端被处理，
+ *    而两个端点都在c中的边本来就不需要处理，所以结果仍然是正确的。
+ * 最后按最小顶点的顺序给分量编号，得到的id(v)与深度优先搜索的结果完全相同。
  */
 
 public class MyCC {
 
-    private boolean[] marked;           // marked[v] = has vertex v been marked?
+    private static final int NEIGHBOR_ROUNDS = 2;   // number of neighbors of every vertex linked before sampling
+    private static final int SAMPLES = 1024;        // number of vertexes sampled to find the largest component
+    private static final int GRAIN = 1 << 12;       // vertexes per task
+
     private int[] id;                   // id[v] = id of connected component containing v
     private int[] size;                 // size[id] = number of vertexes in given component
     private int count;                  // number of connected components
@@ -17,26 +36,126 @@ public class MyCC {
      * Compute the connected components of the undirected graphic g (非连通图)
      * @param g the undirected graphic
      */
-    public MyCC(Graphic g) {
-        marked = new boolean[g.V()];
+    public MyCC(IntGraph g) {
+        boolean[] marked = new boolean[g.V()];   // marked[v] = has vertex v been marked?
         id = new int[g.V()];
         size = new int[g.V()];
+        DepthFirstWalker walker = new DepthFirstWalker(g, marked);
+        DepthFirstWalker.Visitor label = new DepthFirstWalker.Visitor() {
+            public void preVisit(int v, int parent) {
+                id[v] = count;
+                size[count]++;
+            }
+        };
         for (int v = 0; v < g.V(); v++) {
             if (!marked[v]) {
-                dfs(g, v);
+                walker.walk(v, label);
                 count++;
             }
         }
     }
 
-    // depth-first search for a graphic
-    private void dfs(Graphic g, int v) {
-        marked[v] = true;
-        id[v] = count;
-        size[count]++;
-        for (int w : g.adj(v)) {
-            if (!marked[w]) {
-                dfs(g, w);
+    /**
+     * Compute the connected components of the undirected graphic g with the threads of pool
+     * @param g the undirected graphic
+     * @param pool the pool the edges are spread across
+     */
+    public MyCC(IntGraph g, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        int V = g.V();
+        id = new int[V];
+        size = new int[V];
+        ConcurrentUF uf = new ConcurrentUF(V);
+
+        pool.invoke(new Link(g, uf, 0, V, 0, NEIGHBOR_ROUNDS, -1));
+        int largest = largestComponent(uf, V);
+        pool.invoke(new Link(g, uf, 0, V, NEIGHBOR_ROUNDS, Integer.MAX_VALUE, largest));
+        pool.invoke(new Roots(uf, id, 0, V));
+
+        // number the components in order of their smallest vertex, like the depth-first search does
+        int[] label = new int[V];
+        Arrays.fill(label, -1);
+        for (int v = 0; v < V; v++) {
+            int root = id[v];
+            if (label[root] < 0) {
+                label[root] = count++;
+            }
+            id[v] = label[root];
+            size[id[v]]++;
+        }
+    }
+
+    // the most frequent root among SAMPLES random vertexes, or -1 if there are no vertexes
+    private static int largestComponent(ConcurrentUF uf, int V) {
+        if (V == 0) return -1;
+        int[] roots = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            roots[i] = uf.find(MattyRandom.uniform(V));
+        }
+        Arrays.sort(roots);
+        int best = roots[0], bestRun = 0;
+        for (int i = 0, run = 0; i < SAMPLES; i++) {
+            run = i > 0 && roots[i] == roots[i - 1] ? run + 1 : 1;
+            if (run > bestRun) {
+                bestRun = run;
+                best = roots[i];
+            }
+        }
+        return best;
+    }
+
+    // union every vertex in [lo, hi) with its neighbors from..to-1, skipping the vertexes already in the tree of skip
+    private static class Link extends RecursiveAction {
+        private final IntGraph g;
+        private final ConcurrentUF uf;
+        private final int lo, hi, from, to, skip;
+
+        Link(IntGraph g, ConcurrentUF uf, int lo, int hi, int from, int to, int skip) {
+            this.g = g;
+            this.uf = uf;
+            this.lo = lo;
+            this.hi = hi;
+            this.from = from;
+            this.to = to;
+            this.skip = skip;
+        }
+
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Link(g, uf, lo, mid, from, to, skip), new Link(g, uf, mid, hi, from, to, skip));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                if (skip >= 0 && uf.find(v) == skip) continue;
+                for (int i = from, end = Math.min(to, g.degree(v)); i < end; i++) {
+                    uf.union(v, g.neighbor(v, i));
+                }
+            }
+        }
+    }
+
+    // id[v] = the root of v
+    private static class Roots extends RecursiveAction {
+        private final ConcurrentUF uf;
+        private final int[] id;
+        private final int lo, hi;
+
+        Roots(ConcurrentUF uf, int[] id, int lo, int hi) {
+            this.uf = uf;
+            this.id = id;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Roots(uf, id, lo, mid), new Roots(uf, id, mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                id[v] = uf.find(v);
             }
         }
     }
@@ -78,18 +197,59 @@ public class MyCC {
     }
 
     private void validateVertex(int v) {
-        int V = marked.length;
+        int V = id.length;
         if (v < 0 || v >= V) {
             throw new IllegalArgumentException(v + " is not legal.");
         }
     }
 
+    /**
+     * Counts the components of a graph file: java MyCC tinyG.txt
+     * or times the parallel mode against the depth-first search on a random graph with 1 to N threads:
+     * java MyCC V E [maxThreads] [seed]
+     */
     public static void main(String[] args) {
-        In in = new In(args[0]);
-        Graphic g = new Graphic(in);
-        MyCC cc = new MyCC(g);
+        if (args.length == 1) {
+            In in = new In(args[0]);
+            Graphic g = new Graphic(in);
+            MyCC cc = new MyCC(g);
+
+            int m = cc.count();
+            System.out.println(m + " components.");
+            return;
+        }
 
-        int m = cc.count();
-        System.out.println(m + " components.");
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        if (args.length > 3) {
+            MattyRandom.setSeed(Long.parseLong(args[3]));
+        }
+        int[] from = new int[E];
+        int[] to = new int[E];
+        for (int i = 0; i < E; i++) {
+            from[i] = MattyRandom.uniform(V);
+            to[i] = MattyRandom.uniform(V);
+        }
+        CSRGraphic g = new CSRGraphic(V, from, to, false);
+
+        long start = System.nanoTime();
+        MyCC expected = new MyCC(g);
+        double sequential = (System.nanoTime() - start) / 1e9;
+        System.out.printf("MyCC:          %8.3f s  %d components%n", sequential, expected.count());
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            start = System.nanoTime();
+            MyCC cc = new MyCC(g, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+            for (int v = 0; v < V; v++) {
+                if (cc.id(v) != expected.id(v) || cc.size(v) != expected.size(v)) {
+                    throw new IllegalStateException("vertex " + v + " is in component " + cc.id(v) + ", expected " + expected.id(v));
+                }
+            }
+            System.out.printf("MyCC %2d:       %8.3f s  speedup %.2f%n", threads, seconds, sequential / seconds);
+        }
     }
 }
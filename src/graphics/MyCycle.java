@@ -25,7 +25,7 @@ public class MyCycle {
      * Determine whether the undirected graph g has a cycle and, if so, find such a cycle
      * @param g graphic
      */
-    public MyCycle(Graphic g) {
+    public MyCycle(IntGraph g) {
         if (hasSelfLoop(g)) {
             return;
         }
@@ -34,19 +34,39 @@ public class MyCycle {
         }
         marked = new boolean[g.V()];
         edgeTo = new int[g.V()];
-        for (int v = 0; v < g.V(); v++) {
+        DepthFirstWalker walker = new DepthFirstWalker(g, marked);
+        DepthFirstWalker.Visitor finder = new DepthFirstWalker.Visitor() {
+            public void preVisit(int v, int parent) {
+                edgeTo[v] = parent;
+            }
+
+            // check for cycle (but disregard reverse of edge leading to v)
+            // w != edgeTo[v] 意味着v的w与edgeTo[v]不同
+            public void nonTreeEdge(int v, int w) {
+                if (w != edgeTo[v]) {
+                    cycle = new Stack<>();
+                    for (int x = v; x != w; x = edgeTo[x]) {
+                        cycle.push(x);
+                    }
+                    cycle.push(w);
+                    cycle.push(v);
+                    walker.stop();
+                }
+            }
+        };
+        for (int v = 0; v < g.V() && cycle == null; v++) {
             if (!marked[v]) {
-                dfs(g, -1, v);
+                walker.walk(v, finder);
             }
         }
     }
 
     // Does this graph has a self loop?
     // Side effect: initialize cycle to have a self loop
-    private boolean hasSelfLoop(Graphic g) {
+    private boolean hasSelfLoop(IntGraph g) {
         for (int v = 0; v < g.V(); v++) {
-            for (int w : g.adj(v)) {
-                if (v == w) {
+            for (int i = 0, degree = g.degree(v); i < degree; i++) {
+                if (g.neighbor(v, i) == v) {
                     cycle = new Stack<>();
                     cycle.push(v);
                     cycle.push(v);
@@ -59,28 +79,42 @@ public class MyCycle {
 
     // Does this graph has two parallel edges?
     // Side effect: initialize cycle to have two parallel edges
-    private boolean hasParallelEdges(Graphic g) {
+    private boolean hasParallelEdges(IntGraph g) {
         marked = new boolean[g.V()];
 
         // 如果有平行边，i.e. 0-1 1-0， g.adj(0) = {1, 1}
         for (int v = 0; v < g.V(); v++) {
-            for (int w : g.adj(v)) {
-                if (marked[w]) {
-                    cycle = new Stack<>();
-                    cycle.push(v);
-                    cycle.push(w);
-                    cycle.push(v);
-                    return true;
-                }
-                marked[w] = true;
+            int w = repeatedNeighbor(g, v);
+            if (w >= 0) {
+                cycle = new Stack<>();
+                cycle.push(v);
+                cycle.push(w);
+                cycle.push(v);
+                return true;
             }
+        }
+        return false;
+    }
 
-            // reset all the adjacent vertexes to false
-            for (int w : g.adj(v)) {
-                marked[w] = false;
+    // a vertex that appears twice in the adjacency list of v, or -1; leaves marked[] all false
+    private int repeatedNeighbor(IntGraph g, int v) {
+        int repeated = -1;
+        int degree = g.degree(v);
+        int i = 0;
+        for (; i < degree; i++) {
+            int w = g.neighbor(v, i);
+            if (marked[w]) {
+                repeated = w;
+                break;
             }
+            marked[w] = true;
         }
-        return false;
+
+        // reset all the adjacent vertexes marked so far to false
+        for (int j = 0; j < i; j++) {
+            marked[g.neighbor(v, j)] = false;
+        }
+        return repeated;
     }
 
     public boolean hasCycle() {
@@ -91,30 +125,6 @@ public class MyCycle {
         return cycle;
     }
 
-    private void dfs(Graphic g, int u, int v) {
-        marked[v] = true;
-        for (int w : g.adj(v)) {
-
-            // short circuit if cycle already found
-            if (cycle != null) return;
-
-            if (!marked[w]) {
-                edgeTo[w] = v;
-                dfs(g, v, w);
-            }
-            // check for cycle (but disregard reverse of edge leading to v)
-            // w != u 意味着v的w与edgeTo[v]不同
-            else if (w != u) {
-                cycle = new Stack<>();
-                for (int x = v; x != w; x = edgeTo[x]) {
-                    cycle.push(x);
-                }
-                cycle.push(w);
-                cycle.push(v);
-            }
-        }
-    }
-
     public static void main(String[] args) {
         In in = new In(args[0]);
         Graphic g = new Graphic(in);
@@ -0,0 +1,364 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.MattyRandom;
+import util.OffHeapArray;
+import util.Queue;
+
+/**
+ * 堆外的图：邻接表按CSR格式（见CSRGraphic）保存在堆外的数组（见OffHeapArray）中
+ *
+ * CSRGraphic把邻接表保存在一个int[]中，所以邻接表的总长度不能超过2^31，而且整个数组都在堆上，
+ * 图越大，垃圾收集器要管理的堆就越大。这里的offsets是long，targets和weights都在直接缓冲区中：
+ * 边数可以超过2^31，堆上只有几个ByteBuffer对象，无论图有多大，图本身占用的堆内存都不变。
+ *
+ * 可以从DirectGraph、Graphic和EdgeWeightedGraph复制得到，邻接表中顶点的顺序与原图的adj(v)相同；
+ * 也可以用Builder一条边一条边地构造，构造过程中的边也保存在堆外，不需要先在堆上建一幅图。
+ * Builder按加入的顺序的逆序填充邻接表，所以得到的邻接表顺序和依次addEdge()同样的边得到的DirectGraph相同。
+ *
+ * 实现了WeightedIntGraph，所以DirectedDFS、BreadFirstPaths等所有接受IntGraph的搜索，
+ * 以及KruskalMST(WeightedIntGraph)都可以直接在它上面运行，这些搜索自己只需要与V成正比的堆内存。
+ * 不加权的图没有weight(v, i)，isWeighted()返回false，KruskalMST、DijkstraSP和AStarSP在开始之前就会拒绝它。
+ */
+
+public class OffHeapGraphic implements WeightedIntGraph {
+
+    private final int V;                        // number of vertexes
+    private final long E;                       // number of edges
+    private final boolean directed;
+    private final OffHeapArray offsets;         // long[V + 1]: adjacency list of v is targets[offsets[v]] to targets[offsets[v + 1] - 1]
+    private final OffHeapArray targets;         // int[A]: all adjacency lists, one after another
+    private final OffHeapArray weights;         // double[A]: weights[i] is the weight of the edge to targets[i], null if not weighted
+
+    private OffHeapGraphic(int V, long E, boolean directed, boolean weighted) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
+        this.V = V;
+        this.E = E;
+        this.directed = directed;
+        long A = directed ? E : 2 * E;
+        offsets = new OffHeapArray(V + 1L, 8);
+        targets = new OffHeapArray(A, 4);
+        weights = weighted ? new OffHeapArray(A, 8) : null;
+    }
+
+    /**
+     * Copies a direct graph off the heap
+     * @param G the direct graph
+     */
+    public OffHeapGraphic(DirectGraph G) {
+        this(G.V(), G.E(), true, false);
+        copy(G);
+    }
+
+    /**
+     * Copies an undirected graph off the heap
+     * @param G the undirected graph
+     */
+    public OffHeapGraphic(Graphic G) {
+        this(G.V(), G.E(), false, false);
+        copy(G);
+    }
+
+    /**
+     * Copies an edge-weighted graph off the heap; every edge v-w appears in the adjacency lists of both v and w
+     * @param G the edge-weighted graph
+     */
+    public OffHeapGraphic(EdgeWeightedGraph G) {
+        this(G.V(), G.E(), false, true);
+        long k = 0;
+        for (int v = 0; v < V; v++) {
+            offsets.setLong(v, k);
+            for (Edge e : G.adj(v)) {
+                targets.setInt(k, e.other(v));
+                weights.setDouble(k, e.weight());
+                k++;
+            }
+        }
+        offsets.setLong(V, k);
+    }
+
+    private void copy(IntGraph G) {
+        long k = 0;
+        for (int v = 0; v < V; v++) {
+            offsets.setLong(v, k);
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                targets.setInt(k++, G.neighbor(v, i));
+            }
+        }
+        offsets.setLong(V, k);
+    }
+
+    /**
+     * Collects edges off the heap and counting sorts them into an OffHeapGraphic
+     */
+    public static class Builder {
+        private static final long INITIAL_CAPACITY = 1 << 10;
+
+        private final int V;
+        private final boolean directed;
+        private final boolean weighted;
+        private OffHeapArray edges;             // long: v << 32 | w
+        private OffHeapArray weights;           // double: weight of edges[i]
+        private long E;
+
+        /**
+         * @param V the number of vertexes
+         * @param directed true for directed edges v -> w, false for undirected edges v-w
+         * @param weighted true if every edge has a weight
+         */
+        public Builder(int V, boolean directed, boolean weighted) {
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative.");
+            this.V = V;
+            this.directed = directed;
+            this.weighted = weighted;
+            edges = new OffHeapArray(INITIAL_CAPACITY, 8);
+            if (weighted) weights = new OffHeapArray(INITIAL_CAPACITY, 8);
+        }
+
+        private void validateVertex(int v) {
+            if (v < 0 || v >= V) {
+                throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+            }
+        }
+
+        public void addEdge(int v, int w) {
+            if (weighted) throw new IllegalStateException("the graph is weighted, use addEdge(v, w, weight)");
+            add(v, w);
+        }
+
+        public void addEdge(int v, int w, double weight) {
+            if (!weighted) throw new IllegalStateException("the graph is not weighted, use addEdge(v, w)");
+            if (Double.isNaN(weight)) throw new IllegalArgumentException("weight is NaN");
+            add(v, w);
+            weights.setDouble(E - 1, weight);
+        }
+
+        private void add(int v, int w) {
+            if (edges == null) throw new IllegalStateException("build() has already been called");
+            validateVertex(v);
+            validateVertex(w);
+            if (E == edges.length()) {
+                edges = edges.copyOf(2 * E);
+                if (weighted) weights = weights.copyOf(2 * E);
+            }
+            edges.setLong(E++, (long) v << 32 | w);
+        }
+
+        /**
+         * @return the number of edges added so far
+         */
+        public long E() {
+            return E;
+        }
+
+        /**
+         * Builds the graph; the builder can't be used afterwards
+         * @return the graph
+         */
+        public OffHeapGraphic build() {
+            if (edges == null) throw new IllegalStateException("build() has already been called");
+            OffHeapGraphic G = new OffHeapGraphic(V, E, directed, weighted);
+            OffHeapArray offsets = G.offsets;
+            for (long i = 0; i < E; i++) {
+                long edge = edges.getLong(i);
+                int v = (int) (edge >>> 32);
+                int w = (int) edge;
+                offsets.setLong(v + 1, offsets.getLong(v + 1) + 1);
+                if (!directed) offsets.setLong(w + 1, offsets.getLong(w + 1) + 1);
+            }
+            for (int v = 0; v < V; v++) {
+                offsets.setLong(v + 1, offsets.getLong(v + 1) + offsets.getLong(v));
+            }
+
+            // fill each adjacency list from its end towards its start, so it ends up in the same (LIFO) order as a Bag
+            OffHeapArray next = offsets.copyOf(V + 1L);
+            for (long i = 0; i < E; i++) {
+                long edge = edges.getLong(i);
+                int v = (int) (edge >>> 32);
+                int w = (int) edge;
+                long k = next.getLong(v + 1) - 1;
+                next.setLong(v + 1, k);
+                G.targets.setInt(k, w);
+                if (weighted) G.weights.setDouble(k, weights.getDouble(i));
+                if (!directed) {
+                    k = next.getLong(w + 1) - 1;
+                    next.setLong(w + 1, k);
+                    G.targets.setInt(k, v);
+                    if (weighted) G.weights.setDouble(k, weights.getDouble(i));
+                }
+            }
+            edges = null;
+            weights = null;
+            return G;
+        }
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    // index of the i-th adjacency entry of v
+    private long entry(int v, int i) {
+        validateVertex(v);
+        long begin = offsets.getLong(v);
+        long end = offsets.getLong(v + 1);
+        if (i < 0 || i >= end - begin) {
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (end - begin - 1));
+        }
+        return begin + i;
+    }
+
+    /**
+     * @return the number of vertexes
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * @return the number of edges
+     */
+    public long E() {
+        return E;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * @param v vertex
+     * @return the number of vertexes adjacent to v (the out degree of v in a directed graph)
+     */
+    public int degree(int v) {
+        validateVertex(v);
+        return (int) (offsets.getLong(v + 1) - offsets.getLong(v));
+    }
+
+    /**
+     * Returns the i-th vertex adjacent to v, in the same order as adj(v).
+     * @param v vertex
+     * @param i index into the adjacency list of v, between 0 and degree(v) - 1
+     * @return the i-th vertex adjacent to v
+     */
+    public int neighbor(int v, int i) {
+        return targets.getInt(entry(v, i));
+    }
+
+    /**
+     * @param v vertex
+     * @param i index into the adjacency list of v, between 0 and degree(v) - 1
+     * @return the weight of the edge from v to neighbor(v, i)
+     * @throws UnsupportedOperationException if the graph is not weighted
+     */
+    public double weight(int v, int i) {
+        if (weights == null) throw new UnsupportedOperationException("the graph is not weighted");
+        return weights.getDouble(entry(v, i));
+    }
+
+    /**
+     * Returns the vertices adjacent to vertex v.
+     * This boxes every vertex; prefer degree(v) and neighbor(v, i) in hot loops.
+     * @param v vertex
+     * @return the vertices adjacent to vertex v, as an iterable
+     */
+    public Iterable<Integer> adj(int v) {
+        validateVertex(v);
+        Queue<Integer> queue = new Queue<>();
+        for (long k = offsets.getLong(v), end = offsets.getLong(v + 1); k < end; k++) {
+            queue.enqueue(targets.getInt(k));
+        }
+        return queue;
+    }
+
+    /**
+     * @return the number of bytes of the adjacency arrays; none of it is on the Java heap
+     */
+    public long offHeapBytes() {
+        return offsets.bytes() + targets.bytes() + (weights == null ? 0 : weights.bytes());
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // runs the searches on both graphs and compares the results
+    private static void check(IntGraph expected, IntGraph actual, int s) {
+        DirectedDFS dfs = new DirectedDFS(expected, s);
+        DirectedDFS offHeapDfs = new DirectedDFS(actual, s);
+        BreadFirstPaths bfs = new BreadFirstPaths(expected, s);
+        BreadFirstPaths offHeapBfs = new BreadFirstPaths(actual, s);
+        for (int v = 0; v < expected.V(); v++) {
+            if (dfs.marked(v) != offHeapDfs.marked(v) || bfs.distTo(v) != offHeapBfs.distTo(v)) {
+                throw new IllegalStateException("searches from " + s + " disagree at vertex " + v);
+            }
+        }
+    }
+
+    /**
+     * Builds random graphs with V vertexes and E edges off the heap and runs DirectedDFS, BreadFirstPaths and KruskalMST on them:
+     * java OffHeapGraphic V E [seed]
+     * The graphs and their builders need up to about 50 E bytes of direct memory, raise -XX:MaxDirectMemorySize if that is more than the heap.
+     * The heap used by the graphs is printed after each build; KruskalMST sorts the edges in 16 E more bytes of direct memory.
+     * With a weighted text file (the EdgeWeightedGraph format), compares the MST with the one of the graph on the heap:
+     * java OffHeapGraphic tinyEWG.txt
+     */
+    public static void main(String[] args) {
+        if (args.length == 1) {
+            EdgeWeightedGraph G = new EdgeWeightedGraph(new In(args[0]));
+            OffHeapGraphic offHeap = new OffHeapGraphic(G);
+            Graphic unweighted = new Graphic(G.V());
+            for (Edge e : G.edges()) {
+                int v = e.either();
+                unweighted.addEdge(v, e.other(v));
+            }
+            check(unweighted, offHeap, 0);
+            System.out.printf("EdgeWeightedGraph: %.5f%n", new KruskalMST(G).weight());
+            System.out.printf("OffHeapGraphic:    %.5f%n", new KruskalMST(offHeap).weight());
+            return;
+        }
+
+        int V = Integer.parseInt(args[0]);
+        long E = Long.parseLong(args[1]);
+        if (args.length > 2) {
+            MattyRandom.setSeed(Long.parseLong(args[2]));
+        }
+
+        long before = usedMemory();
+        Builder builder = new Builder(V, true, false);
+        for (long i = 0; i < E; i++) {
+            builder.addEdge(MattyRandom.uniform(V), MattyRandom.uniform(V));
+        }
+        OffHeapGraphic digraph = builder.build();
+        long heapBytes = usedMemory() - before;
+        System.out.printf("digraph:  %,d bytes off heap, %,d bytes on heap so far%n", digraph.offHeapBytes(), heapBytes);
+
+        long start = System.nanoTime();
+        int reachable = new DirectedDFS(digraph, 0).count();
+        System.out.printf("DirectedDFS:     %d vertexes reachable from 0 in %.3f s%n", reachable, (System.nanoTime() - start) / 1e9);
+        start = System.nanoTime();
+        BreadFirstPaths bfs = new BreadFirstPaths(digraph, 0);
+        System.out.printf("BreadFirstPaths: distTo(%d) = %d in %.3f s%n", V - 1, bfs.distTo(V - 1), (System.nanoTime() - start) / 1e9);
+
+        builder = new Builder(V, false, true);
+        for (long i = 0; i < E; i++) {
+            builder.addEdge(MattyRandom.uniform(V), MattyRandom.uniform(V), Math.round(100 * MattyRandom.uniform()) / 100.0);
+        }
+        OffHeapGraphic weighted = builder.build();
+        heapBytes = usedMemory() - before;
+        System.out.printf("weighted: %,d bytes off heap, %,d bytes on heap so far%n", weighted.offHeapBytes(), heapBytes);
+        start = System.nanoTime();
+        KruskalMST mst = new KruskalMST(weighted);
+        System.out.printf("KruskalMST:      weight %.2f in %.3f s%n", mst.weight(), (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,345 @@
+package graphics;
+
+import edu.princeton.cs.algs4.Stack;
+import util.MattyRandom;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 方向优化的并行广度优先搜索 (Beamer, Asanović, Patterson, "Direction-Optimizing Breadth-First Search")：
+ *
+ * BreadFirstPaths用一个队列一个顶点一个顶点地扩展，而这里按层同步地扩展：
+ * 当前层的所有顶点构成frontier，一次把整层扩展成下一层，同一层中的顶点可以分给多个线程同时处理。
+ *
+ * 扩展一层有两种方式：
+ * - 自顶向下 (top-down)：对frontier中的每个顶点v，检查v的所有邻居，把还没访问过的邻居加入下一层；
+ * - 自底向上 (bottom-up)：对每个还没访问过的顶点w，检查w的邻居，只要找到一个在frontier中的邻居，就把w加入下一层并停止检查。
+ *
+ * 在社交网络这种直径很小的图中，中间几层的frontier会包含图中的大部分顶点，
+ * 这时自顶向下会检查大量指向已访问顶点的边，而自底向上每个顶点找到一个父结点就可以停下来。
+ * frontier的边数 mf 超过未访问顶点的边数 mu 的 1/ALPHA 时切换到自底向上；
+ * frontier的顶点数 nf 小于 V 的 1/BETA 时切换回自顶向下。
+ *
+ * frontier和已访问集合都用位图 (每个顶点一个bit) 表示，每一层按64个顶点为一个字划分给ForkJoinPool中的任务。
+ *
+ * 得到的distTo与BreadFirstPaths完全相同；edgeTo可能选择另一个同样在最短路径上的父结点。
+ * 自底向上需要检查w的入边，所以这里只处理无向图。
+ */
+
+public class ParallelBreadFirstPaths {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int GRAIN = 256;       // number of 64-vertex words handled by one task
+
+    private final IntGraph G;
+    private final ForkJoinPool pool;
+    private final int[] edgeTo;                 // edgeTo[v] - previous edge on shortest s-v path
+    private final int[] distTo;                 // distTo[v] - number of edges shortest s-v path
+    private final AtomicLongArray visited;      // bit v is set iff v has been reached
+    private AtomicLongArray frontier;           // vertexes of the current level
+    private AtomicLongArray next;               // vertexes of the next level
+    private final LongAdder nextVertexes = new LongAdder();
+    private final LongAdder nextEdges = new LongAdder();
+    private int levels;                         // number of levels expanded
+    private int bottomUpLevels;                 // number of levels expanded bottom-up
+
+    /**
+     * Computes the shortest paths from s in the undirected graph G, using the common ForkJoinPool
+     * @param G the graphic
+     * @param s the source vertex
+     */
+    public ParallelBreadFirstPaths(Graphic G, int s) {
+        this(G, s, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBreadFirstPaths(Graphic G, int s, ForkJoinPool pool) {
+        this((IntGraph) G, s, pool);
+    }
+
+    /**
+     * Computes the shortest paths from s in the undirected CSR graph G
+     * @param G the graphic, must not be directed
+     * @param s the source vertex
+     * @param pool the pool every level is spread across
+     */
+    public ParallelBreadFirstPaths(CSRGraphic G, int s, ForkJoinPool pool) {
+        this(undirected(G), s, pool);
+    }
+
+    private static IntGraph undirected(CSRGraphic G) {
+        if (G.isDirected()) {
+            throw new IllegalArgumentException("bottom-up search needs an undirected graph");
+        }
+        return G;
+    }
+
+    private ParallelBreadFirstPaths(IntGraph G, int s, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        this.G = G;
+        this.pool = pool;
+        int V = G.V();
+        edgeTo = new int[V];
+        distTo = new int[V];
+        int words = (V + 63) >>> 6;
+        visited = new AtomicLongArray(words);
+        frontier = new AtomicLongArray(words);
+        next = new AtomicLongArray(words);
+        validateVertex(s);
+        bfs(s);
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    private static void set(AtomicLongArray bits, int v) {
+        int i = v >>> 6;
+        long bit = 1L << v;
+        long word = bits.get(i);
+        while ((word & bit) == 0 && !bits.weakCompareAndSetVolatile(i, word, word | bit)) {
+            word = bits.get(i);
+        }
+    }
+
+    // atomically set bit v, return false if it was already set
+    private static boolean claim(AtomicLongArray bits, int v) {
+        int i = v >>> 6;
+        long bit = 1L << v;
+        while (true) {
+            long word = bits.get(i);
+            if ((word & bit) != 0) return false;
+            if (bits.compareAndSet(i, word, word | bit)) return true;
+        }
+    }
+
+    private void bfs(int s) {
+        int V = G.V();
+        long unexploredEdges = 0;
+        for (int v = 0; v < V; v++) {
+            distTo[v] = INFINITY;
+            unexploredEdges += G.degree(v);
+        }
+        distTo[s] = 0;
+        set(visited, s);
+        set(frontier, s);
+        long frontierVertexes = 1;
+        long frontierEdges = G.degree(s);
+        unexploredEdges -= frontierEdges;
+
+        boolean topDown = true;
+        int words = frontier.length();
+        for (int level = 0; frontierVertexes > 0; level++) {
+            if (topDown && frontierEdges > unexploredEdges / ALPHA) {
+                topDown = false;
+            }
+            else if (!topDown && frontierVertexes < V / BETA) {
+                topDown = true;
+            }
+
+            nextVertexes.reset();
+            nextEdges.reset();
+            pool.invoke(new Level(0, words, level, topDown));
+
+            AtomicLongArray temp = frontier;
+            frontier = next;
+            next = temp;
+            pool.invoke(new Clear(next, 0, words));
+
+            frontierVertexes = nextVertexes.sum();
+            frontierEdges = nextEdges.sum();
+            unexploredEdges -= frontierEdges;
+            levels++;
+            if (!topDown) bottomUpLevels++;
+        }
+    }
+
+    // expand the vertexes of words [lo, hi) from level to level + 1
+    private class Level extends RecursiveAction {
+        private final int lo, hi, level;
+        private final boolean topDown;
+
+        Level(int lo, int hi, int level, boolean topDown) {
+            this.lo = lo;
+            this.hi = hi;
+            this.level = level;
+            this.topDown = topDown;
+        }
+
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Level(lo, mid, level, topDown), new Level(mid, hi, level, topDown));
+                return;
+            }
+            long vertexes = 0, edges = 0;
+            int V = G.V();
+            for (int i = lo; i < hi; i++) {
+                if (topDown) {
+                    for (long word = frontier.get(i); word != 0; word &= word - 1) {
+                        int v = (i << 6) + Long.numberOfTrailingZeros(word);
+                        for (int j = 0, degree = G.degree(v); j < degree; j++) {
+                            int w = G.neighbor(v, j);
+                            if (claim(visited, w)) {
+                                edgeTo[w] = v;
+                                distTo[w] = level + 1;
+                                set(next, w);
+                                vertexes++;
+                                edges += G.degree(w);
+                            }
+                        }
+                    }
+                }
+                else {
+                    // this task owns the words [lo, hi) of visited and next, so plain reads of them are stable
+                    long unvisited = ~visited.get(i);
+                    if (i == (V - 1) >>> 6 && (V & 63) != 0) unvisited &= (1L << V) - 1;
+                    long found = 0;
+                    for (; unvisited != 0; unvisited &= unvisited - 1) {
+                        int w = (i << 6) + Long.numberOfTrailingZeros(unvisited);
+                        for (int j = 0, degree = G.degree(w); j < degree; j++) {
+                            int v = G.neighbor(w, j);
+                            if ((frontier.get(v >>> 6) & (1L << v)) != 0) {
+                                edgeTo[w] = v;
+                                distTo[w] = level + 1;
+                                found |= 1L << w;
+                                vertexes++;
+                                edges += degree;
+                                break;
+                            }
+                        }
+                    }
+                    if (found != 0) {
+                        visited.getAndAccumulate(i, found, (a, b) -> a | b);
+                        next.set(i, found);
+                    }
+                }
+            }
+            nextVertexes.add(vertexes);
+            nextEdges.add(edges);
+        }
+    }
+
+    private static class Clear extends RecursiveAction {
+        private final AtomicLongArray bits;
+        private final int lo, hi;
+
+        Clear(AtomicLongArray bits, int lo, int hi) {
+            this.bits = bits;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > 16 * GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Clear(bits, lo, mid), new Clear(bits, mid, hi));
+                return;
+            }
+            for (int i = lo; i < hi; i++) {
+                bits.lazySet(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Is there a path between the source vertex s and vertex v?
+     * @param v the vertex
+     * @return true if there is a path, and false otherwise
+     */
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] != INFINITY;
+    }
+
+    /**
+     * @param v the vertex
+     * @return the number of edges in a shortest path
+     */
+    public int distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    public Iterable<Integer> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) {
+            return null;
+        }
+        Stack<Integer> path = new Stack<>();
+        int x;
+        for (x = v; distTo[x] != 0; x = edgeTo[x]) {
+            path.push(x);
+        }
+        path.push(x);
+        return path;
+    }
+
+    /**
+     * @return the number of levels the search expanded
+     */
+    public int levels() {
+        return levels;
+    }
+
+    /**
+     * @return the number of levels expanded bottom-up
+     */
+    public int bottomUpLevels() {
+        return bottomUpLevels;
+    }
+
+    /**
+     * Times the search against BreadFirstPaths on a random graph with 1 to N threads:
+     * java ParallelBreadFirstPaths V E [maxThreads] [seed]
+     */
+    public static void main(String[] args) {
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        if (args.length > 3) {
+            MattyRandom.setSeed(Long.parseLong(args[3]));
+        }
+
+        Graphic G = new Graphic(V);
+        for (int i = 0; i < E; i++) {
+            G.addEdge(MattyRandom.uniform(V), MattyRandom.uniform(V));
+        }
+        CSRGraphic csr = G.freeze();
+        int s = MattyRandom.uniform(V);
+
+        BreadFirstPaths expected = new BreadFirstPaths(G, s);
+        long start = System.nanoTime();
+        for (int r = 0; r < 3; r++) {
+            expected = new BreadFirstPaths(G, s);
+        }
+        double sequential = (System.nanoTime() - start) / 3e9;
+        System.out.printf("BreadFirstPaths:            %8.3f s%n", sequential);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ParallelBreadFirstPaths bfs = new ParallelBreadFirstPaths(csr, s, pool);
+            start = System.nanoTime();
+            for (int r = 0; r < 3; r++) {
+                bfs = new ParallelBreadFirstPaths(csr, s, pool);
+            }
+            double seconds = (System.nanoTime() - start) / 3e9;
+            pool.shutdown();
+
+            for (int v = 0; v < V; v++) {
+                if (bfs.distTo(v) != expected.distTo(v)) {
+                    throw new IllegalStateException("distTo(" + v + ") = " + bfs.distTo(v) + ", expected " + expected.distTo(v));
+                }
+            }
+            System.out.printf("ParallelBreadFirstPaths %2d: %8.3f s  speedup %.2f  (%d levels, %d bottom-up)%n",
+                    threads, seconds, sequential / seconds, bfs.levels(), bfs.bottomUpLevels());
+        }
+    }
+}
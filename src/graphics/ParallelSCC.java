@@ -0,0 +1,490 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.MattyRandom;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并行的强连通分量 (Multistep: Slota, Rajamanickam, Madduri, "BFS and Coloring-based Parallel Algorithms for
+ * Strongly Connected Components and Related Problems")
+ *
+ * TarjanSCC是一次深度优先搜索，本质上是串行的。这里把三种可以并行的方法组合起来，每一步都只处理还没有归入任何分量的顶点：
+ *
+ * 1. 修剪 (trim)：没有入边或者没有出边（不算自环）的顶点自己就是一个强连通分量。
+ *    每一轮并行地检查所有顶点，去掉它们之后可能又会出现新的这种顶点，所以重复进行，直到一轮去掉的顶点太少为止。
+ * 2. 正向-反向 (forward-backward)：从一个顶点p出发，在G中正向搜索得到p能到达的顶点，在G的反向图中搜索得到能到达p的顶点，
+ *    两者的交集就是p所在的强连通分量。两次搜索都是按层同步的并行广度优先搜索。
+ *    真实的图中通常有一个包含大部分顶点的巨大分量，p选入度与出度之积最大的顶点，一次就能把它找出来。
+ * 3. 染色 (coloring)：剩下的是大量小分量。每个顶点的颜色初始化为自己的编号，然后并行地沿着边传播较大的颜色，直到不再变化：
+ *    颜色c就是能够到达该顶点的最大顶点编号。颜色等于自身编号的顶点r是根，r的分量就是颜色为r、并且在反向图中能到达r的顶点；
+ *    各个根的反向搜索互不相交，可以并行进行。每一轮至少找出一个分量（编号最大的顶点所在的分量）。
+ *
+ * 剩下的顶点少于SERIAL_CUTOFF时，最后由TarjanSCC的串行搜索处理。
+ *
+ * 得到的分量与TarjanSCC相同，但编号的顺序取决于线程的调度，不是拓扑顺序。
+ */
+
+public class ParallelSCC {
+
+    private static final int GRAIN = 1 << 12;           // vertexes per task in a pass over all vertexes
+    private static final int FRONTIER_GRAIN = 1 << 10;  // frontier vertexes per task in a search
+    private static final int SERIAL_CUTOFF = 1 << 14;   // fewer remaining vertexes are left to TarjanSCC
+    private static final int TRIM_FRACTION = 64;        // trim again while a round removes more than 1/64 of the rest
+    private static final int FORWARD = 1;
+    private static final int BACKWARD = 2;
+
+    private final IntGraph G;                   // the direct graph
+    private final IntGraph R;                   // its reverse
+    private final ForkJoinPool pool;
+    private final int[] id;                     // id[v] = id of the strong component containing v, -1 if not known yet
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicIntegerArray marks;     // FORWARD and BACKWARD bits of the forward-backward searches, then colors
+    private final int[] queue;                  // the levels of a search, one after another
+    private final AtomicInteger tail = new AtomicInteger();
+    private int remaining;                      // number of vertexes v with id[v] == -1
+    private int trimmed;                        // statistics: components found by each step
+    private int pivots;
+    private int colorings;
+    private int serial;
+
+    /**
+     * Computes the strong components of the direct graph G, using the common ForkJoinPool
+     * @param G the direct graph
+     */
+    public ParallelSCC(DirectGraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(DirectGraph G, ForkJoinPool pool) {
+        this(G.freeze(), pool);
+    }
+
+    /**
+     * Computes the strong components of the direct CSR graph G
+     * @param G the direct graph
+     * @param pool the pool every step is spread across
+     */
+    public ParallelSCC(CSRGraphic G, ForkJoinPool pool) {
+        if (!G.isDirected()) throw new IllegalArgumentException("strong components need a direct graph");
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        this.G = G;
+        this.R = G.reverse();
+        this.pool = pool;
+        int V = G.V();
+        id = new int[V];
+        Arrays.fill(id, -1);
+        marks = new AtomicIntegerArray(V);
+        queue = new int[V];
+        remaining = V;
+
+        trim();
+        forwardBackward();
+        while (remaining > SERIAL_CUTOFF) {
+            trim();
+            if (remaining <= SERIAL_CUTOFF) break;
+            color();
+        }
+        if (remaining > 0) {
+            int before = count.get();
+            count.set(TarjanSCC.assign(G, id, before));
+            serial = count.get() - before;
+        }
+    }
+
+    private void validateVertex(int v) {
+        int V = id.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    // does v have an edge in H to another vertex whose component is not known yet?
+    private boolean hasLiveNeighbor(IntGraph H, int v) {
+        for (int i = 0, degree = H.degree(v); i < degree; i++) {
+            int w = H.neighbor(v, i);
+            if (w != v && id[w] < 0) return true;
+        }
+        return false;
+    }
+
+    // a pass over the vertexes [lo, hi) that splits itself in GRAIN-sized tasks
+    private abstract class Pass extends RecursiveAction {
+        final int lo, hi;
+
+        Pass(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo <= GRAIN) {
+                for (int v = lo; v < hi; v++) {
+                    visit(v);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(split(lo, mid), split(mid, hi));
+        }
+
+        abstract Pass split(int lo, int hi);
+
+        abstract void visit(int v);
+    }
+
+    // 1. a vertex without live in-edges or out-edges is a strong component on its own
+    private class Trim extends Pass {
+        final LongAdder found;
+
+        Trim(int lo, int hi, LongAdder found) {
+            super(lo, hi);
+            this.found = found;
+        }
+
+        Pass split(int lo, int hi) {
+            return new Trim(lo, hi, found);
+        }
+
+        void visit(int v) {
+            if (id[v] < 0 && (!hasLiveNeighbor(G, v) || !hasLiveNeighbor(R, v))) {
+                id[v] = count.getAndIncrement();
+                found.increment();
+            }
+        }
+    }
+
+    private void trim() {
+        while (remaining > 0) {
+            LongAdder found = new LongAdder();
+            pool.invoke(new Trim(0, id.length, found));
+            int n = found.intValue();
+            remaining -= n;
+            trimmed += n;
+            if (n <= remaining / TRIM_FRACTION) break;
+        }
+    }
+
+    // atomically set bit in marks[v], return false if it was already set
+    private boolean claim(int v, int bit) {
+        while (true) {
+            int old = marks.get(v);
+            if ((old & bit) != 0) return false;
+            if (marks.compareAndSet(v, old, old | bit)) return true;
+        }
+    }
+
+    // expands the frontier queue[lo, hi) of a search in H, appending the next level at tail
+    private class Expand extends RecursiveAction {
+        final IntGraph H;
+        final int bit;
+        final int lo, hi;
+
+        Expand(IntGraph H, int bit, int lo, int hi) {
+            this.H = H;
+            this.bit = bit;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > FRONTIER_GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Expand(H, bit, lo, mid), new Expand(H, bit, mid, hi));
+                return;
+            }
+            int[] found = new int[64];
+            int n = 0;
+            for (int k = lo; k < hi; k++) {
+                int v = queue[k];
+                for (int i = 0, degree = H.degree(v); i < degree; i++) {
+                    int w = H.neighbor(v, i);
+                    if (id[w] < 0 && claim(w, bit)) {
+                        if (n == found.length) found = Arrays.copyOf(found, 2 * n);
+                        found[n++] = w;
+                    }
+                }
+            }
+            System.arraycopy(found, 0, queue, tail.getAndAdd(n), n);
+        }
+    }
+
+    // marks bit on every live vertex reachable from s in H, one level at a time
+    private void reach(IntGraph H, int s, int bit) {
+        claim(s, bit);
+        queue[0] = s;
+        tail.set(1);
+        int head = 0;
+        while (head < tail.get()) {
+            int end = tail.get();
+            pool.invoke(new Expand(H, bit, head, end));
+            head = end;
+        }
+    }
+
+    // 2. the component of the live vertex with the largest in-degree * out-degree, by a forward and a backward search
+    private void forwardBackward() {
+        int V = id.length;
+        int pivot = -1;
+        long best = -1;
+        for (int v = 0; v < V; v++) {
+            if (id[v] < 0) {
+                long product = (long) G.degree(v) * R.degree(v);
+                if (product > best) {
+                    best = product;
+                    pivot = v;
+                }
+            }
+        }
+        if (pivot < 0) return;
+
+        pivots++;
+        reach(G, pivot, FORWARD);
+        reach(R, pivot, BACKWARD);
+        int component = count.getAndIncrement();
+        LongAdder found = new LongAdder();
+        pool.invoke(new Collect(0, V, component, found));
+        remaining -= found.intValue();
+    }
+
+    // the vertexes reached by both searches form the component; clears the marks for the coloring
+    private class Collect extends Pass {
+        final int component;
+        final LongAdder found;
+
+        Collect(int lo, int hi, int component, LongAdder found) {
+            super(lo, hi);
+            this.component = component;
+            this.found = found;
+        }
+
+        Pass split(int lo, int hi) {
+            return new Collect(lo, hi, component, found);
+        }
+
+        void visit(int v) {
+            if (marks.get(v) == (FORWARD | BACKWARD)) {
+                id[v] = component;
+                found.increment();
+            }
+            marks.set(v, 0);
+        }
+    }
+
+    // 3. one round of coloring: propagate the largest vertex that reaches each vertex, then search backwards from the roots
+    private void color() {
+        int V = id.length;
+        pool.invoke(new InitColors(0, V));
+        while (true) {
+            LongAdder changed = new LongAdder();
+            pool.invoke(new Propagate(0, V, changed));
+            if (changed.sum() == 0) break;
+        }
+
+        int roots = 0;
+        for (int v = 0; v < V; v++) {
+            if (id[v] < 0 && marks.get(v) == v) {
+                queue[roots++] = v;
+            }
+        }
+        LongAdder found = new LongAdder();
+        pool.invoke(new Backward(0, roots, found));
+        remaining -= found.intValue();
+        colorings += roots;
+    }
+
+    private class InitColors extends Pass {
+        InitColors(int lo, int hi) {
+            super(lo, hi);
+        }
+
+        Pass split(int lo, int hi) {
+            return new InitColors(lo, hi);
+        }
+
+        void visit(int v) {
+            marks.set(v, v);
+        }
+    }
+
+    private class Propagate extends Pass {
+        final LongAdder changed;
+
+        Propagate(int lo, int hi, LongAdder changed) {
+            super(lo, hi);
+            this.changed = changed;
+        }
+
+        Pass split(int lo, int hi) {
+            return new Propagate(lo, hi, changed);
+        }
+
+        void visit(int v) {
+            if (id[v] >= 0) return;
+            int color = marks.get(v);
+            for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                int w = G.neighbor(v, i);
+                if (id[w] >= 0) continue;
+                int old = marks.get(w);
+                while (old < color) {
+                    if (marks.compareAndSet(w, old, color)) {
+                        changed.increment();
+                        break;
+                    }
+                    old = marks.get(w);
+                }
+            }
+        }
+    }
+
+    // the backward searches from the roots queue[lo, hi), each within the vertexes of its color
+    private class Backward extends RecursiveAction {
+        final int lo, hi;
+        final LongAdder found;
+
+        Backward(int lo, int hi, LongAdder found) {
+            this.lo = lo;
+            this.hi = hi;
+            this.found = found;
+        }
+
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Backward(lo, mid, found), new Backward(mid, hi, found));
+                return;
+            }
+            int root = queue[lo];
+            int component = count.getAndIncrement();
+            int[] stack = new int[16];
+            int n = 0;
+            id[root] = component;
+            stack[n++] = root;
+            int size = 1;
+            while (n > 0) {
+                int v = stack[--n];
+                for (int i = 0, degree = R.degree(v); i < degree; i++) {
+                    int w = R.neighbor(v, i);
+                    if (id[w] < 0 && marks.get(w) == root) {
+                        id[w] = component;
+                        size++;
+                        if (n == stack.length) stack = Arrays.copyOf(stack, 2 * n);
+                        stack[n++] = w;
+                    }
+                }
+            }
+            found.add(size);
+        }
+    }
+
+    /**
+     * @return the number of strong components
+     */
+    public int count() {
+        return count.get();
+    }
+
+    /**
+     * @param v vertex
+     * @return the id of the strong component containing v, between 0 and count() - 1
+     */
+    public int id(int v) {
+        validateVertex(v);
+        return id[v];
+    }
+
+    /**
+     * Are vertexes v and w in the same strong component?
+     * @param v vertex
+     * @param w vertex
+     * @return true if v and w are strongly connected
+     */
+    public boolean stronglyConnected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return id[v] == id[w];
+    }
+
+    /**
+     * Builds the condensation of G: vertex c is the strong component with id c,
+     * and there is one edge c1 -> c2 for every pair of components joined by at least one edge of G
+     * @return the condensation, a direct acyclic graph with count() vertexes
+     */
+    public DirectGraph condensation() {
+        return TarjanSCC.condensation(G, id, count());
+    }
+
+    /**
+     * @return how many components were found by trimming, by forward-backward, by coloring and by the final serial search
+     */
+    public String stats() {
+        return "trim " + trimmed + ", forward-backward " + pivots + ", coloring " + colorings + ", serial " + serial;
+    }
+
+    // check that both computations partition the vertexes the same way
+    private static void check(TarjanSCC expected, ParallelSCC scc, int V) {
+        if (expected.count() != scc.count()) {
+            throw new IllegalStateException(scc.count() + " components, expected " + expected.count());
+        }
+        int[] map = new int[V];
+        Arrays.fill(map, -1);
+        for (int v = 0; v < V; v++) {
+            int c = expected.id(v);
+            if (map[c] < 0) map[c] = scc.id(v);
+            else if (map[c] != scc.id(v)) {
+                throw new IllegalStateException("vertex " + v + " is in component " + scc.id(v) + ", expected " + map[c]);
+            }
+        }
+    }
+
+    /**
+     * Prints the strong components of a direct graph file: java ParallelSCC tinyDG.txt
+     * or times them against TarjanSCC on a random direct graph with 1 to N threads:
+     * java ParallelSCC V E [maxThreads] [seed]
+     */
+    public static void main(String[] args) {
+        if (args.length == 1) {
+            DirectGraph G = new DirectGraph(new In(args[0]));
+            ParallelSCC scc = new ParallelSCC(G);
+            System.out.println(scc.count() + " strong components");
+            for (int v = 0; v < G.V(); v++) {
+                System.out.println(v + ": " + scc.id(v));
+            }
+            return;
+        }
+
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        if (args.length > 3) {
+            MattyRandom.setSeed(Long.parseLong(args[3]));
+        }
+        int[] from = new int[E];
+        int[] to = new int[E];
+        for (int i = 0; i < E; i++) {
+            from[i] = MattyRandom.uniform(V);
+            to[i] = MattyRandom.uniform(V);
+        }
+        CSRGraphic G = new CSRGraphic(V, from, to, true);
+
+        long start = System.nanoTime();
+        TarjanSCC expected = new TarjanSCC(G);
+        double sequential = (System.nanoTime() - start) / 1e9;
+        System.out.printf("TarjanSCC:          %8.3f s  %d components%n", sequential, expected.count());
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            start = System.nanoTime();
+            ParallelSCC scc = new ParallelSCC(G, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+            check(expected, scc, V);
+            System.out.printf("ParallelSCC %2d:     %8.3f s  speedup %.2f  (%s)%n", threads, seconds, sequential / seconds, scc.stats());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import util.IndexMinPQ;
+import util.Queue;
+
+/**
+ * Prim算法的即时实现
+ *
+ * LazyPrimMST把所有横切边都放进优先队列，一条边的两个顶点都进入树之后它就失效了，但仍然留在队列中，队列最多会有E条边。
+ * 实际上对于每个不在树中的顶点w，我们只关心把它连接到树的那条权重最小的边：
+ * - edgeTo[w]: 将w和树连接的最短边
+ * - distTo[w]: 这条边的权重
+ * 把这些顶点w放进一个以distTo[w]为优先级的索引优先队列中，每次取出distTo最小的顶点加入树，
+ * 然后检查它的所有邻居，如果经过它到达某个邻居的边更短，就更新这个邻居的edgeTo和distTo，并减小它在队列中的优先级。
+ *
+ * 队列中最多只有V个顶点，稠密图中E远大于V时，需要的空间比LazyPrimMST小得多。
+ * 时间是 E log V，而LazyPrimMST是 E log E
+ */
+
+public class PrimMST {
+
+    private static final double FLOATING_POINT_EPSILON = 1E-12;
+
+    private Edge[] edgeTo;                  // edgeTo[v] = shortest edge from tree vertex to non-tree vertex
+    private double[] distTo;                // distTo[v] = weight of shortest such edge
+    private boolean[] marked;               // marked[v] = true if v on tree, false otherwise
+    private IndexMinPQ<Double> pq;          // eligible crossing vertexes, by distTo[]
+
+    public PrimMST(EdgeWeightedGraph G) {
+        edgeTo = new Edge[G.V()];
+        distTo = new double[G.V()];
+        marked = new boolean[G.V()];
+        pq = new IndexMinPQ<>(G.V());
+        for (int v = 0; v < G.V(); v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+        }
+
+        // run from each vertex to find minimum spanning forest
+        for (int v = 0; v < G.V(); v++) {
+            if (!marked[v]) {
+                prim(G, v);
+            }
+        }
+
+        assert check(G);
+    }
+
+    // run Prim's algorithm in graph G, starting from vertex s
+    private void prim(EdgeWeightedGraph G, int s) {
+        distTo[s] = 0.0;
+        pq.insert(s, distTo[s]);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            scan(G, v);
+        }
+    }
+
+    // add v to the tree, and update the shortest edges to its neighbors
+    private void scan(EdgeWeightedGraph G, int v) {
+        marked[v] = true;
+        for (Edge e : G.adj(v)) {
+            int w = e.other(v);
+            if (marked[w]) {
+                continue;           // v-w is an obsolete edge
+            }
+            if (e.weight() < distTo[w]) {
+                distTo[w] = e.weight();
+                edgeTo[w] = e;
+                if (pq.contains(w)) {
+                    pq.decreaseKey(w, distTo[w]);
+                }
+                else {
+                    pq.insert(w, distTo[w]);
+                }
+            }
+        }
+    }
+
+    public Iterable<Edge> edges() {
+        Queue<Edge> mst = new Queue<>();
+        for (int v = 0; v < edgeTo.length; v++) {
+            Edge e = edgeTo[v];
+            if (e != null) {
+                mst.enqueue(e);
+            }
+        }
+        return mst;
+    }
+
+    public double weight() {
+        double weight = 0.0;
+        for (Edge e : edges()) {
+            weight += e.weight();
+        }
+        return weight;
+    }
+
+    // check that the weight is the same as the one found by KruskalMST
+    private boolean check(EdgeWeightedGraph G) {
+        double expected = new KruskalMST(G).weight();
+        if (Math.abs(weight() - expected) > FLOATING_POINT_EPSILON * Math.max(1.0, expected)) {
+            System.err.printf("Weight of edges does not equal weight(): %f vs. %f\n", weight(), expected);
+            return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+        PrimMST mst = new PrimMST(G);
+        for (Edge e : mst.edges()) {
+            System.out.println(e);
+        }
+        System.out.printf("%.5f\n", mst.weight());
+    }
+}
@@ -0,0 +1,238 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+
+/**
+ * 强连通分量 (Tarjan)：
+ * 有向图中，如果两个顶点v和w互相可达，就称它们是强连通的；强连通性是一种等价关系，它把所有顶点切分为强连通分量。
+ * 把每个强连通分量收缩成一个顶点得到的图（缩点图, condensation）一定是有向无环图，
+ * 例如在依赖图中，互相依赖的模块会被收缩成一个顶点，然后就可以在缩点图上进行拓扑排序。
+ *
+ * Tarjan算法只需要一次深度优先搜索：
+ * pre[v]是v的前序编号，low[v]是从v的子树出发、经过最多一条非树边能够到达的、还在栈上的顶点的最小前序编号。
+ * 每个顶点在第一次访问时被压入一个栈中；v的邻接表检查完之后，如果low[v] == pre[v]，
+ * v就是它所在的强连通分量中第一个被访问的顶点，栈中v和它上面的所有顶点构成一个强连通分量，把它们一起弹出。
+ *
+ * 搜索由DepthFirstWalker完成，不使用递归，所以在上千万个顶点的图上也不会StackOverflowError。
+ * 强连通分量的编号是按照它们被找到的顺序：如果缩点图中有一条边c1 -> c2，那么id(c1) > id(c2)，
+ * 也就是说编号从大到小就是缩点图的一个拓扑顺序。
+ *
+ * 运行时间与V + E成正比。
+ */
+
+public class TarjanSCC {
+
+    private final IntGraph G;
+    private final int[] id;             // id[v] = id of the strong component containing v
+    private int count;                  // number of strong components
+
+    /**
+     * Computes the strong components of the direct graph G
+     * @param G the direct graph
+     */
+    public TarjanSCC(IntGraph G) {
+        this.G = G;
+        id = new int[G.V()];
+        for (int v = 0; v < G.V(); v++) {
+            id[v] = -1;
+        }
+        count = assign(G, id, 0);
+        assert check();
+    }
+
+    /**
+     * Finds the strong components among the vertexes v with id[v] < 0 and numbers them from first on.
+     * The vertexes with id[v] >= 0 must be whole strong components already, they are skipped.
+     * @return first plus the number of strong components found
+     */
+    static int assign(IntGraph G, int[] id, int first) {
+        int V = G.V();
+        boolean[] marked = new boolean[V];
+        for (int v = 0; v < V; v++) {
+            marked[v] = id[v] >= 0;
+        }
+        Components components = new Components(id, V, first);
+        DepthFirstWalker walker = new DepthFirstWalker(G, marked);
+        for (int v = 0; v < V; v++) {
+            if (!marked[v]) {
+                walker.walk(v, components);
+            }
+        }
+        return components.count;
+    }
+
+    // the Tarjan bookkeeping, driven by the depth-first search
+    // a vertex is on the stack iff it has been visited (pre[v] is set) and its component is not known yet (id[v] < 0)
+    private static class Components implements DepthFirstWalker.Visitor {
+        private final int[] id;
+        private final int[] pre;            // pre[v] = preorder number of v
+        private final int[] low;            // low[v] = low number of v
+        private final int[] stack;
+        private int top;
+        private int preCounter;
+        private int count;
+
+        Components(int[] id, int V, int first) {
+            this.id = id;
+            pre = new int[V];
+            low = new int[V];
+            stack = new int[V];
+            count = first;
+        }
+
+        public void preVisit(int v, int parent) {
+            pre[v] = preCounter;
+            low[v] = preCounter;
+            preCounter++;
+            stack[top++] = v;
+        }
+
+        public void nonTreeEdge(int v, int w) {
+            if (id[w] < 0 && pre[w] < low[v]) {
+                low[v] = pre[w];
+            }
+        }
+
+        public void postVisit(int v, int parent) {
+            if (low[v] == pre[v]) {
+                int w;
+                do {
+                    w = stack[--top];
+                    id[w] = count;
+                } while (w != v);
+                count++;
+            }
+            else if (low[v] < low[parent]) {
+                low[parent] = low[v];
+            }
+        }
+    }
+
+    private void validateVertex(int v) {
+        int V = id.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    /**
+     * @return the number of strong components
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @param v vertex
+     * @return the id of the strong component containing v, between 0 and count() - 1
+     */
+    public int id(int v) {
+        validateVertex(v);
+        return id[v];
+    }
+
+    /**
+     * Are vertexes v and w in the same strong component?
+     * @param v vertex
+     * @param w vertex
+     * @return true if v and w are strongly connected
+     */
+    public boolean stronglyConnected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return id[v] == id[w];
+    }
+
+    /**
+     * Builds the condensation of G: vertex c is the strong component with id c,
+     * and there is one edge c1 -> c2 for every pair of components joined by at least one edge of G
+     * @return the condensation, a direct acyclic graph with count() vertexes
+     */
+    public DirectGraph condensation() {
+        return condensation(G, id, count);
+    }
+
+    /**
+     * @return the condensation of G for the strong components id[] numbered 0 to count - 1
+     */
+    static DirectGraph condensation(IntGraph G, int[] id, int count) {
+        int V = G.V();
+        // counting sort the vertexes by component
+        int[] start = new int[count + 1];
+        for (int v = 0; v < V; v++) {
+            start[id[v] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            start[c + 1] += start[c];
+        }
+        int[] members = new int[V];
+        int[] next = new int[count];
+        System.arraycopy(start, 0, next, 0, count);
+        for (int v = 0; v < V; v++) {
+            members[next[id[v]]++] = v;
+        }
+
+        DirectGraph dag = new DirectGraph(count);
+        int[] last = new int[count];            // last[d] = the last component with an edge to d found so far, plus one
+        for (int c = 0; c < count; c++) {
+            for (int k = start[c]; k < start[c + 1]; k++) {
+                int v = members[k];
+                for (int i = 0, degree = G.degree(v); i < degree; i++) {
+                    int d = id[G.neighbor(v, i)];
+                    if (d != c && last[d] != c + 1) {
+                        last[d] = c + 1;
+                        dag.addEdge(c, d);
+                    }
+                }
+            }
+        }
+        return dag;
+    }
+
+    // check that id[] gives the same partition as mutual reachability, with a search from every vertex; for small graphs
+    private boolean check() {
+        int V = G.V();
+        if ((long) V * V > 1_000_000) return true;
+        boolean[][] reach = new boolean[V][];
+        for (int v = 0; v < V; v++) {
+            DirectedDFS dfs = new DirectedDFS(G, v);
+            reach[v] = new boolean[V];
+            for (int w = 0; w < V; w++) {
+                reach[v][w] = dfs.marked(w);
+            }
+        }
+        for (int v = 0; v < V; v++) {
+            for (int w = 0; w < V; w++) {
+                if (stronglyConnected(v, w) != (reach[v][w] && reach[w][v])) {
+                    System.err.println(v + " and " + w + " are " + (stronglyConnected(v, w) ? "" : "not ") + "in the same component");
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        DirectGraph G = new DirectGraph(in);
+        TarjanSCC scc = new TarjanSCC(G);
+
+        // number of strong components
+        int m = scc.count();
+        System.out.println(m + " strong components");
+
+        // the components, one per line
+        StringBuilder[] components = new StringBuilder[m];
+        for (int i = 0; i < m; i++) {
+            components[i] = new StringBuilder();
+        }
+        for (int v = 0; v < G.V(); v++) {
+            components[scc.id(v)].append(v).append(" ");
+        }
+        for (int i = 0; i < m; i++) {
+            System.out.println(components[i]);
+        }
+        System.out.println("condensation:");
+        System.out.print(scc.condensation());
+    }
+}
@@ -0,0 +1,166 @@
+package graphics;
+
+import util.MattyRandom;
+
+import java.util.Arrays;
+
+/**
+ * 可重复使用的搜索工作区：
+ * BreadFirstPaths、DeepFirstPaths、DirectedDFS和DeepFirstSearch每次构造都要分配并清零marked[]、edgeTo[]等大小为V的数组，
+ * 一次搜索可能只访问几十个顶点，却要为5000万个顶点的数组付出清零和垃圾回收的代价。
+ *
+ * 工作区把这些数组保存下来，给下一次搜索继续使用：
+ * 标记不再是boolean，而是int时间戳(epoch)，每次搜索开始时把epoch加一，mark[v] == epoch的顶点才是这次搜索标记过的，
+ * 所以重置的代价是O(1)。edgeTo[]和distTo[]只在被标记的顶点上有意义，不需要清零；它们在第一次被用到时才分配。
+ *
+ * 用工作区构造的搜索结果是工作区的一个视图，只在同一个工作区开始下一次搜索之前有效，之后再查询会抛出IllegalStateException；
+ * 需要长期保存的结果用原来的构造函数。工作区不是线程安全的，forThread()为每个线程保存一个工作区，
+ * 查询服务中的每个线程都可以借用自己的那一个，而不需要加锁。
+ */
+
+public final class TraversalWorkspace {
+
+    private static final ThreadLocal<TraversalWorkspace> POOL = new ThreadLocal<>();
+
+    private final int capacity;         // the largest number of vertexes of a graph this workspace can search
+    private final int[] mark;           // mark[v] == epoch iff v has been marked by the current search
+    private int[] edgeTo;
+    private int[] distTo;
+    private int[] queue;
+    private int epoch;
+
+    /**
+     * @param capacity the number of vertexes of the largest graph to be searched with this workspace
+     */
+    public TraversalWorkspace(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be non-negative");
+        this.capacity = capacity;
+        mark = new int[capacity];
+    }
+
+    /**
+     * Borrows the workspace of the calling thread, replacing it by a larger one if it cannot hold V vertexes
+     * @param V the number of vertexes of the graph to be searched
+     * @return the workspace of the calling thread
+     */
+    public static TraversalWorkspace forThread(int V) {
+        TraversalWorkspace workspace = POOL.get();
+        if (workspace == null || workspace.capacity < V) {
+            workspace = new TraversalWorkspace(V);
+            POOL.set(workspace);
+        }
+        return workspace;
+    }
+
+    /**
+     * @return the largest number of vertexes of a graph this workspace can search
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    // starts a new search on G: every vertex becomes unmarked, the results of the previous search become invalid
+    int begin(IntGraph G) {
+        if (G.V() > capacity) {
+            throw new IllegalArgumentException("graph has " + G.V() + " vertexes, the workspace holds " + capacity);
+        }
+        epoch = nextEpoch(epoch, mark);
+        return epoch;
+    }
+
+    // the stamp of the search after the one stamped epoch, for every class that marks its vertexes with int stamps;
+    // when the stamps wrap around, clears the marks once every 2^32 searches
+    static int nextEpoch(int epoch, int[]... marks) {
+        if (++epoch == 0) {
+            for (int[] mark : marks) {
+                Arrays.fill(mark, 0);
+            }
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    int epoch() {
+        return epoch;
+    }
+
+    int[] mark() {
+        return mark;
+    }
+
+    // has v been marked by the search that began with epoch?
+    boolean marked(int v, int epoch) {
+        if (epoch != this.epoch) {
+            throw new IllegalStateException("the workspace has been reused by another search");
+        }
+        return mark[v] == epoch;
+    }
+
+    int[] edgeTo() {
+        if (edgeTo == null) edgeTo = new int[capacity];
+        return edgeTo;
+    }
+
+    int[] distTo() {
+        if (distTo == null) distTo = new int[capacity];
+        return distTo;
+    }
+
+    int[] queue() {
+        if (queue == null) queue = new int[capacity];
+        return queue;
+    }
+
+    /**
+     * Runs the same searches from random sources with new arrays and with the workspace of the thread,
+     * checks that they agree, and times both; with E < V / 2 most components are small,
+     * so most of the time of the first kind goes to allocating and zeroing arrays: java TraversalWorkspace V E [queries] [seed]
+     */
+    public static void main(String[] args) {
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        if (args.length > 3) {
+            MattyRandom.setSeed(Long.parseLong(args[3]));
+        }
+        int[] from = new int[E];
+        int[] to = new int[E];
+        for (int i = 0; i < E; i++) {
+            from[i] = MattyRandom.uniform(V);
+            to[i] = MattyRandom.uniform(V);
+        }
+        CSRGraphic G = new CSRGraphic(V, from, to, false);
+        int[] sources = new int[queries];
+        int[] targets = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            sources[q] = MattyRandom.uniform(V);
+            targets[q] = MattyRandom.uniform(V);
+        }
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            BreadFirstPaths bfs = new BreadFirstPaths(G, sources[q]);
+            checksum += bfs.hasPathTo(targets[q]) ? bfs.distTo(targets[q]) : -1;
+            checksum += new DeepFirstSearch(G, sources[q]).count();
+            checksum += new DeepFirstPaths(G, sources[q]).hasPathTo(targets[q]) ? 1 : 0;
+        }
+        double fresh = (System.nanoTime() - start) / 1e9;
+
+        long pooled = 0;
+        start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            TraversalWorkspace workspace = TraversalWorkspace.forThread(V);
+            BreadFirstPaths bfs = new BreadFirstPaths(G, sources[q], workspace);
+            pooled += bfs.hasPathTo(targets[q]) ? bfs.distTo(targets[q]) : -1;
+            pooled += new DeepFirstSearch(G, sources[q], workspace).count();
+            pooled += new DeepFirstPaths(G, sources[q], workspace).hasPathTo(targets[q]) ? 1 : 0;
+        }
+        double reused = (System.nanoTime() - start) / 1e9;
+        if (pooled != checksum) {
+            throw new IllegalStateException("checksum " + pooled + ", expected " + checksum);
+        }
+        System.out.printf("new arrays:  %8.3f s  %8.1f us per query%n", fresh, fresh * 1e6 / queries);
+        System.out.printf("workspace:   %8.3f s  %8.1f us per query%n", reused, reused * 1e6 / queries);
+    }
+}
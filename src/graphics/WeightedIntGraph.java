@@ -0,0 +1,36 @@
+package graphics;
+
+/**
+ * An IntGraph whose adjacency entries carry edge weights, walked with the same cursor:
+ *
+ *     for (int i = 0, d = G.degree(v); i < d; i++) {
+ *         int w = G.neighbor(v, i);
+ *         double weight = G.weight(v, i);
+ *         ...
+ *     }
+ *
+ * In an undirected graph every edge v-w appears in the adjacency lists of both v and w, with the same weight,
+ * and a self-loop appears twice in the list of its vertex.
+ * OffHeapGraphic and MappedGraphic may hold a graph without weights, so the algorithms that read the weights
+ * check isWeighted() before they start.
+ */
+public interface WeightedIntGraph extends IntGraph {
+
+    /**
+     * @return true if the edges are directed edges v -> neighbor(v, i)
+     */
+    boolean isDirected();
+
+    /**
+     * @return true if the edges carry weights; if not, weight(v, i) throws UnsupportedOperationException
+     */
+    boolean isWeighted();
+
+    /**
+     * @param v vertex
+     * @param i index into the adjacency list of v, between 0 and degree(v) - 1
+     * @return the weight of the edge from v to neighbor(v, i)
+     * @throws UnsupportedOperationException if the graph is not weighted
+     */
+    double weight(int v, int i);
+}
@@ -0,0 +1,348 @@
+package hashtable;
+
+import edu.princeton.cs.algs4.Queue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程安全的拉链法散列表（思路来自java.util.concurrent.ConcurrentHashMap）
+ *
+ * 用一把全局锁保护HashST时，所有线程的get()也要排队。这里：
+ * - 读不加锁：链表结点的value和next都是volatile的，get()沿着链表读下去就能看到最近一次写入的值；
+ * - 写只锁一条链表：空链表用CAS把新结点放到表头，非空链表用synchronized锁住表头结点，不同链表上的写互不影响；
+ * - 计数用LongAdder，避免所有写线程争抢同一个计数器。
+ *
+ * 并发扩容：
+ * 键值对数量超过表大小的3/4时，分配一张两倍大的新表，然后把旧表的链表一段一段 (STRIDE条) 地迁移过去。
+ * 迁移一条链表时锁住它的表头，把结点复制到新表的i和i + m两条链表中，再把旧表的这个位置换成一个转发结点 (ForwardingNode)。
+ * 因为是复制而不是移动结点，正在旧链表上读的线程不受影响。
+ * 读线程遇到转发结点就到新表中去找；写线程遇到转发结点就先帮忙迁移剩下的链表，再到新表中去写。
+ * 最后一个完成迁移的线程把新表设置为当前的表。
+ *
+ * 和ConcurrentHashMap一样，表只扩大不缩小；keys()是弱一致的：它返回的键反映了遍历期间某个时刻的状态，不会抛出异常。
+ */
+
+public class ConcurrentHashST<Key, Value> {
+
+    private static final int INIT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int STRIDE = 16;           // number of chains a thread claims at a time when migrating
+    private static final int MOVED = -1;            // hash of a forwarding node, real hashes are non-negative
+
+    private static class Node<Key, Value> {
+        final int hash;
+        final Key key;
+        volatile Value value;
+        volatile Node<Key, Value> next;
+
+        Node(int hash, Key key, Value value, Node<Key, Value> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    // placed in a chain of the old table once the chain has been migrated
+    private static class ForwardingNode<Key, Value> extends Node<Key, Value> {
+        final Resize<Key, Value> resize;
+
+        ForwardingNode(Resize<Key, Value> resize) {
+            super(MOVED, null, null, null);
+            this.resize = resize;
+        }
+    }
+
+    // the state of a resize, shared by all the threads that help with it
+    private static class Resize<Key, Value> {
+        final AtomicReferenceArray<Node<Key, Value>> oldTable;
+        final AtomicReferenceArray<Node<Key, Value>> newTable;
+        final ForwardingNode<Key, Value> forward;
+        final AtomicInteger transferIndex;          // chains below transferIndex are still to be claimed
+        final AtomicInteger migrated = new AtomicInteger();   // number of chains migrated
+
+        Resize(AtomicReferenceArray<Node<Key, Value>> oldTable) {
+            this.oldTable = oldTable;
+            this.newTable = new AtomicReferenceArray<>(2 * oldTable.length());
+            this.forward = new ForwardingNode<>(this);
+            this.transferIndex = new AtomicInteger(oldTable.length());
+        }
+    }
+
+    private volatile AtomicReferenceArray<Node<Key, Value>> table;
+    private volatile Resize<Key, Value> resize;     // the resize in progress, or null
+    private final Object resizeLock = new Object(); // guards starting and finishing a resize
+    private final LongAdder count = new LongAdder();
+
+    public ConcurrentHashST() {
+        this(INIT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the initial number of chains, rounded up to a power of 2
+     */
+    public ConcurrentHashST(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        }
+        int m = Integer.highestOneBit(capacity);
+        if (m < capacity) m *= 2;
+        table = new AtomicReferenceArray<>(Math.max(2, m));
+    }
+
+    // hash function for keys - non-negative, the index of the chain is hash & (m-1)
+    // (from Java 7 implementation, protects against poor quality hashCode() implementations)
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12) ^ (h >>> 7) ^ (h >>> 4);
+        return h & 0x7fffffff;
+    }
+
+    /**
+     * @return the number of key-value pairs; exact when no other thread is writing
+     */
+    public int size() {
+        return (int) Math.min(count.sum(), Integer.MAX_VALUE);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean contains(Key key) {
+        if (key == null) throw new IllegalArgumentException("argument to contains() is null");
+        return get(key) != null;
+    }
+
+    public Value get(Key key) {
+        if (key == null) throw new IllegalArgumentException("argument to get() is null");
+        int h = hash(key);
+        AtomicReferenceArray<Node<Key, Value>> tab = table;
+        while (true) {
+            Node<Key, Value> e = tab.get(h & (tab.length() - 1));
+            if (e instanceof ForwardingNode) {
+                tab = ((ForwardingNode<Key, Value>) e).resize.newTable;
+                continue;
+            }
+            for (; e != null; e = e.next) {
+                if (e.hash == h && e.key.equals(key)) {
+                    return e.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    public void put(Key key, Value value) {
+        if (key == null) throw new IllegalArgumentException("argument to put() is null");
+        if (value == null) {
+            delete(key);
+            return;
+        }
+
+        int h = hash(key);
+        AtomicReferenceArray<Node<Key, Value>> tab = table;
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Node<Key, Value> f = tab.get(i);
+            if (f == null) {
+                if (tab.compareAndSet(i, null, new Node<>(h, key, value, null))) {
+                    break;
+                }
+            }
+            else if (f instanceof ForwardingNode) {
+                Resize<Key, Value> r = ((ForwardingNode<Key, Value>) f).resize;
+                transfer(r);
+                tab = r.newTable;
+            }
+            else {
+                synchronized (f) {
+                    if (tab.get(i) != f) continue;      // the head changed while we waited for the lock, retry
+                    for (Node<Key, Value> e = f; ; e = e.next) {
+                        if (e.hash == h && e.key.equals(key)) {
+                            e.value = value;
+                            return;
+                        }
+                        if (e.next == null) {
+                            e.next = new Node<>(h, key, value, null);
+                            break;
+                        }
+                    }
+                }
+                break;
+            }
+        }
+
+        count.increment();
+        // grow when the average chain is 3/4 long
+        if (count.sum() >= 3L * (tab.length() / 4)) {
+            startResize(tab);
+        }
+    }
+
+    public void delete(Key key) {
+        if (key == null) throw new IllegalArgumentException("argument to delete() is null");
+
+        int h = hash(key);
+        AtomicReferenceArray<Node<Key, Value>> tab = table;
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Node<Key, Value> f = tab.get(i);
+            if (f == null) {
+                return;
+            }
+            if (f instanceof ForwardingNode) {
+                Resize<Key, Value> r = ((ForwardingNode<Key, Value>) f).resize;
+                transfer(r);
+                tab = r.newTable;
+                continue;
+            }
+            synchronized (f) {
+                if (tab.get(i) != f) continue;
+                // readers may still be walking the chain, so unlinking only ever changes one next pointer
+                for (Node<Key, Value> e = f, previous = null; e != null; previous = e, e = e.next) {
+                    if (e.hash == h && e.key.equals(key)) {
+                        if (previous == null) tab.set(i, e.next);
+                        else                  previous.next = e.next;
+                        count.decrement();
+                        return;
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    // start doubling tab, unless it is no longer the current table, then help to migrate it
+    private void startResize(AtomicReferenceArray<Node<Key, Value>> tab) {
+        Resize<Key, Value> r;
+        synchronized (resizeLock) {
+            r = resize;
+            if (r == null) {
+                if (table != tab || tab.length() >= MAX_CAPACITY) return;
+                r = new Resize<>(tab);
+                resize = r;
+            }
+        }
+        transfer(r);
+    }
+
+    // claim STRIDE chains at a time and migrate them, until every chain has been claimed
+    private void transfer(Resize<Key, Value> r) {
+        int m = r.oldTable.length();
+        while (true) {
+            int hi = r.transferIndex.get();
+            if (hi <= 0) return;
+            int lo = Math.max(0, hi - STRIDE);
+            if (!r.transferIndex.compareAndSet(hi, lo)) continue;
+            for (int i = lo; i < hi; i++) {
+                migrate(r, i);
+            }
+            if (r.migrated.addAndGet(hi - lo) == m) {
+                synchronized (resizeLock) {
+                    table = r.newTable;
+                    resize = null;
+                }
+                return;
+            }
+        }
+    }
+
+    // copy chain i of the old table into chains i and i + m of the new table, then forward it
+    private void migrate(Resize<Key, Value> r, int i) {
+        AtomicReferenceArray<Node<Key, Value>> tab = r.oldTable;
+        int m = tab.length();
+        while (true) {
+            Node<Key, Value> f = tab.get(i);
+            if (f == null) {
+                if (tab.compareAndSet(i, null, r.forward)) return;
+                continue;
+            }
+            synchronized (f) {
+                if (tab.get(i) != f) continue;
+                Node<Key, Value> low = null, high = null;
+                for (Node<Key, Value> e = f; e != null; e = e.next) {
+                    if ((e.hash & m) == 0) low = new Node<>(e.hash, e.key, e.value, low);
+                    else                   high = new Node<>(e.hash, e.key, e.value, high);
+                }
+                r.newTable.set(i, low);
+                r.newTable.set(i + m, high);
+                tab.set(i, r.forward);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the keys of the table. The iteration is weakly consistent: it reflects some state of the table at or
+     * after the call, keys put or deleted during the call may or may not be included.
+     */
+    public Iterable<Key> keys() {
+        Queue<Key> queue = new Queue<>();
+        AtomicReferenceArray<Node<Key, Value>> tab = table;
+        for (int i = 0; i < tab.length(); i++) {
+            collect(tab, i, queue);
+        }
+        return queue;
+    }
+
+    private void collect(AtomicReferenceArray<Node<Key, Value>> tab, int i, Queue<Key> queue) {
+        Node<Key, Value> e = tab.get(i);
+        if (e instanceof ForwardingNode) {
+            AtomicReferenceArray<Node<Key, Value>> next = ((ForwardingNode<Key, Value>) e).resize.newTable;
+            collect(next, i, queue);
+            collect(next, i + tab.length(), queue);
+            return;
+        }
+        for (; e != null; e = e.next) {
+            if (e.value != null) queue.enqueue(e.key);
+        }
+    }
+
+    /**
+     * Stress test: T threads put, get and delete their own keys at the same time, then the table is checked
+     * against what every thread knows it left behind.
+     * java ConcurrentHashST [threads] [keysPerThread]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        ConcurrentHashST<Integer, Integer> st = new ConcurrentHashST<>(2);
+
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < n; i++) {
+                    int key = i * threads + id;
+                    st.put(key, key);
+                    if (!Integer.valueOf(key).equals(st.get(key))) {
+                        throw new IllegalStateException("lost key " + key);
+                    }
+                    if (i % 2 == 1) st.delete(key);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        for (int key = 0; key < n * threads; key++) {
+            boolean expected = (key / threads) % 2 == 0;
+            if (st.contains(key) != expected) {
+                throw new IllegalStateException("key " + key + (expected ? " is missing" : " was not deleted"));
+            }
+        }
+        int keys = 0;
+        for (Integer key : st.keys()) keys++;
+        if (keys != st.size() || st.size() != threads * ((n + 1) / 2)) {
+            throw new IllegalStateException("size " + st.size() + ", keys " + keys);
+        }
+        System.out.printf("%d threads, %d keys: ok, %.1f M ops/s%n", threads, st.size(), 3.0 * n * threads / seconds / 1e6);
+    }
+}
@@ -37,25 +37,43 @@ import edu.princeton.cs.algs4.StdOut;
  * 处理碰撞：
  * 大小为M的数组中的每个元素指向一条链表；
  * 选择足够大的M，是每条链表都尽可能短
+ *
+ * 渐进式rehash（和Redis的dict一样）：
+ * resize()会一次性把n个键全部重新插入新表，表中有几百万个键时，触发扩容的那一次put()要停顿几百毫秒。
+ * 渐进模式下扩容只分配新表，旧表保留下来，之后每次put/get/delete顺便把旧表中的一条链表迁移到新表，
+ * 直到旧表为空。迁移期间查找时，键所在的旧链表如果还没有迁移（而且不为空）就查旧表，否则查新表；
+ * 旧表中为空的链表不会再加入键，这些链表的新键直接放进新表。
+ * 这样每次操作最多多做一条链表的工作，停顿被均摊到了之后的m次操作中。
  */
 
 public class HashST<Key, Value> {
     private static final int INIT_CAPACITY = 4;
+    private static final int EMPTY_VISITS = 10;     // empty old chains skipped per rehash step, at most
 
     private int n;                                  // number of key-value pairs
     private int m;                                  // hash table size
-    private SequentialSearchST<Key, Value>[] st;    // array of linked-list symbol tables
+    private SequentialSearchST<Key, Value>[] st;    // array of linked-list symbol tables, null for an empty chain
+    private final boolean incremental;              // migrate the chains a few at a time instead of in one resize?
+    private SequentialSearchST<Key, Value>[] old;   // the table being migrated from, or null
+    private int oldM;                               // size of the old table
+    private int rehashIndex = -1;                   // old chains below rehashIndex have been migrated, -1 if not rehashing
 
     public HashST() {
         this(INIT_CAPACITY);
     }
 
     public HashST(int m) {
+        this(m, false);
+    }
+
+    /**
+     * @param m the initial number of chains, a power of 2
+     * @param incremental true to resize incrementally, migrating one chain per operation
+     */
+    public HashST(int m, boolean incremental) {
         this.m = m;
+        this.incremental = incremental;
         st = (SequentialSearchST<Key, Value>[]) new SequentialSearchST[m];
-        for (int i = 0; i < m; i++) {
-            st[i] = new SequentialSearchST<>();
-        }
     }
 
     // Hash function for keys - returns values between 0 - (m-1)
@@ -66,6 +84,10 @@ public class HashST<Key, Value> {
     // hash function for keys - returns value between 0 and m-1 (assumes m is a power of 2)
     // (from Java 7 implementation, protects against poor quality hashCode() implementations)
     private int hash(Key key) {
+        return hash(key, m);
+    }
+
+    private static int hash(Object key, int m) {
         int h = key.hashCode();
         h ^= (h >>> 20) ^ (h >>> 12) ^ (h >>> 7) ^ (h >>> 4);
         return h & (m-1);
@@ -79,10 +101,35 @@ public class HashST<Key, Value> {
         return size() == 0;
     }
 
+    /**
+     * @return true while an incremental resize is migrating chains from the old table
+     */
+    public boolean isRehashing() {
+        return rehashIndex >= 0;
+    }
+
+    /**
+     * @return the fraction of the old table's chains migrated so far, 1.0 if no resize is in progress
+     */
+    public double rehashProgress() {
+        return isRehashing() ? (double) rehashIndex / oldM : 1.0;
+    }
+
+    // the chain of key: in the old table if it hasn't been migrated yet, in the new table otherwise
+    // an old chain that is empty (null) never gets keys again, so new keys of it go straight into the new table
+    private SequentialSearchST<Key, Value> chain(Key key) {
+        if (isRehashing()) {
+            int i = hash(key, oldM);
+            if (i >= rehashIndex && old[i] != null) return old[i];
+        }
+        return st[hash(key)];
+    }
+
     public Value get(Key key) {
         if (key == null) throw new IllegalArgumentException("argument to get() is null");
-        int i = hash(key);
-        return st[i].get(key);
+        rehashStep();
+        SequentialSearchST<Key, Value> chain = chain(key);
+        return chain == null ? null : chain.get(key);
     }
 
     public boolean contains(Key key) {
@@ -91,17 +138,52 @@ public class HashST<Key, Value> {
     }
 
     // resize the hash table to have the given number of chains
-    // rehash all of the keys
+    // rehash all of the keys, or in incremental mode only start migrating them
     private void resize(int chains) {
-        HashST<Key, Value> temp = new HashST<>(chains);
+        SequentialSearchST<Key, Value>[] temp = (SequentialSearchST<Key, Value>[]) new SequentialSearchST[chains];
+        if (incremental) {
+            old = st;
+            oldM = m;
+            rehashIndex = 0;
+            m = chains;
+            st = temp;
+            return;
+        }
         for (int i = 0; i < m; i++) {
+            if (st[i] == null) continue;
             for (Key key : st[i].keys()) {
-                temp.put(key, st[i].get(key));
+                add(temp, chains, key, st[i].get(key));
             }
         }
-        this.m = temp.m;
-        this.n = temp.n;
-        this.st = temp.st;
+        this.m = chains;
+        this.st = temp;
+    }
+
+    // put a key that is not in the table into the chain it hashes to in table
+    private static <Key, Value> void add(SequentialSearchST<Key, Value>[] table, int m, Key key, Value value) {
+        int i = hash(key, m);
+        if (table[i] == null) table[i] = new SequentialSearchST<>();
+        table[i].put(key, value);
+    }
+
+    // migrate the next non-empty old chain, looking at no more than EMPTY_VISITS empty ones
+    private void rehashStep() {
+        if (!isRehashing()) return;
+        for (int visits = 0; rehashIndex < oldM && old[rehashIndex] == null; rehashIndex++) {
+            if (++visits > EMPTY_VISITS) return;
+        }
+        if (rehashIndex < oldM) {
+            SequentialSearchST<Key, Value> chain = old[rehashIndex];
+            for (Key key : chain.keys()) {
+                add(st, m, key, chain.get(key));
+            }
+            old[rehashIndex++] = null;
+        }
+        if (rehashIndex == oldM) {
+            old = null;
+            oldM = 0;
+            rehashIndex = -1;
+        }
     }
 
     public void put(Key key, Value value) {
@@ -111,29 +193,36 @@ public class HashST<Key, Value> {
             return;
         }
 
+        rehashStep();
         // Double the table size if the average length of list >= 10
-        if (n >= 10 * m) {
+        if (n >= 10 * m && !isRehashing()) {
             resize(2 * m);
         }
 
-        int i = hash(key);
-        if (!st[i].contains(key)) {
+        SequentialSearchST<Key, Value> chain = chain(key);
+        if (chain == null) {
+            chain = new SequentialSearchST<>();
+            st[hash(key)] = chain;
+        }
+        if (!chain.contains(key)) {
             n++;
         }
-        st[i].put(key, value);
+        chain.put(key, value);
     }
 
     public void delete(Key key) {
         if (key == null) throw new IllegalArgumentException("argument to delete() is null");
 
-        int i = hash(key);
-        if (st[i].contains(key)) {
+        rehashStep();
+        SequentialSearchST<Key, Value> chain = chain(key);
+        if (chain == null) return;
+        if (chain.contains(key)) {
             n--;
         }
-        st[i].delete(key);
+        chain.delete(key);
 
         // halve the table size if the average length of list <= 2
-        if (m > INIT_CAPACITY && n <= 2 * m) {
+        if (m > INIT_CAPACITY && n <= 2 * m && !isRehashing()) {
             resize(m / 2);
         }
     }
@@ -141,7 +230,16 @@ public class HashST<Key, Value> {
     // return keys in the symbol table as an Iterable
     public Iterable<Key> keys() {
         Queue<Key> queue = new Queue<>();
+        if (isRehashing()) {
+            for (int i = rehashIndex; i < oldM; i++) {
+                if (old[i] == null) continue;
+                for (Key key : old[i].keys()) {
+                    queue.enqueue(key);
+                }
+            }
+        }
         for (int i = 0; i < m; i++) {
+            if (st[i] == null) continue;
             for (Key key : st[i].keys()) {
                 queue.enqueue(key);
             }
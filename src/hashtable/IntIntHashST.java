@@ -0,0 +1,290 @@
+package hashtable;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+
+/**
+ * 键和值都是int的线性探测散列表
+ *
+ * HashST<Integer, Integer>和LPHashST<Integer, Integer>中每个键和值都是一个Integer对象（HashST还要为每个键值对分配一个链表结点），
+ * 一个键值对要占用几十个字节，每次查找都要解引用并调用equals()。
+ * 这里的键和值直接保存在两个并行的int[]中，一个键值对在散列表中只占用8个字节（装填率为1/2时平均16到32个字节），
+ * 查找时只比较int，不分配任何对象。
+ *
+ * 空位用一个哨兵键FREE_KEY (0) 表示，这样新分配的数组就是一张空表，不需要额外的标记数组。
+ * 键0本身不能放在数组里，所以它的值单独保存在freeValue中。
+ *
+ * 删除使用后移：删除一个键之后，把同一簇中后面可以前移的键移到空出来的位置上，
+ * 和LPHashST把整个簇重新插入一遍相比，不需要重新计算每个键的位置，也不需要墓碑标记。
+ *
+ * 顶点编号、计数器这类键往往是一段连续的小整数，只用Java 7的扰动函数时，键的个数超过表长之后它们会落到互相重叠的几段位置上，
+ * 所以hash()先把键乘以黄金分割数（Fibonacci散列）打散，再交给扰动函数。LongLongHashST和IntObjHashST的hash()也是这样做的。
+ */
+
+public class IntIntHashST {
+
+    private static final int INIT_CAPACITY = 4;
+    private static final int FREE_KEY = 0;          // marks an empty slot, key 0 itself is kept in freeValue
+
+    private int n;                                  // number of keys in the arrays (not counting key 0)
+    private int m;                                  // hash table size, a power of 2
+    private int[] keys;
+    private int[] values;
+    private boolean hasFreeKey;                     // is key 0 in the table?
+    private int freeValue;                          // value of key 0
+
+    public IntIntHashST() {
+        this(INIT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the expected number of keys, the table holds that many without resizing
+     */
+    public IntIntHashST(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be non-negative: " + capacity);
+        m = tableSize(capacity);
+        n = 0;
+        keys = new int[m];
+        values = new int[m];
+    }
+
+    // smallest power of 2 that keeps capacity keys at most half full
+    private static int tableSize(long capacity) {
+        long size = INIT_CAPACITY;
+        while (size < 2 * capacity) {
+            size *= 2;
+        }
+        if (size > 1 << 30) throw new IllegalArgumentException("too many keys: " + capacity);
+        return (int) size;
+    }
+
+    public int size() {
+        return n + (hasFreeKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // hash function for keys - returns value between 0 and m-1 (assumes m is a power of 2)
+    // (from Java 7 implementation, protects against poor quality hashCode() implementations)
+    // the key is first multiplied by the golden ratio (Fibonacci hashing), see the class comment
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+        h ^= (h >>> 20) ^ (h >>> 12) ^ (h >>> 7) ^ (h >>> 4);
+        return h & (m-1);
+    }
+
+    public boolean contains(int key) {
+        if (key == FREE_KEY) return hasFreeKey;
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the value of key, or 0 if key is not in the table (so the table works as a counter without a contains() check)
+     */
+    public int get(int key) {
+        return get(key, 0);
+    }
+
+    /**
+     * @param key the key
+     * @param defaultValue the value returned if key is not in the table
+     * @return the value of key, or defaultValue if key is not in the table
+     */
+    public int get(int key, int defaultValue) {
+        if (key == FREE_KEY) return hasFreeKey ? freeValue : defaultValue;
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    // index of key in the table, or -1
+    private int indexOf(int key) {
+        for (int i = hash(key); keys[i] != FREE_KEY; i = (i + 1) & (m-1)) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        m = capacity;
+        n = 0;
+        keys = new int[m];
+        values = new int[m];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE_KEY) {
+            hasFreeKey = true;
+            freeValue = value;
+            return;
+        }
+
+        if (n >= m / 2) {
+            resize(2 * m);
+        }
+
+        insert(key, value);
+    }
+
+    // insert or update without checking the load factor
+    private void insert(int key, int value) {
+        int i;
+        for (i = hash(key); keys[i] != FREE_KEY; i = (i + 1) & (m-1)) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        n++;
+    }
+
+    /**
+     * Puts keys[i] -> values[i] for every i. The table is resized at most once, up front.
+     * @param keys the keys
+     * @param values the values, values[i] is the value of keys[i]
+     */
+    public void putAll(int[] keys, int[] values) {
+        if (keys == null || values == null) throw new IllegalArgumentException("argument to putAll() is null");
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys.length " + keys.length + " != values.length " + values.length);
+        }
+        int capacity = tableSize((long) n + keys.length);
+        if (capacity > m) {
+            resize(capacity);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == FREE_KEY) {
+                hasFreeKey = true;
+                freeValue = values[i];
+            }
+            else {
+                insert(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Looks up every key: values[i] is set to the value of keys[i] if keys[i] is in the table, and left as it is otherwise.
+     * @param keys the keys to look up
+     * @param values the array that receives the values
+     * @return the number of keys found
+     */
+    public int getAll(int[] keys, int[] values) {
+        if (keys == null || values == null) throw new IllegalArgumentException("argument to getAll() is null");
+        if (keys.length > values.length) {
+            throw new IllegalArgumentException("values.length " + values.length + " < keys.length " + keys.length);
+        }
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == FREE_KEY) {
+                if (hasFreeKey) {
+                    values[i] = freeValue;
+                    found++;
+                }
+                continue;
+            }
+            int j = indexOf(keys[i]);
+            if (j >= 0) {
+                values[i] = this.values[j];
+                found++;
+            }
+        }
+        return found;
+    }
+
+    public void delete(int key) {
+        if (key == FREE_KEY) {
+            hasFreeKey = false;
+            freeValue = 0;
+            return;
+        }
+        int i = indexOf(key);
+        if (i < 0) return;
+
+        // backward shift: move every later key of the cluster whose home is not between i and its slot into the hole
+        for (int j = (i + 1) & (m-1); keys[j] != FREE_KEY; j = (j + 1) & (m-1)) {
+            int home = hash(keys[j]);
+            if (((j - home) & (m-1)) >= ((j - i) & (m-1))) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = FREE_KEY;
+        values[i] = 0;
+        n--;
+
+        if (m > INIT_CAPACITY && n <= m / 8) resize(m / 2);
+
+        assert check();
+    }
+
+    /**
+     * @return all the keys in the table, in no particular order
+     */
+    public int[] keys() {
+        int[] result = new int[size()];
+        int k = 0;
+        if (hasFreeKey) result[k++] = FREE_KEY;
+        for (int i = 0; i < m; i++) {
+            if (keys[i] != FREE_KEY) result[k++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * @return the approximate number of bytes used by the table: the two arrays and the object headers
+     */
+    public long memoryUsage() {
+        return 16 + 2 * (16 + 4L * m) + 24;
+    }
+
+    // Integrity check: the table is at most 50% full, and every key can be found by get()
+    private boolean check() {
+        if (m < n * 2) {
+            System.err.println("Hash table size m = " + m + "; array size n = " + n);
+            return false;
+        }
+        for (int i = 0; i < m; i++) {
+            if (keys[i] == FREE_KEY) continue;
+            if (indexOf(keys[i]) != i) {
+                System.err.println("key " + keys[i] + " at " + i + " is found at " + indexOf(keys[i]));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the ints on standard input and prints each one with its count, in increasing order.
+     */
+    public static void main(String[] args) {
+        IntIntHashST counts = new IntIntHashST();
+        while (!StdIn.isEmpty()) {
+            int key = StdIn.readInt();
+            counts.put(key, counts.get(key) + 1);
+        }
+
+        int[] keys = counts.keys();
+        Arrays.sort(keys);
+        for (int key : keys) {
+            StdOut.println(key + " " + counts.get(key));
+        }
+        StdOut.println(counts.size() + " keys, " + counts.memoryUsage() + " bytes");
+    }
+}
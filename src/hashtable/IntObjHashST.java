@@ -0,0 +1,263 @@
+package hashtable;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+
+/**
+ * 键是int、值是对象的线性探测散列表
+ *
+ * 和IntIntHashST一样，键直接保存在int[]中，查找时不需要把键装箱成Integer，也不需要调用equals()；
+ * 值保存在一个并行的Value[]中。一个键值对在散列表中占用4个字节加上一个引用。
+ *
+ * 空位用哨兵键FREE_KEY (0) 表示，键0的值单独保存在freeValue中。
+ * 和HashST、LPHashST一样，值不能是null：put(key, null)等价于delete(key)，get()对不存在的键返回null。
+ */
+
+public class IntObjHashST<Value> {
+
+    private static final int INIT_CAPACITY = 4;
+    private static final int FREE_KEY = 0;          // marks an empty slot, key 0 itself is kept in freeValue
+
+    private int n;                                  // number of keys in the arrays (not counting key 0)
+    private int m;                                  // hash table size, a power of 2
+    private int[] keys;
+    private Value[] values;
+    private Value freeValue;                        // value of key 0, or null if key 0 is not in the table
+
+    public IntObjHashST() {
+        this(INIT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the expected number of keys, the table holds that many without resizing
+     */
+    public IntObjHashST(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be non-negative: " + capacity);
+        m = tableSize(capacity);
+        n = 0;
+        keys = new int[m];
+        values = (Value[]) new Object[m];
+    }
+
+    // smallest power of 2 that keeps capacity keys at most half full
+    private static int tableSize(long capacity) {
+        long size = INIT_CAPACITY;
+        while (size < 2 * capacity) {
+            size *= 2;
+        }
+        if (size > 1 << 30) throw new IllegalArgumentException("too many keys: " + capacity);
+        return (int) size;
+    }
+
+    public int size() {
+        return n + (freeValue != null ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // hash function for keys - returns value between 0 and m-1 (assumes m is a power of 2)
+    // (from Java 7 implementation, protects against poor quality hashCode() implementations)
+    // the key is first multiplied by the golden ratio (Fibonacci hashing), as in IntIntHashST
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+        h ^= (h >>> 20) ^ (h >>> 12) ^ (h >>> 7) ^ (h >>> 4);
+        return h & (m-1);
+    }
+
+    public boolean contains(int key) {
+        return get(key) != null;
+    }
+
+    public Value get(int key) {
+        if (key == FREE_KEY) return freeValue;
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    // index of key in the table, or -1
+    private int indexOf(int key) {
+        for (int i = hash(key); keys[i] != FREE_KEY; i = (i + 1) & (m-1)) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Value[] oldValues = values;
+        m = capacity;
+        n = 0;
+        keys = new int[m];
+        values = (Value[]) new Object[m];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    public void put(int key, Value value) {
+        if (value == null) {
+            delete(key);
+            return;
+        }
+
+        if (key == FREE_KEY) {
+            freeValue = value;
+            return;
+        }
+
+        if (n >= m / 2) {
+            resize(2 * m);
+        }
+
+        insert(key, value);
+    }
+
+    // insert or update without checking the load factor
+    private void insert(int key, Value value) {
+        int i;
+        for (i = hash(key); keys[i] != FREE_KEY; i = (i + 1) & (m-1)) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        n++;
+    }
+
+    /**
+     * Puts keys[i] -> values[i] for every i. The table is resized at most once, up front.
+     * @param keys the keys
+     * @param values the values, values[i] is the value of keys[i]; a null value deletes its key
+     */
+    public void putAll(int[] keys, Value[] values) {
+        if (keys == null || values == null) throw new IllegalArgumentException("argument to putAll() is null");
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys.length " + keys.length + " != values.length " + values.length);
+        }
+        int capacity = tableSize((long) n + keys.length);
+        if (capacity > m) {
+            resize(capacity);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] == null) {
+                delete(keys[i]);
+            }
+            else if (keys[i] == FREE_KEY) {
+                freeValue = values[i];
+            }
+            else {
+                insert(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Looks up every key: values[i] is set to the value of keys[i], or to null if keys[i] is not in the table.
+     * @param keys the keys to look up
+     * @param values the array that receives the values
+     * @return the number of keys found
+     */
+    public int getAll(int[] keys, Value[] values) {
+        if (keys == null || values == null) throw new IllegalArgumentException("argument to getAll() is null");
+        if (keys.length > values.length) {
+            throw new IllegalArgumentException("values.length " + values.length + " < keys.length " + keys.length);
+        }
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = get(keys[i]);
+            if (values[i] != null) found++;
+        }
+        return found;
+    }
+
+    public void delete(int key) {
+        if (key == FREE_KEY) {
+            freeValue = null;
+            return;
+        }
+        int i = indexOf(key);
+        if (i < 0) return;
+
+        // backward shift: move every later key of the cluster whose home is not between i and its slot into the hole
+        for (int j = (i + 1) & (m-1); keys[j] != FREE_KEY; j = (j + 1) & (m-1)) {
+            int home = hash(keys[j]);
+            if (((j - home) & (m-1)) >= ((j - i) & (m-1))) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = FREE_KEY;
+        values[i] = null;
+        n--;
+
+        if (m > INIT_CAPACITY && n <= m / 8) resize(m / 2);
+
+        assert check();
+    }
+
+    /**
+     * @return all the keys in the table, in no particular order
+     */
+    public int[] keys() {
+        int[] result = new int[size()];
+        int k = 0;
+        if (freeValue != null) result[k++] = FREE_KEY;
+        for (int i = 0; i < m; i++) {
+            if (keys[i] != FREE_KEY) result[k++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * @return the approximate number of bytes used by the table itself: the two arrays and the object headers,
+     * with 4-byte (compressed) references; the values are not counted
+     */
+    public long memoryUsage() {
+        return 16 + 2 * (16 + 4L * m) + 24;
+    }
+
+    // Integrity check: the table is at most 50% full, and every key can be found by get()
+    private boolean check() {
+        if (m < n * 2) {
+            System.err.println("Hash table size m = " + m + "; array size n = " + n);
+            return false;
+        }
+        for (int i = 0; i < m; i++) {
+            if (keys[i] == FREE_KEY) continue;
+            if (get(keys[i]) != values[i]) {
+                System.err.println("get[" + keys[i] + "] = " + get(keys[i]) + "; values[i] = " + values[i]);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads lines of "id name" from standard input and prints the names by increasing id.
+     */
+    public static void main(String[] args) {
+        IntObjHashST<String> names = new IntObjHashST<>();
+        while (!StdIn.isEmpty()) {
+            int id = StdIn.readInt();
+            String name = StdIn.readString();
+            names.put(id, name);
+        }
+
+        int[] ids = names.keys();
+        Arrays.sort(ids);
+        for (int id : ids) {
+            StdOut.println(id + " " + names.get(id));
+        }
+    }
+}
@@ -10,24 +10,46 @@ import edu.princeton.cs.algs4.StdOut;
  *
  * 线性探测法：当冲突产生时，我们直接检查数组的下一位索引 (index++)
  * 我们使用并行数组，一条保存键，一条保存值，并使用散列函数产生访问数据所需的数组索引
+ *
+ * 渐进式rehash：
+ * 渐进模式下扩容时旧数组保留下来，之后每次操作把旧数组中的REHASH_SLOTS个位置迁移到新数组，和HashST一样把停顿均摊开。
+ * 线性探测的查找依赖于簇的完整，所以旧数组中迁移走或者被删除的键不能直接清空，
+ * 而是把键留在原位、把值置为null（墓碑），查找经过它时继续向后探测。
+ * 旧数组中值不为null的键就是还没有迁移的键；查找时先查新数组，找不到再查旧数组。
  */
 
 public class LPHashST<Key, Value> {
 
     private static final int INIT_CAPACITY = 4;
+    private static final int REHASH_SLOTS = 4;      // old slots migrated per operation, must be at least 2 (see put)
 
     private int n;
     private int m;
     private Key[] keys;
     private Value[] values;
+    private final boolean incremental;              // migrate a few slots per operation instead of resizing at once?
+    private Key[] oldKeys;                          // the table being migrated from, or null
+    private Value[] oldValues;                      // oldValues[i] == null for migrated and deleted keys (tombstones)
+    private int oldM;                               // size of the old table
+    private int oldN;                               // number of keys still waiting in the old table
+    private int rehashIndex = -1;                   // old slots below rehashIndex have been migrated, -1 if not rehashing
 
     public LPHashST() {
         this(INIT_CAPACITY);
     }
 
     public LPHashST(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param capacity the initial table size, a power of 2
+     * @param incremental true to resize incrementally, migrating REHASH_SLOTS slots per operation
+     */
+    public LPHashST(int capacity, boolean incremental) {
         m = capacity;
         n = 0;
+        this.incremental = incremental;
         keys = (Key[]) new Object[m];
         values = (Value[]) new Object[m];
     }
@@ -40,11 +62,29 @@ public class LPHashST<Key, Value> {
         return size() == 0;
     }
 
+    /**
+     * @return true while an incremental resize is migrating keys from the old table
+     */
+    public boolean isRehashing() {
+        return rehashIndex >= 0;
+    }
+
+    /**
+     * @return the fraction of the old table's slots migrated so far, 1.0 if no resize is in progress
+     */
+    public double rehashProgress() {
+        return isRehashing() ? (double) rehashIndex / oldM : 1.0;
+    }
+
     private int hashText(Key key) {
         return (key.hashCode() & 0x7fffffff) % m;
     }
 
     private int hash(Key key) {
+        return hash(key, m);
+    }
+
+    private static int hash(Object key, int m) {
         int h = key.hashCode();
         h ^= (h >>> 20) ^ (h >>> 12) ^ (h >>> 7) ^ (h >>> 4);
         return h & (m-1);
@@ -57,15 +97,48 @@ public class LPHashST<Key, Value> {
 
     public Value get(Key key) {
         if (key == null) throw new IllegalArgumentException("argument to get() is null");
+        rehashStep();
+        int i = indexOf(key);
+        if (i >= 0) return values[i];
+        if (isRehashing()) {
+            i = oldIndexOf(key);
+            if (i >= 0) return oldValues[i];
+        }
+        return null;
+    }
+
+    // index of key in the (new) table, or -1
+    private int indexOf(Key key) {
         for (int i = hash(key); keys[i] != null; i = (i + 1) % m) {
             if (keys[i].equals(key)) {
-                return values[i];
+                return i;
             }
         }
-        return null;
+        return -1;
+    }
+
+    // index of key in the old table, or -1; the key is only there if oldValues[index] != null
+    private int oldIndexOf(Key key) {
+        for (int i = hash(key, oldM); oldKeys[i] != null; i = (i + 1) & (oldM-1)) {
+            if (oldKeys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     private void resize(int capacity) {
+        if (incremental) {
+            oldKeys = keys;
+            oldValues = values;
+            oldM = m;
+            oldN = n;
+            rehashIndex = 0;
+            m = capacity;
+            keys = (Key[]) new Object[m];
+            values = (Value[]) new Object[m];
+            return;
+        }
         LPHashST<Key, Value> temp = new LPHashST<>(capacity);
         for (int i = 0; i < m; i++) {
             if (keys[i] != null) {
@@ -77,6 +150,24 @@ public class LPHashST<Key, Value> {
         m = temp.m;
     }
 
+    // migrate the next REHASH_SLOTS slots of the old table
+    private void rehashStep() {
+        if (!isRehashing()) return;
+        for (int end = Math.min(oldM, rehashIndex + REHASH_SLOTS); rehashIndex < end; rehashIndex++) {
+            if (oldValues[rehashIndex] != null) {
+                insert(oldKeys[rehashIndex], oldValues[rehashIndex]);
+                oldValues[rehashIndex] = null;
+                oldN--;
+            }
+        }
+        if (rehashIndex == oldM) {
+            oldKeys = null;
+            oldValues = null;
+            oldM = 0;
+            rehashIndex = -1;
+        }
+    }
+
     public void put(Key key, Value value) {
         if (key == null) throw new IllegalArgumentException("argument to put() is null");
 
@@ -85,28 +176,57 @@ public class LPHashST<Key, Value> {
             return;
         }
 
-        if (n >= m / 2) {
+        rehashStep();
+        // a resize starts with about m/4 keys in a table of 2m, and every put adds at most one key while REHASH_SLOTS
+        // slots are migrated, so the old table is empty long before the new one is half full; just in case, finish it
+        if (isRehashing() && n - oldN >= m / 2) {
+            while (isRehashing()) rehashStep();
+        }
+        if (n >= m / 2 && !isRehashing()) {
             resize(2 * m);
         }
 
+        if (isRehashing()) {
+            int i = oldIndexOf(key);
+            if (i >= 0 && oldValues[i] != null) {
+                oldValues[i] = value;
+                return;
+            }
+        }
+        if (insert(key, value)) {
+            n++;
+        }
+    }
+
+    // put key into the (new) table without checking the load factor, return true if it wasn't there
+    private boolean insert(Key key, Value value) {
         int i;
         for (i = hash(key); keys[i] != null; i = (i + 1) % m) {
             if (keys[i].equals(key)) {
                 values[i] = value;
+                return false;
             }
         }
         keys[i]     = key;
         values[i]   = value;
-        n++;
+        return true;
     }
 
     public void delete(Key key) {
         if (key == null) throw new IllegalArgumentException("argument to delete() is null");
-        if (!contains(key)) return;
+        rehashStep();
 
-        int i = hash(key);
-        while (!keys[i].equals(key)) {
-            i = (i + 1) % m;
+        int i = indexOf(key);
+        if (i < 0) {
+            if (isRehashing()) {
+                i = oldIndexOf(key);
+                if (i >= 0 && oldValues[i] != null) {
+                    oldValues[i] = null;
+                    oldN--;
+                    n--;
+                }
+            }
+            return;
         }
 
         keys[i]      = null;
@@ -119,14 +239,13 @@ public class LPHashST<Key, Value> {
             Value valueToRehash = values[i];
             keys[i] = null;
             values[i] = null;
-            n--;
-            put(keyToRehash, valueToRehash);
+            insert(keyToRehash, valueToRehash);
             i = (i + 1) % m;
         }
 
         n--;
 
-        if (n > 0 && n <= m / 8) resize(m / 2);
+        if (n > 0 && n <= m / 8 && !isRehashing()) resize(m / 2);
 
         assert check();
     }
@@ -136,6 +255,9 @@ public class LPHashST<Key, Value> {
         for (int i = 0; i < m; i++) {
             if (keys[i] != null) queue.enqueue(keys[i]);
         }
+        for (int i = rehashIndex; i >= 0 && i < oldM; i++) {
+            if (oldValues[i] != null) queue.enqueue(oldKeys[i]);
+        }
         return queue;
     }
 
@@ -144,16 +266,16 @@ public class LPHashST<Key, Value> {
     private boolean check() {
 
         // check that the hash table is at most 50% full
-        if (m < n * 2) {
-            System.err.println("Hash table size m = " + m + "; array size n = " + n);
+        if (m < (n - oldN) * 2) {
+            System.err.println("Hash table size m = " + m + "; array size n = " + (n - oldN));
             return false;
         }
 
         // check that each key in the table can be found by get()
         for (int i = 0; i < m; i++) {
             if (keys[i] == null) continue;
-            else if (get(keys[i]) != values[i]) {
-                System.err.println("get[" + keys[i] + "] = " + get(keys[i]) + "; values[i] = " + values[i]);
+            else if (values[indexOf(keys[i])] != values[i]) {
+                System.err.println("get[" + keys[i] + "] = " + values[indexOf(keys[i])] + "; values[i] = " + values[i]);
                 return false;
             }
         }
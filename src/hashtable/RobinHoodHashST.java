@@ -0,0 +1,254 @@
+package hashtable;
+
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+/**
+ * Robin Hood散列：线性探测法的一种变体
+ *
+ * 每个键都记录它的探测距离 (probe distance)，即它所在的位置离它的散列值有多远。
+ * 插入时如果遇到一个探测距离比当前要插入的键更短的键 ("富人")，就把那个位置让给当前的键 ("穷人")，
+ * 然后继续为被换出来的键寻找位置。这样所有键的探测距离都比较接近，不会出现个别特别长的探测序列。
+ *
+ * 查找可以提前结束：
+ * 如果查找到第d步时遇到的键的探测距离小于d，那么要找的键一定不在表中（否则它早就会把这个位置抢过来）
+ *
+ * 删除使用后移 (backward shift)：
+ * 删除一个键之后，把它后面同一簇中探测距离大于0的键依次向前移动一位，直到遇到空位或者探测距离为0的键。
+ * 和LPHashST不同，这里不需要把整个簇重新插入一遍，也不需要墓碑标记。
+ *
+ * 因为探测序列都很短，Robin Hood散列可以在0.85甚至更高的装填率下工作，而线性探测法一般要保持在1/2以下。
+ */
+
+public class RobinHoodHashST<Key, Value> {
+
+    private static final int INIT_CAPACITY = 4;
+    private static final double DEFAULT_MAX_LOAD = 0.85;
+
+    private int n;                          // number of key-value pairs
+    private int m;                          // hash table size, a power of 2
+    private final double maxLoad;           // grow the table when n would exceed maxLoad * m
+    private Key[] keys;
+    private Value[] values;
+    private int[] dist;                     // dist[i] = distance of keys[i] from the slot it hashes to
+
+    public RobinHoodHashST() {
+        this(INIT_CAPACITY);
+    }
+
+    public RobinHoodHashST(int capacity) {
+        this(capacity, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * @param capacity the initial table size (rounded up to a power of 2)
+     * @param maxLoad the maximum load factor, between 0 and 1 (exclusive)
+     */
+    public RobinHoodHashST(int capacity, double maxLoad) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        if (!(maxLoad > 0 && maxLoad < 1)) throw new IllegalArgumentException("load factor must be in (0, 1): " + maxLoad);
+        this.maxLoad = maxLoad;
+        m = Integer.highestOneBit(capacity);
+        if (m < capacity) m *= 2;
+        n = 0;
+        keys = (Key[]) new Object[m];
+        values = (Value[]) new Object[m];
+        dist = new int[m];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // hash function for keys - returns value between 0 and m-1 (assumes m is a power of 2)
+    // the Java 7 mixer used by LPHashST maps runs of consecutive Integer keys onto structured, overlapping runs of slots,
+    // which is harmless at load 1/2 but builds clusters of thousands of keys near 0.85, so multiply by the golden ratio
+    // (Fibonacci hashing) and fold the high bits down instead
+    private int hash(Key key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        h ^= h >>> 16;
+        return h & (m-1);
+    }
+
+    public boolean contains(Key key) {
+        if (key == null) throw new IllegalArgumentException("argument to contains() is null");
+        return get(key) != null;
+    }
+
+    public Value get(Key key) {
+        if (key == null) throw new IllegalArgumentException("argument to get() is null");
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    // index of key in the table, or -1
+    private int indexOf(Key key) {
+        // stop at an empty slot, or at a key that is closer to its home than we are to ours
+        for (int i = hash(key), d = 0; keys[i] != null && d <= dist[i]; i = (i + 1) & (m-1), d++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        RobinHoodHashST<Key, Value> temp = new RobinHoodHashST<>(capacity, maxLoad);
+        for (int i = 0; i < m; i++) {
+            if (keys[i] != null) {
+                temp.insert(keys[i], values[i]);
+            }
+        }
+        keys = temp.keys;
+        values = temp.values;
+        dist = temp.dist;
+        m = temp.m;
+    }
+
+    public void put(Key key, Value value) {
+        if (key == null) throw new IllegalArgumentException("argument to put() is null");
+
+        if (value == null) {
+            delete(key);
+            return;
+        }
+
+        if (n + 1 > maxLoad * m) {
+            resize(2 * m);
+        }
+
+        insert(key, value);
+    }
+
+    // insert or update without checking the load factor
+    private void insert(Key key, Value value) {
+        int i = hash(key);
+        int d = 0;
+        boolean carryingKey = true;             // false once key is placed and we carry a displaced key
+        while (keys[i] != null) {
+            if (carryingKey && keys[i].equals(key)) {
+                values[i] = value;
+                return;
+            }
+            // take the slot from a key that is richer (closer to home) than the one we carry
+            if (dist[i] < d) {
+                Key k = keys[i];
+                Value v = values[i];
+                int dk = dist[i];
+                keys[i] = key;
+                values[i] = value;
+                dist[i] = d;
+                key = k;
+                value = v;
+                d = dk;
+                carryingKey = false;
+            }
+            i = (i + 1) & (m-1);
+            d++;
+        }
+        keys[i] = key;
+        values[i] = value;
+        dist[i] = d;
+        n++;
+    }
+
+    public void delete(Key key) {
+        if (key == null) throw new IllegalArgumentException("argument to delete() is null");
+        int i = indexOf(key);
+        if (i < 0) return;
+
+        // backward shift: move the following keys of the cluster one slot closer to home
+        int j = (i + 1) & (m-1);
+        while (keys[j] != null && dist[j] > 0) {
+            keys[i] = keys[j];
+            values[i] = values[j];
+            dist[i] = dist[j] - 1;
+            i = j;
+            j = (j + 1) & (m-1);
+        }
+        keys[i] = null;
+        values[i] = null;
+        dist[i] = 0;
+        n--;
+
+        if (m > INIT_CAPACITY && n <= m / 8) resize(m / 2);
+
+        assert check();
+    }
+
+    public Iterable<Key> keys() {
+        Queue<Key> queue = new Queue<>();
+        for (int i = 0; i < m; i++) {
+            if (keys[i] != null) queue.enqueue(keys[i]);
+        }
+        return queue;
+    }
+
+    /**
+     * @return the longest probe sequence of any key (0 if every key is in its home slot)
+     */
+    public int maxProbeLength() {
+        int max = 0;
+        for (int i = 0; i < m; i++) {
+            if (keys[i] != null && dist[i] > max) max = dist[i];
+        }
+        return max;
+    }
+
+    /**
+     * @return the average probe distance of the keys, i.e. the expected extra slots a successful search looks at
+     */
+    public double meanProbeLength() {
+        if (n == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < m; i++) {
+            if (keys[i] != null) sum += dist[i];
+        }
+        return (double) sum / n;
+    }
+
+    /**
+     * @return the current load factor n / m
+     */
+    public double loadFactor() {
+        return (double) n / m;
+    }
+
+    // Integrity check: the load factor is respected, every dist[] is right, and every key can be found by get()
+    private boolean check() {
+        if (n > maxLoad * m) {
+            System.err.println("Hash table size m = " + m + "; array size n = " + n);
+            return false;
+        }
+        for (int i = 0; i < m; i++) {
+            if (keys[i] == null) continue;
+            if (((i - hash(keys[i])) & (m-1)) != dist[i]) {
+                System.err.println("dist[" + i + "] = " + dist[i] + " for key " + keys[i]);
+                return false;
+            }
+            if (get(keys[i]) != values[i]) {
+                System.err.println("get[" + keys[i] + "] = " + get(keys[i]) + "; values[i] = " + values[i]);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        RobinHoodHashST<String, Integer> hst = new RobinHoodHashST<>();
+        for (int i = 0; !StdIn.isEmpty(); i++) {
+            String key = StdIn.readString();
+            hst.put(key, i);
+        }
+
+        for (String s : hst.keys()) {
+            StdOut.println(s + " " + hst.get(s));
+        }
+        StdOut.printf("load %.2f, max probe %d, mean probe %.2f%n", hst.loadFactor(), hst.maxProbeLength(), hst.meanProbeLength());
+    }
+}
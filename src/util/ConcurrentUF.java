@@ -0,0 +1,178 @@
+package util;
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 可以被多个线程同时使用的union-find，不使用锁 (Anderson, Woll, "Wait-free Parallel Algorithms for the Union-Find Problem";
+ * Jayanti, Tarjan, "A Randomized Concurrent Algorithm for Disjoint Set Union")
+ *
+ * UF中的parent[]在find()中被改写（路径减半），union()要先找到两个根再修改其中一个，多个线程同时执行时会互相破坏。
+ * 这里parent[]是一个AtomicIntegerArray，所有的修改都是CAS：
+ * - union(p, q)：找到两个根rp和rq，用CAS把parent[rp]从rp改为rq。
+ *   如果CAS失败，说明rp在这期间已经被别的线程链接到了另一棵树下，重新查找两个根再试；
+ *   只有根会被链接，所以树的结构始终是正确的，成功的CAS就是union生效的时刻。
+ * - find(p)：路径减半，用CAS把parent[p]从它的父结点改为祖父结点。
+ *   失败说明别的线程已经改过了，不需要重试：被改成的值也一定是p的祖先。
+ * - connected(p, q)：找到两个根之后，如果它们不同，还要确认rp仍然是根，否则在查找rq的过程中rp可能已经被链接到了rq下。
+ *
+ * UF按秩合并需要同时更新rank[]，不能用一次CAS完成。这里按一个固定的随机顺序链接：
+ * 每个结点有一个优先级（编号乘以黄金分割数得到的伪随机数），总是把优先级低的根链接到优先级高的根下。
+ * 和按秩合并一样，树的期望高度是对数级别的。
+ */
+
+public class ConcurrentUF {
+
+    private final AtomicIntegerArray parent;    // parent[i] = parent of i
+    private final AtomicInteger count;          // number of components
+
+    /**
+     * Initializes an empty union-find data structure with n elements 0 through n-1.
+     * @param n the number of elements
+     */
+    public ConcurrentUF(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException();
+        }
+        parent = new AtomicIntegerArray(n);
+        count = new AtomicInteger(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    // a fixed pseudo-random order of the elements, a bijection of the ints so no two elements tie
+    private static int priority(int p) {
+        return p * 0x9E3779B9;
+    }
+
+    public int find(int p) {
+        validateIndex(p);
+        while (true) {
+            int q = parent.get(p);
+            if (q == p) {
+                return p;
+            }
+            int r = parent.get(q);
+            if (r != q) {
+                parent.compareAndSet(p, q, r);
+            }
+            p = r;
+        }
+    }
+
+    public int count() {
+        return count.get();
+    }
+
+    /**
+     * @return true if p and q are in the same component at some moment during the call
+     */
+    public boolean connected(int p, int q) {
+        while (true) {
+            p = find(p);
+            q = find(q);
+            if (p == q) {
+                return true;
+            }
+            // p was a root after q was found, so at that moment they were in different components
+            if (parent.get(p) == p) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Merges the components of p and q
+     * @return true if this call merged them, false if they were already in the same component
+     */
+    public boolean union(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) {
+                return false;
+            }
+            if (priority(rootP) > priority(rootQ)) {
+                int temp = rootP;
+                rootP = rootQ;
+                rootQ = temp;
+            }
+            if (parent.compareAndSet(rootP, rootP, rootQ)) {
+                count.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    private void validateIndex(int i) {
+        int n = parent.length();
+        if (i < 0 || i >= n) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Stress test: T threads union random pairs of n elements and query random pairs at the same time,
+     * then the components are compared with UF replaying the same unions.
+     * java ConcurrentUF [n] [pairs] [threads]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int pairs = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        int[] p = new int[pairs];
+        int[] q = new int[pairs];
+        for (int i = 0; i < pairs; i++) {
+            p[i] = MattyRandom.uniform(n);
+            q[i] = MattyRandom.uniform(n);
+        }
+
+        ConcurrentUF uf = new ConcurrentUF(n);
+        AtomicInteger merged = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = id; i < pairs; i += threads) {
+                    if (uf.union(p[i], q[i])) {
+                        merged.incrementAndGet();
+                    }
+                    // connected() must never see a union undone
+                    if (!uf.connected(p[i], q[i])) {
+                        failures.incrementAndGet();
+                    }
+                    uf.connected(random.nextInt(n), random.nextInt(n));
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " pairs were not connected after their union");
+        }
+        UF expected = new UF(n);
+        for (int i = 0; i < pairs; i++) {
+            expected.union(p[i], q[i]);
+        }
+        if (uf.count() != expected.count() || merged.get() != n - expected.count()) {
+            throw new IllegalStateException("count " + uf.count() + ", merged " + merged.get() + ", expected " + expected.count());
+        }
+        for (int i = 0; i < n; i++) {
+            int j = MattyRandom.uniform(n);
+            if (uf.connected(i, j) != (expected.find(i) == expected.find(j))) {
+                throw new IllegalStateException("connected(" + i + ", " + j + ") = " + uf.connected(i, j));
+            }
+        }
+        StdOut.println(threads + " threads, " + pairs + " unions: " + uf.count() + " components, OK");
+    }
+}
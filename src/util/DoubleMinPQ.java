@@ -0,0 +1,180 @@
+package util;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 键是double的最小优先队列，每个键带一个int的元素（例如顶点或边的编号）
+ *
+ * MinPQ<Double>中每个键都是一个Double对象，堆数组里保存的是引用，每次比较都要解引用两个对象、调用compareTo()。
+ * 这里的键直接保存在double[]中，元素保存在并行的int[]中，比较就是一次double的比较，插入时也不分配对象。
+ * 和MinPQ一样用d叉堆实现，上浮和下沉都用"空位"移动（见MaxPQ的说明）。
+ *
+ * 常见用法是把Edge[]或顶点的编号作为元素：insert(e.weight(), index)，delMin()返回权重最小的编号。
+ */
+
+public class DoubleMinPQ {
+
+    private double[] keys;                  // heap of keys, indices 1 to n
+    private int[] items;                    // items[i] is the item of keys[i]
+    private int n;                          // number of elements in the pq
+    private final int d;                    // number of children of every node
+
+    public DoubleMinPQ() {
+        this(1);
+    }
+
+    public DoubleMinPQ(int capacity) {
+        this(capacity, 4);
+    }
+
+    /**
+     * @param capacity the initial capacity
+     * @param arity the number of children of every node
+     */
+    public DoubleMinPQ(int capacity, int arity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be non-negative: " + capacity);
+        if (arity < 2) throw new IllegalArgumentException("arity must be at least 2: " + arity);
+        keys = new double[capacity + 1];
+        items = new int[capacity + 1];
+        n = 0;
+        d = arity;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @return a smallest key
+     */
+    public double minKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Min priority queue underflow.");
+        }
+        return keys[1];
+    }
+
+    /**
+     * @return the item of a smallest key
+     */
+    public int min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Min priority queue underflow.");
+        }
+        return items[1];
+    }
+
+    public void insert(double key, int item) {
+        if (Double.isNaN(key)) throw new IllegalArgumentException("key is NaN");
+        if (n == keys.length - 1) {
+            resize(2 * keys.length);
+        }
+        n++;
+        swim(n, key, item);
+        assert isMinHeap();
+    }
+
+    /**
+     * Removes a smallest key and returns its item
+     * @return the item of a smallest key
+     */
+    public int delMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Min priority queue underflow.");
+        }
+        int result = items[1];
+        double key = keys[n];
+        int item = items[n];
+        n--;
+        if (n > 0) {
+            sink(1, key, item);
+        }
+        if (n > 0 && n == (keys.length - 1) / 4) {
+            resize(keys.length / 2);
+        }
+        assert isMinHeap();
+        return result;
+    }
+
+    // move the hole at k up until key fits, then put key and item in it
+    private void swim(int k, double key, int item) {
+        while (k > 1) {
+            int parent = (k - 2) / d + 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[k] = keys[parent];
+            items[k] = items[parent];
+            k = parent;
+        }
+        keys[k] = key;
+        items[k] = item;
+    }
+
+    // move the hole at k down until key fits, then put key and item in it
+    private void sink(int k, double key, int item) {
+        while (true) {
+            int first = d * (k - 1) + 2;
+            if (first > n) {
+                break;
+            }
+            int last = Math.min(first + d - 1, n);
+            int j = first;
+            for (int c = first + 1; c <= last; c++) {
+                if (keys[c] < keys[j]) {
+                    j = c;
+                }
+            }
+            if (key <= keys[j]) {
+                break;
+            }
+            keys[k] = keys[j];
+            items[k] = items[j];
+            k = j;
+        }
+        keys[k] = key;
+        items[k] = item;
+    }
+
+    private void resize(int capacity) {
+        assert capacity > n;
+        double[] tempKeys = new double[capacity];
+        int[] tempItems = new int[capacity];
+        System.arraycopy(keys, 1, tempKeys, 1, n);
+        System.arraycopy(items, 1, tempItems, 1, n);
+        keys = tempKeys;
+        items = tempItems;
+    }
+
+    private boolean isMinHeap() {
+        for (int i = 2; i <= n; i++) {
+            if (keys[(i - 2) / d + 1] > keys[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads doubles from standard input, "-" removes the smallest one, and prints the removed ones with their position in the input.
+     */
+    public static void main(String[] args) {
+        DoubleMinPQ pq = new DoubleMinPQ();
+        for (int i = 0; !StdIn.isEmpty(); i++) {
+            String item = StdIn.readString();
+            if (!item.equals("-")) pq.insert(Double.parseDouble(item), i);
+            else if (!pq.isEmpty()) {
+                double key = pq.minKey();
+                StdOut.print(key + "@" + pq.delMin() + " ");
+            }
+        }
+        StdOut.println("(" + pq.size() + " left on pq)");
+    }
+}
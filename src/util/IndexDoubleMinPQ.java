@@ -0,0 +1,224 @@
+package util;
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 键是double的索引最小优先队列：IndexMinPQ<Double>和DoubleMinPQ的结合
+ *
+ * IndexMinPQ<Double>中每个键都是一个Double对象，Dijkstra在上千万个顶点的图上每次decreaseKey都要装箱一次，
+ * 每次比较都要解引用两个对象。这里的键直接保存在double[]中，插入和修改优先级都不分配对象。
+ *
+ * 和DoubleMinPQ一样是d叉堆（默认4叉），上浮和下沉都用"空位"移动；堆中的键和索引放在并行的keys[]和items[]中，
+ * 比较时不需要再通过索引间接访问。qp[i]是索引i在堆中的位置，不在队列中时为0，移动元素时同时更新。
+ * d叉堆的高度是log_d(n)，decreaseKey只需要上浮，Dijkstra中decreaseKey的次数远多于delMin，所以d > 2更快。
+ */
+
+public class IndexDoubleMinPQ {
+
+    private final int maxN;                 // the indexes are 0 to maxN - 1
+    private final int d;                    // number of children of every node
+    private int n;                          // number of elements on pq
+    private final double[] keys;            // heap of keys, positions 1 to n
+    private final int[] items;              // items[k] = the index of keys[k]
+    private final int[] qp;                 // qp[i] = position of index i in the heap, 0 if i is not on pq
+
+    /**
+     * Initializes an empty indexed priority queue with indices between 0 and maxN - 1, as a 4-ary heap
+     * @param maxN the keys on this priority queue are index from 0 to maxN - 1
+     */
+    public IndexDoubleMinPQ(int maxN) {
+        this(maxN, 4);
+    }
+
+    /**
+     * @param maxN the keys on this priority queue are index from 0 to maxN - 1
+     * @param arity the number of children of every node
+     */
+    public IndexDoubleMinPQ(int maxN, int arity) {
+        if (maxN < 0) throw new IllegalArgumentException("maxN must be non-negative: " + maxN);
+        if (arity < 2) throw new IllegalArgumentException("arity must be at least 2: " + arity);
+        this.maxN = maxN;
+        d = arity;
+        keys = new double[maxN + 1];
+        items = new int[maxN + 1];
+        qp = new int[maxN];
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Is i an index on this priority queue?
+     * @param i an index
+     * @return true if i is an index on this priority queue
+     */
+    public boolean contains(int i) {
+        validateIndex(i);
+        return qp[i] != 0;
+    }
+
+    /**
+     * Associates key with index i
+     * @param i an index
+     * @param key the key to associate with index i
+     */
+    public void insert(int i, double key) {
+        validateIndex(i);
+        if (qp[i] != 0) throw new IllegalArgumentException("index is already in the priority queue");
+        if (Double.isNaN(key)) throw new IllegalArgumentException("key is NaN");
+        n++;
+        swim(n, key, i);
+    }
+
+    /**
+     * @return an index associated with a minimum key
+     */
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return items[1];
+    }
+
+    /**
+     * @return a minimum key
+     */
+    public double minKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return keys[1];
+    }
+
+    /**
+     * Removes a minimum key and returns its associated index
+     * @return an index associated with a minimum key
+     */
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = items[1];
+        qp[min] = 0;
+        double key = keys[n];
+        int item = items[n];
+        n--;
+        if (n > 0) {
+            sink(1, key, item);
+        }
+        return min;
+    }
+
+    public double keyOf(int i) {
+        validateIndex(i);
+        if (qp[i] == 0) throw new NoSuchElementException("index is not in the priority queue");
+        return keys[qp[i]];
+    }
+
+    /**
+     * Decrease the key associated with index i to the specified value
+     * @param i the index of the key to decrease
+     * @param key decrease the key associated with index i to this key
+     * @throws IllegalArgumentException if key is greater than keyOf(i)
+     */
+    public void decreaseKey(int i, double key) {
+        validateIndex(i);
+        if (qp[i] == 0) throw new NoSuchElementException("index is not in the priority queue");
+        if (!(key <= keys[qp[i]])) throw new IllegalArgumentException("Calling decreaseKey() with a key greater than the key in the priority queue");
+        swim(qp[i], key, i);
+    }
+
+    /**
+     * Inserts index i with key, or decreases its key to key if it is on the queue with a larger one
+     * @param i an index
+     * @param key the key
+     */
+    public void insertOrDecrease(int i, double key) {
+        validateIndex(i);
+        if (qp[i] == 0) {
+            insert(i, key);
+        }
+        else if (key < keys[qp[i]]) {
+            swim(qp[i], key, i);
+        }
+    }
+
+    /**
+     * Removes every index, in time proportional to the number of them
+     */
+    public void clear() {
+        for (int k = 1; k <= n; k++) {
+            qp[items[k]] = 0;
+        }
+        n = 0;
+    }
+
+    private void validateIndex(int i) {
+        if (i < 0) throw new IllegalArgumentException("index is negative: " + i);
+        if (i >= maxN) throw new IllegalArgumentException("index >= capacity: " + i);
+    }
+
+    // move the hole at k up until key fits, then put key and item in it
+    private void swim(int k, double key, int item) {
+        while (k > 1) {
+            int parent = (k - 2) / d + 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[k] = keys[parent];
+            items[k] = items[parent];
+            qp[items[k]] = k;
+            k = parent;
+        }
+        keys[k] = key;
+        items[k] = item;
+        qp[item] = k;
+    }
+
+    // move the hole at k down until key fits, then put key and item in it
+    private void sink(int k, double key, int item) {
+        while (true) {
+            int first = d * (k - 1) + 2;
+            if (first > n) {
+                break;
+            }
+            int last = Math.min(first + d - 1, n);
+            int j = first;
+            for (int c = first + 1; c <= last; c++) {
+                if (keys[c] < keys[j]) {
+                    j = c;
+                }
+            }
+            if (key <= keys[j]) {
+                break;
+            }
+            keys[k] = keys[j];
+            items[k] = items[j];
+            qp[items[k]] = k;
+            k = j;
+        }
+        keys[k] = key;
+        items[k] = item;
+        qp[item] = k;
+    }
+
+    public static void main(String[] args) {
+        double[] priorities = { 0.5, 0.25, 0.75, 0.125, 1.0, 0.375, 0.625, 0.875 };
+
+        IndexDoubleMinPQ pq = new IndexDoubleMinPQ(priorities.length);
+        for (int i = 0; i < priorities.length; i++) {
+            pq.insert(i, priorities[i]);
+        }
+        // make index 4 the smallest, then 2
+        pq.decreaseKey(4, 0.0625);
+        pq.insertOrDecrease(2, 0.1);
+
+        // delete and print each index with its key
+        while (!pq.isEmpty()) {
+            double key = pq.minKey();
+            int i = pq.delMin();
+            StdOut.println(i + " " + key);
+        }
+    }
+}
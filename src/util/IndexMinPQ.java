@@ -0,0 +1,277 @@
+package util;
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 索引优先队列：给每个元素关联一个0到maxN - 1之间的整数索引
+ *
+ * MinPQ中的元素插入之后就无法再找到它、修改它的优先级了。
+ * 很多算法（Prim、Dijkstra）需要在一个元素的优先级变小时更新它，
+ * 如果只能插入一个新的元素，旧的元素就会作为失效的元素一直留在队列里，队列最多会增长到E个元素。
+ * 用索引来引用元素之后，就可以直接修改某个元素的优先级，队列中最多只有maxN个元素。
+ *
+ * 用三个并行数组实现：
+ * - pq[]: 二叉堆，保存的是索引，pq[1]是最小元素的索引
+ * - qp[]: pq[]的逆，qp[i]是索引i在pq[]中的位置，不在队列中时为-1，即 pq[qp[i]] = qp[pq[i]] = i
+ * - keys[]: keys[i]是索引i的优先级
+ * 修改索引i的优先级时通过qp[i]找到它在堆中的位置，然后上浮或下沉，所以所有操作都是对数级别的
+ */
+
+public class IndexMinPQ<Key extends Comparable<Key>> implements Iterable<Integer> {
+
+    private final int maxN;                 // maximum number of elements on pq
+    private int n;                          // number of elements on pq
+    private final int[] pq;                 // binary heap using 1-based indexing
+    private final int[] qp;                 // inverse of pq - qp[pq[i]] = pq[qp[i]] = i
+    private final Key[] keys;               // keys[i] = priority of i
+
+    /**
+     * Initializes an empty indexed priority queue with indices between 0 and maxN - 1
+     * @param maxN the keys on this priority queue are index from 0 to maxN - 1
+     */
+    public IndexMinPQ(int maxN) {
+        if (maxN < 0) throw new IllegalArgumentException("maxN must be non-negative: " + maxN);
+        this.maxN = maxN;
+        n = 0;
+        keys = (Key[]) new Comparable[maxN + 1];
+        pq = new int[maxN + 1];
+        qp = new int[maxN + 1];
+        for (int i = 0; i <= maxN; i++) {
+            qp[i] = -1;
+        }
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Is i an index on this priority queue?
+     * @param i an index
+     * @return true if i is an index on this priority queue
+     */
+    public boolean contains(int i) {
+        validateIndex(i);
+        return qp[i] != -1;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Associates key with index i
+     * @param i an index
+     * @param key the key to associate with index i
+     */
+    public void insert(int i, Key key) {
+        validateIndex(i);
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue");
+        n++;
+        qp[i] = n;
+        pq[n] = i;
+        keys[i] = key;
+        swim(n);
+    }
+
+    /**
+     * @return an index associated with a minimum key
+     */
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return pq[1];
+    }
+
+    public Key minKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return keys[pq[1]];
+    }
+
+    /**
+     * Removes a minimum key and returns its associated index
+     * @return an index associated with a minimum key
+     */
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = pq[1];
+        exchange(1, n--);
+        sink(1);
+        assert min == pq[n + 1];
+        qp[min] = -1;
+        keys[min] = null;
+        pq[n + 1] = -1;
+        return min;
+    }
+
+    public Key keyOf(int i) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        return keys[i];
+    }
+
+    /**
+     * Change the key associated with index i to the specified value
+     * @param i the index of the key to change
+     * @param key change the key associated with index i to this key
+     */
+    public void changeKey(int i, Key key) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        keys[i] = key;
+        swim(qp[i]);
+        sink(qp[i]);
+    }
+
+    /**
+     * Decrease the key associated with index i to the specified value
+     * @param i the index of the key to decrease
+     * @param key decrease the key associated with index i to this key
+     * @throws IllegalArgumentException if key is greater than or equal to keyOf(i)
+     */
+    public void decreaseKey(int i, Key key) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        int cmp = keys[i].compareTo(key);
+        if (cmp == 0) throw new IllegalArgumentException("Calling decreaseKey() with a key equal to the key in the priority queue");
+        if (cmp < 0) throw new IllegalArgumentException("Calling decreaseKey() with a key strictly greater than the key in the priority queue");
+        keys[i] = key;
+        swim(qp[i]);
+    }
+
+    /**
+     * Increase the key associated with index i to the specified value
+     * @param i the index of the key to increase
+     * @param key increase the key associated with index i to this key
+     * @throws IllegalArgumentException if key is less than or equal to keyOf(i)
+     */
+    public void increaseKey(int i, Key key) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        int cmp = keys[i].compareTo(key);
+        if (cmp == 0) throw new IllegalArgumentException("Calling increaseKey() with a key equal to the key in the priority queue");
+        if (cmp > 0) throw new IllegalArgumentException("Calling increaseKey() with a key strictly less than the key in the priority queue");
+        keys[i] = key;
+        sink(qp[i]);
+    }
+
+    /**
+     * Remove the key associated with index i
+     * @param i the index of the key to remove
+     */
+    public void delete(int i) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        int index = qp[i];
+        exchange(index, n--);
+        swim(index);
+        sink(index);
+        keys[i] = null;
+        qp[i] = -1;
+    }
+
+    private void validateIndex(int i) {
+        if (i < 0) throw new IllegalArgumentException("index is negative: " + i);
+        if (i >= maxN) throw new IllegalArgumentException("index >= capacity: " + i);
+    }
+
+    private boolean greater(int i, int j) {
+        return keys[pq[i]].compareTo(keys[pq[j]]) > 0;
+    }
+
+    private void exchange(int i, int j) {
+        int temp = pq[i];
+        pq[i] = pq[j];
+        pq[j] = temp;
+        qp[pq[i]] = i;
+        qp[pq[j]] = j;
+    }
+
+    private void swim(int k) {
+        while (k > 1 && greater(k / 2, k)) {
+            exchange(k, k / 2);
+            k /= 2;
+        }
+    }
+
+    private void sink(int k) {
+        while (2 * k <= n) {
+            int j = 2 * k;
+            if (j < n && greater(j, j + 1)) {
+                j++;
+            }
+            if (!greater(k, j)) {
+                break;
+            }
+            exchange(k, j);
+            k = j;
+        }
+    }
+
+    /**
+     * Returns an iterator that iterates over the keys on the priority queue in ascending order
+     * @return an iterator that iterates over the keys in ascending order
+     */
+    public Iterator<Integer> iterator() {
+        return new HeapIterator();
+    }
+
+    private class HeapIterator implements Iterator<Integer> {
+        // create a new pq
+        private IndexMinPQ<Key> copy;
+
+        // add all elements to copy of heap
+        // takes linear time since already in heap order so no keys move
+        public HeapIterator() {
+            copy = new IndexMinPQ<>(pq.length - 1);
+            for (int i = 1; i <= n; i++) {
+                copy.insert(pq[i], keys[pq[i]]);
+            }
+        }
+
+        public boolean hasNext() {
+            return !copy.isEmpty();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public Integer next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return copy.delMin();
+        }
+    }
+
+    public static void main(String[] args) {
+        // insert a bunch of strings
+        String[] strings = { "it", "was", "the", "best", "of", "times", "it", "was", "the", "worst" };
+
+        IndexMinPQ<String> pq = new IndexMinPQ<>(strings.length);
+        for (int i = 0; i < strings.length; i++) {
+            pq.insert(i, strings[i]);
+        }
+
+        // delete and print each key
+        while (!pq.isEmpty()) {
+            int i = pq.delMin();
+            StdOut.println(i + " " + strings[i]);
+        }
+        StdOut.println();
+
+        // reinsert the same strings
+        for (int i = 0; i < strings.length; i++) {
+            pq.insert(i, strings[i]);
+        }
+
+        // print each key using the iterator
+        for (int i : pq) {
+            StdOut.println(i + " " + strings[i]);
+        }
+        while (!pq.isEmpty()) {
+            pq.delMin();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The IntBag class is a Bag specialized to primitive int items.
+ *
+ * The items are kept in a resizing int[] instead of a linked list of boxed Integers, so adding an item costs 4 bytes
+ * (amortized) and reading one back never unboxes. The iteration order is the same as Bag: the most recently added item
+ * comes first, and get(i) returns the i-th item of that order.
+ */
+public class IntBag implements Iterable<Integer> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] items;            // items[0..n-1] in insertion order
+    private int n;                  // number of items in the bag
+
+    public IntBag() {
+        items = EMPTY;
+        n = 0;
+    }
+
+    /**
+     * Initializes an empty bag with room for capacity items
+     * @param capacity the initial capacity
+     */
+    public IntBag(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must be non-negative: " + capacity);
+        }
+        items = capacity == 0 ? EMPTY : new int[capacity];
+        n = 0;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public void add(int item) {
+        if (n == items.length) {
+            resize(Math.max(4, 2 * items.length));
+        }
+        items[n++] = item;
+    }
+
+    /**
+     * @param i index between 0 and size() - 1
+     * @return the i-th item in iteration order (the most recently added item is item 0)
+     */
+    public int get(int i) {
+        if (i < 0 || i >= n) {
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (n - 1));
+        }
+        return items[n - 1 - i];
+    }
+
+    private void resize(int capacity) {
+        assert capacity >= n;
+        int[] temp = new int[capacity];
+        System.arraycopy(items, 0, temp, 0, n);
+        items = temp;
+    }
+
+    public Iterator<Integer> iterator() {
+        return new ArrayIterator();
+    }
+
+    private class ArrayIterator implements Iterator<Integer> {
+        private int i = n;
+
+        public boolean hasNext() {
+            return i > 0;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return items[--i];
+        }
+    }
+}
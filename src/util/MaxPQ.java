@@ -30,6 +30,15 @@ import java.util.NoSuchElementException;
  * swim() 方法中的循环可以保证只有位置k上的结点大于它的父结点时堆的有序状态才会被打破
  * - 某个结点的优先级下降（例如，将根结点替换成一个较小的元素）时，我们需要由上至下恢复堆的状态 (sink)
  * 父结点跟子结点中的较大者进行交换, 直到子结点都比小小或是到达了堆的底部
+ *
+ * d叉堆：
+ * 每个结点有d个子结点，由a[k]向上一层是a[(k - 2) / d + 1]，向下一层是a[d * (k - 1) + 2]到a[d * k + 1]（d = 2时就是上面的二叉堆）。
+ * 堆的高度从log2(n)降到logd(n)，sink()每一层要在d个子结点中选出最大的一个，比较次数变多了，
+ * 但是这d个子结点在数组中是相邻的，通常在同一条缓存行里。堆很大、放不进缓存时，sink()的开销主要是每层一次的缓存未命中，
+ * 所以d = 4或8的堆比二叉堆快。
+ *
+ * 上浮和下沉都不做交换：先把要移动的元素取出来，留下一个"空位"，把挡路的元素依次移到空位中，最后把元素放到空位的最终位置上，
+ * 每层只写一次数组而不是三次。
  */
 
 public class MaxPQ<Key> implements Iterable<Key> {
@@ -37,11 +46,11 @@ public class MaxPQ<Key> implements Iterable<Key> {
     private Key[] pq;                       // store items from indices 1 to n
     private int n;                          // number of elements in the pq
     private Comparator<Key> comparator;     // optional comparator
+    private final int d;                    // number of children of every node
 
     // + 1 是为了给pq[0]一个位置
     public MaxPQ(int capacity) {
-        pq = (Key[]) new Object[capacity + 1];
-        n = 0;
+        this(capacity, 2, null);
     }
 
     public MaxPQ() {
@@ -49,9 +58,28 @@ public class MaxPQ<Key> implements Iterable<Key> {
     }
 
     public MaxPQ(int capacity, Comparator<Key> comparator) {
+        this(capacity, 2, comparator);
+    }
+
+    /**
+     * @param capacity the initial capacity
+     * @param arity the number of children of every node, 4 or 8 are good for large heaps
+     */
+    public MaxPQ(int capacity, int arity) {
+        this(capacity, arity, null);
+    }
+
+    /**
+     * @param capacity the initial capacity
+     * @param arity the number of children of every node
+     * @param comparator the order of the keys, or null for their natural order
+     */
+    public MaxPQ(int capacity, int arity, Comparator<Key> comparator) {
+        if (arity < 2) throw new IllegalArgumentException("arity must be at least 2: " + arity);
         this.comparator = comparator;
         pq = (Key[]) new Object[capacity + 1];
         n = 0;
+        d = arity;
     }
 
     public MaxPQ(Comparator<Key> comparator) {
@@ -96,9 +124,11 @@ public class MaxPQ<Key> implements Iterable<Key> {
             throw new IllegalArgumentException("Priority queue underflow.");
         }
         Key result = pq[1];
-        exchange(1, n);
+        pq[1] = pq[n];
         pq[n--] = null;
-        sink(1);
+        if (n > 0) {
+            sink(1);
+        }
         if (n > 0 && n == (pq.length - 1) / 4) {
             resize(pq.length / 2);
         }
@@ -107,42 +137,51 @@ public class MaxPQ<Key> implements Iterable<Key> {
     }
 
     private void swim(int k) {
-        while (k > 1 && less(k / 2, k)) {
-            exchange(k / 2, k);
-            k /= 2;
+        Key key = pq[k];
+        while (k > 1) {
+            int parent = (k - 2) / d + 1;
+            if (!less(pq[parent], key)) {
+                break;
+            }
+            pq[k] = pq[parent];
+            k = parent;
         }
+        pq[k] = key;
     }
 
     private void sink(int k) {
-       while (2 * k <= n) {
-           int j = 2 * k;
-           // 当j == n， 说明这个堆的最后一个元素是一个左子结点，也就是说只有一个结点
-           if (j < n && less(j, j + 1)) {
-               j++;
-           }
-           if (!less(k, j)) {
-               break;
-           }
-           exchange(k, j);
-           k = j;
-       }
-    }
-
-    private boolean less(int i, int j) {
+        Key key = pq[k];
+        while (true) {
+            int first = d * (k - 1) + 2;
+            if (first > n) {
+                break;
+            }
+            // 当last == first，说明这个结点只有一个子结点
+            int last = Math.min(first + d - 1, n);
+            int j = first;
+            for (int c = first + 1; c <= last; c++) {
+                if (less(pq[j], pq[c])) {
+                    j = c;
+                }
+            }
+            if (!less(key, pq[j])) {
+                break;
+            }
+            pq[k] = pq[j];
+            k = j;
+        }
+        pq[k] = key;
+    }
+
+    private boolean less(Key a, Key b) {
         if (comparator == null) {
-            return ((Comparable<Key>) pq[i]).compareTo(pq[j]) < 0;
+            return ((Comparable<Key>) a).compareTo(b) < 0;
         }
         else {
-            return comparator.compare(pq[i], pq[j]) < 0;
+            return comparator.compare(a, b) < 0;
         }
     }
 
-    private void exchange(int i, int j) {
-        Key temp = pq[i];
-        pq[i] = pq[j];
-        pq[j] = temp;
-    }
-
     private boolean isMaxHeap() {
         for (int i = 1; i <= n; i++) {
             if (pq[i] == null) {
@@ -161,16 +200,12 @@ public class MaxPQ<Key> implements Iterable<Key> {
     }
 
     private boolean isMaxHeapOrdered(int k) {
-        if (k > n) return true;
-        int left = 2 * k;
-        int right = 2 * k + 1;
-        if (left <= n && less(k, left)) {
-            return false;
-        }
-        if (right <= n && less(k, right)) {
-            return false;
+        for (int i = Math.max(k, 2); i <= n; i++) {
+            if (less(pq[(i - 2) / d + 1], pq[i])) {
+                return false;
+            }
         }
-        return isMaxHeapOrdered(left) && isMaxHeapOrdered(right);
+        return true;
     }
 
     public Iterator<Key> iterator() {
@@ -181,12 +216,7 @@ public class MaxPQ<Key> implements Iterable<Key> {
         private MaxPQ<Key> copy;
 
         public HeapIterator() {
-            if (comparator == null) {
-                copy = new MaxPQ<>(size());
-            }
-            else {
-                copy = new MaxPQ<>(size(), comparator);
-            }
+            copy = new MaxPQ<>(size(), d, comparator);
             if (!isEmpty()) {
                 for (int i = 1; i <= n; i++) {
                     copy.insert(pq[i]);
@@ -7,15 +7,18 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+/**
+ * 最小优先队列，用d叉堆实现（默认d = 2，即二叉堆），堆的说明见MaxPQ
+ */
 public class MinPQ<Key> implements Iterable<Key> {
 
     private Key[] pq;
     private int n;
     private Comparator<Key> comparator;
+    private final int d;                    // number of children of every node
 
     public MinPQ(int capacity) {
-        pq = (Key[]) new Object[capacity + 1];
-        n = 0;
+        this(capacity, 2, null);
     }
 
     public MinPQ() {
@@ -23,8 +26,27 @@ public class MinPQ<Key> implements Iterable<Key> {
     }
 
     public MinPQ(int capacity, Comparator<Key> comparator) {
+        this(capacity, 2, comparator);
+    }
+
+    /**
+     * @param capacity the initial capacity
+     * @param arity the number of children of every node, 4 or 8 are good for large heaps
+     */
+    public MinPQ(int capacity, int arity) {
+        this(capacity, arity, null);
+    }
+
+    /**
+     * @param capacity the initial capacity
+     * @param arity the number of children of every node
+     * @param comparator the order of the keys, or null for their natural order
+     */
+    public MinPQ(int capacity, int arity, Comparator<Key> comparator) {
+        if (arity < 2) throw new IllegalArgumentException("arity must be at least 2: " + arity);
         pq = (Key[]) new Object[capacity + 1];
         n = 0;
+        d = arity;
         this.comparator = comparator;
     }
 
@@ -61,9 +83,11 @@ public class MinPQ<Key> implements Iterable<Key> {
             throw new NoSuchElementException("Min priority queue underflow.");
         }
         Key result = pq[1];
-        exchange(1, n);
+        pq[1] = pq[n];
         pq[n--] = null;
-        sink(1);
+        if (n > 0) {
+            sink(1);
+        }
         if (n > 0 && n == (pq.length - 1) / 4) {
             resize(pq.length / 2);
         }
@@ -71,42 +95,54 @@ public class MinPQ<Key> implements Iterable<Key> {
         return result;
     }
 
+    // the children of k are d * (k - 1) + 2 ... d * k + 1, its parent is (k - 2) / d + 1 (for d = 2: 2k, 2k + 1 and k / 2)
+    // both sifts carry the moving key in a local variable and shift the others into the hole, instead of exchanging
+
     private void swim(int k) {
-        while (k > 1 && greater(k / 2, k)) {
-            exchange(k / 2, k);
-            k /= 2;
+        Key key = pq[k];
+        while (k > 1) {
+            int parent = (k - 2) / d + 1;
+            if (!greater(pq[parent], key)) {
+                break;
+            }
+            pq[k] = pq[parent];
+            k = parent;
         }
+        pq[k] = key;
     }
 
     private void sink(int k) {
-        while (2 * k <= n) {
-            int j = 2 * k;
-            if (j < n && greater(j, j + 1)) {
-                j++;
+        Key key = pq[k];
+        while (true) {
+            int first = d * (k - 1) + 2;
+            if (first > n) {
+                break;
             }
-            if (!greater(k, j)) {
+            int last = Math.min(first + d - 1, n);
+            int j = first;
+            for (int c = first + 1; c <= last; c++) {
+                if (greater(pq[j], pq[c])) {
+                    j = c;
+                }
+            }
+            if (!greater(key, pq[j])) {
                 break;
             }
-            exchange(k, j);
+            pq[k] = pq[j];
             k = j;
         }
+        pq[k] = key;
     }
 
-    private boolean greater(int i, int j) {
+    private boolean greater(Key a, Key b) {
         if (comparator == null) {
-            return ((Comparable<Key>) pq[i]).compareTo(pq[j]) > 0;
+            return ((Comparable<Key>) a).compareTo(b) > 0;
         }
         else {
-            return comparator.compare(pq[i], pq[j]) > 0;
+            return comparator.compare(a, b) > 0;
         }
     }
 
-    private void exchange(int i, int j) {
-        Key temp = pq[i];
-        pq[i] = pq[j];
-        pq[j] = temp;
-    }
-
     private void resize(int capacity) {
         assert capacity > n;
         Key[] temp = (Key[]) new Object[capacity];
@@ -134,18 +170,12 @@ public class MinPQ<Key> implements Iterable<Key> {
     }
 
     private boolean isMinHeapOrdered(int k) {
-        if (k > n) {
-            return true;
-        }
-        int left = 2 * k;
-        int right = 2 * k + 1;
-        if (left <= n && greater(k, left)) {
-            return false;
-        }
-        if (right <= n && greater(k, right)) {
-            return false;
+        for (int i = Math.max(k, 2); i <= n; i++) {
+            if (greater(pq[(i - 2) / d + 1], pq[i])) {
+                return false;
+            }
         }
-        return isMinHeapOrdered(left) && isMinHeapOrdered(right);
+        return true;
     }
 
     public Iterator<Key> iterator() {
@@ -156,12 +186,7 @@ public class MinPQ<Key> implements Iterable<Key> {
         private MinPQ<Key> copy;
 
         public HeapIterator() {
-            if (comparator == null) {
-                copy = new MinPQ<>(size());
-            }
-            else {
-                copy = new MinPQ<>(size(), comparator);
-            }
+            copy = new MinPQ<>(size(), d, comparator);
             if (!isEmpty()) {
                 for (int i = 1; i <= n; i++) {
                     copy.insert(pq[i]);
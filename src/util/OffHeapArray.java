@@ -0,0 +1,136 @@
+package util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 堆外的定长数组：元素保存在直接缓冲区（ByteBuffer.allocateDirect）中，不在Java堆上
+ *
+ * Java数组的下标是int，一个int[]最多只有约2^31个元素；而且很大的数组会让垃圾收集器每次都要扫描或复制它们。
+ * 这里的下标是long，元素按CHUNK_BYTES (1GB) 分段保存在多个直接缓冲区中，长度只受机器内存的限制，
+ * 堆上只有每一段的一个ByteBuffer对象。
+ *
+ * 元素的宽度在构造时给定（4或8个字节），用getInt/setInt、getLong/setLong、getDouble/setDouble按元素的下标读写，
+ * 一个数组只应该用与它的宽度相符的方法。CHUNK_BYTES是8的倍数，所以任何一个元素都不会跨越两段。
+ *
+ * 直接缓冲区的总大小受JVM参数-XX:MaxDirectMemorySize限制（默认与最大堆相同）；
+ * 缓冲区在它的ByteBuffer对象被回收时释放，所以数组不再使用之后，内存会在下一次垃圾收集之后归还。
+ */
+
+public class OffHeapArray {
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_BYTES = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_BYTES - 1;
+
+    private final long length;              // number of elements
+    private final int shift;                // log2 of the width of an element in bytes
+    private final ByteBuffer[] chunks;      // the elements, CHUNK_BYTES at a time
+
+    /**
+     * Allocates an array of length elements of width bytes each, all zero
+     * @param length the number of elements
+     * @param width the number of bytes of an element, 4 or 8
+     */
+    public OffHeapArray(long length, int width) {
+        if (length < 0) throw new IllegalArgumentException("length must be non-negative: " + length);
+        if (width != 4 && width != 8) throw new IllegalArgumentException("width must be 4 or 8: " + width);
+        this.length = length;
+        this.shift = Integer.numberOfTrailingZeros(width);
+        long bytes = length << shift;
+        chunks = new ByteBuffer[(int) ((bytes + CHUNK_BYTES - 1) >>> CHUNK_SHIFT)];
+        for (int k = 0; k < chunks.length; k++) {
+            long size = Math.min(CHUNK_BYTES, bytes - k * CHUNK_BYTES);
+            chunks[k] = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return the number of bytes allocated outside the heap
+     */
+    public long bytes() {
+        return length << shift;
+    }
+
+    private void validateIndex(long i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (length - 1));
+        }
+    }
+
+    private ByteBuffer chunk(long i) {
+        validateIndex(i);
+        return chunks[(int) ((i << shift) >>> CHUNK_SHIFT)];
+    }
+
+    private int position(long i) {
+        return (int) ((i << shift) & CHUNK_MASK);
+    }
+
+    public int getInt(long i) {
+        return chunk(i).getInt(position(i));
+    }
+
+    public void setInt(long i, int x) {
+        chunk(i).putInt(position(i), x);
+    }
+
+    public long getLong(long i) {
+        return chunk(i).getLong(position(i));
+    }
+
+    public void setLong(long i, long x) {
+        chunk(i).putLong(position(i), x);
+    }
+
+    public double getDouble(long i) {
+        return chunk(i).getDouble(position(i));
+    }
+
+    public void setDouble(long i, double x) {
+        chunk(i).putDouble(position(i), x);
+    }
+
+    /**
+     * Returns a new array of the given length with the same width, holding a copy of the first elements of this one
+     * @param newLength the length of the copy, which may be larger or smaller than length()
+     * @return the copy; elements past length() are zero
+     */
+    public OffHeapArray copyOf(long newLength) {
+        OffHeapArray copy = new OffHeapArray(newLength, 1 << shift);
+        long bytes = Math.min(length, newLength) << shift;
+        for (int k = 0; k * CHUNK_BYTES < bytes; k++) {
+            ByteBuffer source = chunks[k].duplicate();
+            source.limit((int) Math.min(CHUNK_BYTES, bytes - k * CHUNK_BYTES));
+            source.position(0);
+            copy.chunks[k].duplicate().put(source);
+        }
+        return copy;
+    }
+
+    /**
+     * Fills an array of longs and sums it, 2^27 of them unless a length is given:
+     * java OffHeapArray [length]
+     */
+    public static void main(String[] args) {
+        long n = args.length > 0 ? Long.parseLong(args[0]) : 1L << 27;
+        long start = System.nanoTime();
+        OffHeapArray a = new OffHeapArray(n, 8);
+        for (long i = 0; i < n; i++) {
+            a.setLong(i, i);
+        }
+        long sum = 0;
+        for (long i = 0; i < n; i++) {
+            sum += a.getLong(i);
+        }
+        System.out.printf("%,d longs (%,d bytes off heap): sum %d, expected %d, %.3f s%n",
+                n, a.bytes(), sum, n * (n - 1) / 2, (System.nanoTime() - start) / 1e9);
+    }
+}
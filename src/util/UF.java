@@ -39,6 +39,10 @@ public class UF {
         return count;
     }
 
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
     public void union(int p, int q) {
         int rootP = find(p);
         int rootQ = find(q);
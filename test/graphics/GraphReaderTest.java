@@ -0,0 +1,96 @@
+package graphics;
+
+import edu.princeton.cs.algs4.In;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class GraphReaderTest {
+
+    private static final int V = 100_000;
+    private static final int SPLIT = 64;                // bytes per part, so that a small file is cut into many parts
+    private static final int LARGE = 1_000_000;        // edges, enough for several parts of the default size (over 8 MB)
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    // a random graph with E edges, every token on a line of its own, and extra tokens after the edges
+    // the weights are integers if weighted, so that a misaligned part would pair up the tokens without an error
+    private static File write(int E, boolean weighted, int extra) throws IOException {
+        Random random = new Random(E);
+        File file = File.createTempFile("graph", ".txt");
+        file.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            out.println(V);
+            out.println(E);
+            int tokens = E * (weighted ? 3 : 2) + extra;
+            for (int i = 0; i < tokens; i++) {
+                out.println(random.nextInt(V));
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void oneTokenPerLine() throws IOException {
+        for (int E : new int[] { 1000, 20_000 }) {
+            File file = write(E, false, 0);
+            String expected = new Graphic(new In(file.getPath())).toString();
+            assertEquals(expected, GraphReader.readGraphic(file.getPath(), pool, SPLIT).toString());
+            file.delete();
+        }
+    }
+
+    @Test
+    public void integerWeightsOneTokenPerLine() throws IOException {
+        for (int E : new int[] { 1000, 20_000 }) {
+            File file = write(E, true, 0);
+            String expected = new EdgeWeightedGraph(new In(file.getPath())).toString();
+            assertEquals(expected, GraphReader.readEdgeWeightedGraph(file.getPath(), pool, SPLIT).toString());
+            file.delete();
+        }
+    }
+
+    @Test
+    public void incompleteEdgeRejectedAtAnySize() throws IOException {
+        for (int E : new int[] { 1000, 20_000 }) {
+            File file = write(E, false, 1);
+            try {
+                GraphReader.readGraphic(file.getPath(), pool, SPLIT);
+                fail("accepted a file with an incomplete edge, E = " + E);
+            }
+            catch (IllegalArgumentException expected) {
+                // the extra token is an edge without its second vertex
+            }
+            file.delete();
+        }
+    }
+
+    @Test
+    public void largeFileWithTheDefaultSplit() throws IOException {
+        File file = write(LARGE, false, 0);
+        String expected = new Graphic(new In(file.getPath())).toString();
+        assertEquals(expected, GraphReader.readGraphic(file.getPath(), pool).toString());
+        file.delete();
+    }
+}
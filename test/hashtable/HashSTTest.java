@@ -0,0 +1,130 @@
+package hashtable;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HashSTTest {
+
+    // the supplemental hash of HashST, to pick keys that land in a given chain
+    private static int chain(int key, int m) {
+        int h = Integer.hashCode(key);
+        h ^= (h >>> 20) ^ (h >>> 12) ^ (h >>> 7) ^ (h >>> 4);
+        return h & (m - 1);
+    }
+
+    // the first count keys from start on that hash to the given chain of a table of m chains
+    private static int[] keysInChain(int chain, int m, int count, int start) {
+        int[] keys = new int[count];
+        for (int key = start, i = 0; i < count; key++) {
+            if (chain(key, m) == chain) keys[i++] = key;
+        }
+        return keys;
+    }
+
+    @Test
+    public void putIntoEmptyOldChainDuringIncrementalResize() {
+        HashST<Integer, Integer> st = new HashST<>(64, true);
+        // 641 keys in chain 0: the 641st put resizes to 128 chains, chain 0 is migrated by a later step
+        for (int key : keysInChain(0, 64, 641, 0)) {
+            st.put(key, key);
+        }
+        assertTrue(st.isRehashing());
+
+        int key = keysInChain(50, 64, 1, 0)[0];
+        st.put(key, 1);
+        assertEquals(Integer.valueOf(1), st.get(key));
+        st.put(key, 2);
+        assertEquals(Integer.valueOf(2), st.get(key));
+        assertEquals(642, st.size());
+
+        while (st.isRehashing()) {
+            st.get(key);
+        }
+        assertEquals(642, st.size());
+        assertEquals(Integer.valueOf(2), st.get(key));
+    }
+
+    @Test
+    public void putIntoMigratedChainKeepsItsKeys() {
+        HashST<Integer, Integer> st = new HashST<>(64, true);
+        for (int key : keysInChain(0, 64, 641, 0)) {
+            st.put(key, key);
+        }
+        // new keys of the empty old chain 50 go to new chain 50 or 114, one put must not replace the keys of another
+        int[] keys = keysInChain(50, 64, 8, 0);
+        for (int key : keys) {
+            st.put(key, -key);
+        }
+        for (int key : keys) {
+            assertEquals(Integer.valueOf(-key), st.get(key));
+        }
+        assertEquals(641 + keys.length, st.size());
+    }
+
+    @Test
+    public void skewedKeysThroughResizes() {
+        for (boolean incremental : new boolean[] { false, true }) {
+            HashST<Integer, Integer> st = new HashST<>(64, incremental);
+            Map<Integer, Integer> expected = new HashMap<>();
+            Random random = new Random(42);
+            // fill a single chain of the first table up to its resize, so every other old chain is empty while it migrates
+            int[] hot = keysInChain(3, 64, 2000, 0);
+            for (int i = 0; i <= 640; i++) {
+                st.put(hot[i], i);
+                expected.put(hot[i], i);
+            }
+            for (int i = 0; i < 100_000; i++) {
+                int key = random.nextBoolean() ? random.nextInt(50_000) : hot[random.nextInt(hot.length)];
+                int op = random.nextInt(10);
+                if (op < 6) {
+                    st.put(key, i);
+                    expected.put(key, i);
+                    assertEquals(Integer.valueOf(i), st.get(key));
+                }
+                else if (op < 8) {
+                    st.delete(key);
+                    expected.remove(key);
+                    assertNull(st.get(key));
+                }
+                else {
+                    assertEquals(expected.get(key), st.get(key));
+                }
+                assertEquals(expected.size(), st.size());
+            }
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                assertEquals(entry.getValue(), st.get(entry.getKey()));
+            }
+            Set<Integer> keys = new HashSet<>();
+            for (Integer key : st.keys()) {
+                assertTrue("duplicate key " + key, keys.add(key));
+            }
+            assertEquals(expected.keySet(), keys);
+        }
+    }
+
+    @Test
+    public void deleteDuringIncrementalResize() {
+        HashST<Integer, Integer> st = new HashST<>(64, true);
+        int[] keys = keysInChain(0, 64, 641, 0);
+        for (int key : keys) {
+            st.put(key, key);
+        }
+        assertTrue(st.isRehashing());
+        for (int key : keys) {
+            st.delete(key);
+            assertNull(st.get(key));
+        }
+        assertEquals(0, st.size());
+        assertFalse(st.contains(keys[0]));
+    }
+}
@@ -0,0 +1,226 @@
+package hashtable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LPHashSTTest {
+
+    // the supplemental hash of LPHashST, to pick keys that land in a given slot
+    private static int slot(int key, int m) {
+        int h = Integer.hashCode(key);
+        h ^= (h >>> 20) ^ (h >>> 12) ^ (h >>> 7) ^ (h >>> 4);
+        return h & (m - 1);
+    }
+
+    // the first count keys from start on that hash to the given slot of a table of m slots
+    private static int[] keysInSlot(int slot, int m, int count, int start) {
+        int[] keys = new int[count];
+        for (int key = start, i = 0; i < count; key++) {
+            if (slot(key, m) == slot) keys[i++] = key;
+        }
+        return keys;
+    }
+
+    // the keys of st, failing on a key that comes twice
+    private static Set<Integer> keySet(LPHashST<Integer, Integer> st) {
+        Set<Integer> keys = new HashSet<>();
+        for (Integer key : st.keys()) {
+            assertTrue("duplicate key " + key, keys.add(key));
+        }
+        return keys;
+    }
+
+    private static void assertSame(Map<Integer, Integer> expected, LPHashST<Integer, Integer> st) {
+        assertEquals(expected.size(), st.size());
+        assertEquals(expected.keySet(), keySet(st));
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), st.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void putOfAnExistingKeyReplacesItsValue() {
+        for (boolean incremental : new boolean[] { false, true }) {
+            LPHashST<Integer, Integer> st = new LPHashST<>(64, incremental);
+            int[] keys = keysInSlot(7, 64, 5, 0);
+            for (int key : keys) {
+                st.put(key, key);
+            }
+            // the key is found at the start of its cluster, it must not be inserted again at the end
+            st.put(keys[0], -1);
+            assertEquals(keys.length, st.size());
+            assertEquals(Integer.valueOf(-1), st.get(keys[0]));
+            assertEquals(keys.length, keySet(st).size());
+            st.delete(keys[0]);
+            assertNull(st.get(keys[0]));
+            assertEquals(keys.length - 1, st.size());
+        }
+    }
+
+    @Test
+    public void resizeStartedByPut() {
+        LPHashST<Integer, Integer> st = new LPHashST<>(64, true);
+        Map<Integer, Integer> expected = new HashMap<>();
+        int key = 0;
+        while (!st.isRehashing()) {
+            st.put(key, key);
+            expected.put(key, key);
+            key++;
+        }
+        assertEquals(33, st.size());
+        // replace the values, the keys in the last slots of the old table first: those have not been migrated yet
+        List<Integer> old = new ArrayList<>(expected.keySet());
+        old.sort((a, b) -> slot(b, 64) - slot(a, 64));
+        for (int k : old) {
+            st.put(k, -k);
+            expected.put(k, -k);
+            assertEquals(33, st.size());
+            assertEquals(expected.keySet(), keySet(st));
+        }
+        assertSame(expected, st);
+
+        // puts of existing and new keys while a second resize is migrating the keys
+        while (!st.isRehashing()) {
+            st.put(key, key);
+            expected.put(key, key);
+            key++;
+        }
+        for (int i = 0; st.isRehashing(); i++) {
+            assertEquals(expected.keySet(), keySet(st));
+            st.put(i, -i);
+            expected.put(i, -i);
+            st.put(key, key);
+            expected.put(key, key);
+            key++;
+        }
+        assertSame(expected, st);
+    }
+
+    @Test
+    public void resizeStartedByDelete() {
+        LPHashST<Integer, Integer> st = new LPHashST<>(64, true);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int key = 0; key < 1000; key++) {
+            st.put(key, key);
+            expected.put(key, key);
+        }
+        while (st.isRehashing()) {
+            st.get(0);
+        }
+        // the table has 2048 slots, it halves when no more than 256 keys are left
+        int key = 999;
+        while (!st.isRehashing()) {
+            st.delete(key);
+            expected.remove(key);
+            key--;
+        }
+        assertEquals(256, st.size());
+        for (; st.isRehashing(); key--) {
+            assertEquals(expected.keySet(), keySet(st));
+            st.delete(key);
+            expected.remove(key);
+            assertNull(st.get(key));
+        }
+        assertSame(expected, st);
+    }
+
+    @Test
+    public void deleteWhileRehashing() {
+        LPHashST<Integer, Integer> st = new LPHashST<>(64, true);
+        Map<Integer, Integer> expected = new HashMap<>();
+        // a cluster of 8 keys from slot 40 of the old table, and 25 keys in its first 30 slots
+        int[] cluster = keysInSlot(40, 64, 8, 0);
+        List<Integer> keys = new ArrayList<>();
+        for (int key : cluster) keys.add(key);
+        for (int key = 0; keys.size() < 33; key++) {
+            if (slot(key, 64) < 30) keys.add(key);
+        }
+        for (int key : keys) {
+            st.put(key, key);
+            expected.put(key, key);
+        }
+        assertTrue(st.isRehashing());
+
+        // the deleted key leaves a tombstone in the old table, the keys after it in the cluster must still be found
+        st.delete(cluster[2]);
+        expected.remove(cluster[2]);
+        for (int key : cluster) {
+            assertEquals(expected.get(key), st.get(key));
+        }
+        assertTrue("the cluster has not been migrated yet", st.rehashProgress() <= 40.0 / 64);
+
+        for (int i = 0; i < cluster.length; i += 3) {
+            st.delete(cluster[i]);
+            expected.remove(cluster[i]);
+            assertNull(st.get(cluster[i]));
+        }
+        assertSame(expected, st);
+        while (st.isRehashing()) {
+            st.get(0);
+        }
+        assertSame(expected, st);
+    }
+
+    @Test
+    public void keysHasNoDuplicatesWhileRehashing() {
+        LPHashST<Integer, Integer> st = new LPHashST<>(4, true);
+        Set<Integer> expected = new HashSet<>();
+        int rehashingChecks = 0;
+        for (int key = 0; key < 5000; key++) {
+            st.put(key, key);
+            expected.add(key);
+            if (st.isRehashing()) {
+                assertEquals(expected, keySet(st));
+                rehashingChecks++;
+            }
+        }
+        assertTrue(rehashingChecks > 0);
+        assertFalse(st.contains(5000));
+    }
+
+    @Test
+    public void randomOperationsAgainstHashMap() {
+        for (boolean incremental : new boolean[] { false, true }) {
+            LPHashST<Integer, Integer> st = new LPHashST<>(4, incremental);
+            Map<Integer, Integer> expected = new HashMap<>();
+            Random random = new Random(7);
+            int[] hot = keysInSlot(3, 1024, 200, 0);
+            for (int i = 0; i < 100_000; i++) {
+                // the key range grows and shrinks, so the table resizes both ways
+                int range = 1 + (int) (20_000 * Math.abs(Math.sin(i / 10_000.0)));
+                int key = random.nextInt(4) == 0 ? hot[random.nextInt(hot.length)] : random.nextInt(range);
+                int op = random.nextInt(10);
+                if (op < 5) {
+                    st.put(key, i);
+                    expected.put(key, i);
+                    assertEquals(Integer.valueOf(i), st.get(key));
+                }
+                else if (op < 8) {
+                    st.delete(key);
+                    expected.remove(key);
+                    assertNull(st.get(key));
+                }
+                else {
+                    assertEquals(expected.get(key), st.get(key));
+                }
+                assertEquals(expected.size(), st.size());
+                if (st.isRehashing() && i % 97 == 0) {
+                    assertEquals(expected.keySet(), keySet(st));
+                }
+            }
+            assertSame(expected, st);
+        }
+    }
+}